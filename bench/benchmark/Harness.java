@@ -0,0 +1,63 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Minimal measuring loop for the benchmarks: it warms an operation up so the
+ * JIT compiles it, then reports the mean time and the bytes allocated by the
+ * current thread per operation.
+ *
+ * @author Scott Lai
+ */
+final class Harness {
+
+    /** Thread bean that reports the bytes allocated by a thread. */
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Mean nanoseconds per operation. */
+    final double nanos;
+
+    /** Mean bytes allocated per operation. */
+    final double bytes;
+
+    /**
+     * Constructs a measurement.
+     *
+     * @param nanos {@code double} mean nanoseconds per operation
+     * @param bytes {@code double} mean bytes allocated per operation
+     */
+    private Harness(double nanos, double bytes) {
+        this.nanos = nanos;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Runs the specified operation warmup times, then measures it over the
+     * specified number of iterations.
+     *
+     * @param operation {@code Runnable} the operation
+     * @param warmup {@code int} number of unmeasured runs
+     * @param iterations {@code int} number of measured runs
+     *
+     * @return {@code Harness} the measurement
+     */
+    static Harness measure(Runnable operation, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++)
+            operation.run();
+
+        long thread = Thread.currentThread().getId();
+        long allocated = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++)
+            operation.run();
+
+        double nanos = (System.nanoTime() - start) / (double) iterations;
+        double bytes = (THREADS.getThreadAllocatedBytes(thread) - allocated)
+            / (double) iterations;
+
+        return new Harness(nanos, bytes);
+    }
+
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import cell.CellFactory;
+import utility.RandomSource;
+import world.NeighbourCounts;
+import world.World;
+
+/**
+ * Benchmark of {@link NeighbourCounts}, comparing the count of every species
+ * around every Cell 8 Cells at a time with the count one Cell at a time, for
+ * square and hex worlds, bounded and wrapped, at several sizes. Printed as
+ * CSV.
+ * <p>
+ * Usage: {@code NeighbourBenchmark [iterations]}
+ *
+ * @author Scott Lai
+ */
+public final class NeighbourBenchmark {
+
+    /** Seed of the random source of the Worlds. */
+    private static final long SEED = 2522;
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Edge of the Worlds, in Cells. */
+    private static final int[] SIZES = {64, 256, 1024, 2048};
+
+    /**
+     * Ensures that a NeighbourBenchmark Object cannot be created.
+     */
+    private NeighbourBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of measured iterations, optional
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        System.out.println("mode,torus,size,scalar ms/op,packed ms/op,"
+            + "scalar ns/cell,packed ns/cell,speedup");
+
+        for (String mode : MODES) {
+            for (boolean torus : new boolean[] {false, true}) {
+                for (int size : SIZES) {
+                    World world = new World(new CellFactory(mode, size, size,
+                        torus), RandomSource.of(SEED));
+                    NeighbourCounts counts = new NeighbourCounts(world);
+
+                    Harness scalar = Harness.measure(
+                        () -> counts.countScalar(world), iterations / 2,
+                        iterations);
+                    Harness packed = Harness.measure(
+                        () -> counts.countPacked(world), iterations / 2,
+                        iterations);
+
+                    double cells = (double) size * size;
+
+                    System.out.printf("%s,%b,%d,%.3f,%.3f,%.2f,%.2f,%.1f%n",
+                        mode, torus, size, scalar.nanos / 1e6,
+                        packed.nanos / 1e6, scalar.nanos / cells,
+                        packed.nanos / cells, scalar.nanos / packed.nanos);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import cell.CellFactory;
+import utility.RandomSource;
+import world.TiledSimulation;
+import world.World;
+
+/**
+ * Benchmark that measures how {@link TiledSimulation} scales from 1 to N
+ * threads. Every run starts from the same World with the same seed and tile
+ * size, so the checksums printed for each thread count must be equal.
+ * <p>
+ * Usage: {@code ParallelScaling [mode] [rows] [columns] [days] [tile]}
+ *
+ * @author Scott Lai
+ */
+public final class ParallelScaling {
+
+    /** Seed of the random source of the World. */
+    private static final long SEED = 2522;
+
+    /**
+     * Ensures that a ParallelScaling Object cannot be created.
+     */
+    private ParallelScaling() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args mode, rows, columns, days and tile edge, all optional
+     */
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "SQUARE";
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 2048;
+        int columns = args.length > 2 ? Integer.parseInt(args[2]) : 2048;
+        int days = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        int tile = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%s %dx%d, %d days, %dx%d tiles%n",
+            mode, rows, columns, days, tile, tile);
+        System.out.println("threads,ms,days/s,speedup,checksum");
+
+        double baseline = 0;
+
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            CellFactory factory = new CellFactory(mode, rows, columns);
+            World world = new World(factory, RandomSource.of(SEED));
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            TiledSimulation simulation =
+                new TiledSimulation(pool, tile, tile);
+
+            // Warm up on a separate World so the JIT compiles the hot paths
+            World warmup = new World(factory, RandomSource.of(SEED));
+            for (int i = 0; i < 5; i++)
+                simulation.simulate(warmup);
+
+            long start = System.nanoTime();
+
+            for (int i = 0; i < days; i++)
+                simulation.simulate(world);
+
+            double millis = (System.nanoTime() - start) / 1e6;
+
+            pool.shutdown();
+
+            if (threads == 1)
+                baseline = millis;
+
+            System.out.printf("%d,%.1f,%.2f,%.2f,%08x%n", threads, millis,
+                days * 1000 / millis, baseline / millis, checksum(world));
+
+            if (threads == cores)
+                break;
+        }
+    }
+
+    /**
+     * Returns a checksum of the species and hp of every Cell.
+     *
+     * @param world {@code World} the World
+     *
+     * @return {@code int} checksum of the World
+     */
+    static int checksum(World world) {
+        int hash = 1;
+
+        for (int i = 0; i < world.rows() * world.columns(); i++)
+            hash = 31 * (31 * hash + world.species(i)) + world.hp(i);
+
+        return hash;
+    }
+
+}
@@ -0,0 +1,142 @@
+package benchmark;
+
+import cell.CellFactory;
+import utility.RandomSource;
+import world.Neighbourhood;
+import world.World;
+
+/**
+ * Benchmark of the simulation hot paths, printed as CSV:
+ * <ul>
+ * <li>{@code simulate}: {@link World#simulate()}, i.e. every
+ * {@code LifeForm.takeTurn} of a day, over successive days of the same
+ * World</li>
+ * <li>{@code classify}: {@link World#classify} over every occupied Cell</li>
+ * </ul>
+ * for square and hex worlds at several sizes and population densities. A
+ * density of 1 is the population spawned from the percentages in
+ * {@code Setting}; lower densities keep that fraction of it, so the ratio of
+ * the species stays the same.
+ * <p>
+ * Usage: {@code SimulationBenchmark [iterations]}
+ *
+ * @author Scott Lai
+ */
+public final class SimulationBenchmark {
+
+    /** Seed of the random source of the Worlds. */
+    private static final long SEED = 2522;
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Edge of the Worlds, in Cells. */
+    private static final int[] SIZES = {64, 256, 1024};
+
+    /** Fraction of the spawned population kept. */
+    private static final double[] DENSITIES = {1.0, 0.5, 0.1};
+
+    /**
+     * Ensures that a SimulationBenchmark Object cannot be created.
+     */
+    private SimulationBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of measured iterations, optional
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        System.out.println("benchmark,mode,size,density,population,"
+            + "ms/op,ops/s,ns/cell,bytes/op");
+
+        for (String mode : MODES) {
+            for (int size : SIZES) {
+                for (double density : DENSITIES) {
+                    World world = create(mode, size, density);
+                    int population = population(world);
+
+                    report("simulate", mode, size, density, population,
+                        Harness.measure(world::simulate, iterations / 2,
+                            iterations));
+
+                    report("classify", mode, size, density, population,
+                        Harness.measure(() -> classifyAll(world),
+                            iterations / 2, iterations));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a World and thins its population to the specified density.
+     *
+     * @param mode {@code String} mode of the World
+     * @param size {@code int} number of rows and columns
+     * @param density {@code double} fraction of the spawned population kept
+     *
+     * @return {@code World} the World
+     */
+    static World create(String mode, int size, double density) {
+        RandomSource random = RandomSource.of(SEED);
+        World world = new World(new CellFactory(mode, size, size), random);
+        int keep = (int) Math.round(density * 1000);
+
+        for (int i = 0; i < size * size; i++)
+            if (!world.isEmpty(i) && random.next(1000) >= keep)
+                world.kill(i);
+
+        return world;
+    }
+
+    /**
+     * Returns the number of LifeForms in the specified World.
+     *
+     * @param world {@code World} the World
+     *
+     * @return {@code int} number of occupied Cells
+     */
+    static int population(World world) {
+        int count = 0;
+
+        for (int i = 0; i < world.rows() * world.columns(); i++)
+            if (!world.isEmpty(i))
+                count++;
+
+        return count;
+    }
+
+    /**
+     * Classifies the neighbourhood of every occupied Cell.
+     *
+     * @param world {@code World} the World
+     */
+    private static void classifyAll(World world) {
+        Neighbourhood adjacent = Neighbourhood.local();
+
+        for (int i = 0; i < world.rows() * world.columns(); i++)
+            if (!world.isEmpty(i))
+                world.classify(i, adjacent);
+    }
+
+    /**
+     * Prints a line of the report.
+     *
+     * @param name {@code String} name of the benchmark
+     * @param mode {@code String} mode of the World
+     * @param size {@code int} number of rows and columns
+     * @param density {@code double} density of the population
+     * @param population {@code int} number of LifeForms at the start
+     * @param result {@code Harness} the measurement
+     */
+    private static void report(String name, String mode, int size,
+        double density, int population, Harness result) {
+
+        System.out.printf("%s,%s,%d,%.2f,%d,%.3f,%.1f,%.2f,%.0f%n", name, mode,
+            size, density, population, result.nanos / 1e6, 1e9 / result.nanos,
+            result.nanos / ((double) size * size), result.bytes);
+    }
+
+}
@@ -0,0 +1,110 @@
+package benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import cell.CellFactory;
+import utility.RandomSource;
+import world.Neighbourhood;
+import world.World;
+
+/**
+ * JMH benchmark of the simulation hot paths: a day of
+ * {@link World#simulate()}, i.e. every {@code LifeForm.takeTurn}, and a pass
+ * of {@link World#classify} over every occupied Cell, for square and hex
+ * worlds at several sizes and population densities. A density of 1 is the
+ * population spawned from the default percentages; lower densities keep
+ * that fraction of it. A World drifts towards the same steady state
+ * whatever its density, so each iteration creates the World again and
+ * measures a single batch of its first {@value #DAYS} days; the score is the
+ * time of the whole batch.
+ * <p>
+ * Usage: {@code gradle jmh -Pjmh=SimulationJmh}. Add {@code -prof gc} for
+ * the allocations: {@code gc.alloc.rate.norm} is in bytes per batch, so
+ * divided by {@value #DAYS} it gives the bytes allocated per day.
+ *
+ * @author Scott Lai
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = SimulationJmh.DAYS)
+@Measurement(iterations = 20, batchSize = SimulationJmh.DAYS)
+@Fork(1)
+public class SimulationJmh {
+
+    /** Number of days measured from each new World. */
+    static final int DAYS = 16;
+
+    /** Seed of the random source of the Worlds. */
+    private static final long SEED = 2522;
+
+    /** Mode of the World. */
+    @Param({"SQUARE", "HEX"})
+    public String mode;
+
+    /** Number of rows and columns of the World. */
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    /** Fraction of the spawned population kept. */
+    @Param({"1.0", "0.1"})
+    public double density;
+
+    /** World being simulated. */
+    private World world;
+
+    /**
+     * Creates the World and thins its population to the density.
+     */
+    @Setup(Level.Iteration)
+    public void create() {
+        RandomSource random = RandomSource.of(SEED);
+        int keep = (int) Math.round(density * 1000);
+
+        world = new World(new CellFactory(mode, size, size), random);
+
+        for (int i = 0; i < size * size; i++)
+            if (!world.isEmpty(i) && random.next(1000) >= keep)
+                world.kill(i);
+    }
+
+    /**
+     * Simulates a day.
+     */
+    @Benchmark
+    public void simulate() {
+        world.simulate();
+    }
+
+    /**
+     * Classifies the neighbourhood of every occupied Cell.
+     *
+     * @param sink {@code Blackhole} consumer of the results
+     */
+    @Benchmark
+    public void classify(Blackhole sink) {
+        Neighbourhood adjacent = Neighbourhood.local();
+
+        for (int i = 0; i < size * size; i++) {
+            if (!world.isEmpty(i)) {
+                world.classify(i, adjacent);
+                sink.consume(adjacent.foodOrEmptyCount());
+            }
+        }
+    }
+
+}
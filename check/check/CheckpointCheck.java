@@ -0,0 +1,189 @@
+package check;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import cell.CellFactory;
+import organism.Species;
+import utility.Config;
+import utility.RandomSource;
+import world.Checkpoint;
+import world.World;
+
+/**
+ * Check that a World saved by {@link Checkpoint} and loaded back continues
+ * exactly where it left off: for square and hex Worlds, bounded and wrapped,
+ * packed and compressed, and with a non-default maximum hp of every species,
+ * the loaded World and the original one must hold the same species and hp
+ * on every Cell for the following days. A negative hp must survive the trip,
+ * and a file with an unknown species must be rejected.
+ * <p>
+ * Usage: {@code CheckpointCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class CheckpointCheck {
+
+    /** Seed of the random source of the Worlds. */
+    private static final long SEED = 2522;
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /**
+     * Ensures that a CheckpointCheck Object cannot be created.
+     */
+    private CheckpointCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days simulated after loading, optional
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        Config config = Config.DEFAULT.with("plant.maxhp", "7")
+            .with("herbivore.maxhp", "3").with("carnivore.maxhp", "9")
+            .with("omnivore.maxhp", "300");
+        Path path = Files.createTempFile("checkpoint", ".golw");
+
+        try {
+            for (String mode : MODES)
+                for (boolean torus : new boolean[] {false, true})
+                    for (boolean compress : new boolean[] {false, true})
+                        check(mode, torus, compress, config, path, days);
+
+            checkNegative(config, path);
+            checkCorrupt(config, path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        Checks.done("CheckpointCheck");
+    }
+
+    /**
+     * Helper method to check that a negative hp is saved with its sign.
+     *
+     * @param config {@code Config} configuration with a small maximum hp
+     * @param path {@code Path} the checkpoint file
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    private static void checkNegative(Config config, Path path)
+        throws IOException {
+
+        World world = new World(new CellFactory("SQUARE", 8, 8),
+            RandomSource.of(SEED), config);
+        int first = -1;
+        int last = -1;
+
+        for (int i = 0; i < 64; i++) {
+            if (!world.isEmpty(i)) {
+                first = first < 0 ? i : first;
+                last = i;
+            }
+        }
+
+        // The negative hp comes before a larger positive one
+        world.setHP(first, -5);
+        world.setHP(last, 1000);
+
+        Checkpoint.save(world, path, false);
+
+        World loaded = Checkpoint.load(path);
+
+        Checks.expect(loaded.hp(first) == -5, "negative hp");
+        Checks.expect(loaded.hp(last) == 1000, "hp after a negative one");
+    }
+
+    /**
+     * Helper method to check that a species past the last one is rejected.
+     *
+     * @param config {@code Config} configuration with a small maximum hp
+     * @param path {@code Path} the checkpoint file
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private static void checkCorrupt(Config config, Path path)
+        throws IOException {
+
+        World world = new World(new CellFactory("SQUARE", 8, 8),
+            RandomSource.of(SEED), config);
+
+        for (int i = 0; i < 64; i++)
+            world.kill(i);
+
+        world.setOccupant(63, Species.of(Species.PLANT));
+
+        Checkpoint.save(world, path, false);
+
+        // The file ends with the packed species, the last Cell in the high
+        // nibble, and the 1 byte hp of that Cell
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x70}),
+                channel.size() - 2);
+        }
+
+        try {
+            Checkpoint.load(path);
+            Checks.expect(false, "unknown species rejected");
+        } catch (IOException e) {
+            Checks.expect(e.getMessage().equals("Corrupt checkpoint"),
+                "unknown species rejected as corrupt");
+        }
+    }
+
+    /**
+     * Helper method to save, load and compare one World.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param compress {@code boolean} {@code true} to compress the species
+     * @param config {@code Config} configuration of the World
+     * @param path {@code Path} the checkpoint file
+     * @param days {@code int} number of days simulated after loading
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    private static void check(String mode, boolean torus, boolean compress,
+        Config config, Path path, int days) throws IOException {
+
+        World world = new World(new CellFactory(mode, 37, 53, torus),
+            RandomSource.of(SEED), config);
+
+        for (int d = 0; d < 5; d++)
+            world.simulate();
+
+        Checkpoint.save(world, path, compress);
+
+        World loaded = Checkpoint.load(path);
+        String name = mode + (torus ? " torus" : "")
+            + (compress ? " compressed" : "");
+
+        for (int d = 0; d <= days; d++) {
+            Checks.expect(loaded.day() == world.day(), name + " day");
+
+            for (int i = 0; i < world.rows() * world.columns(); i++) {
+                if (loaded.species(i) != world.species(i)
+                    || loaded.hp(i) != world.hp(i)) {
+                    Checks.expect(false, name + " cell " + i + " on day "
+                        + world.day());
+                    return;
+                }
+            }
+
+            world.simulate();
+            loaded.simulate();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package check;
+
+/**
+ * Minimal assertions for the checks: each failed expectation is printed, and
+ * {@link #done(String)} exits with status 1 if any failed, so a check can
+ * gate a build or a script.
+ *
+ * @author Scott Lai
+ */
+final class Checks {
+
+    /** Number of failed expectations. */
+    private static int failures;
+
+    /**
+     * Ensures that a Checks Object cannot be created.
+     */
+    private Checks() {}
+
+    /**
+     * Records a failure with the specified message unless the condition
+     * holds.
+     *
+     * @param condition {@code boolean} the expectation
+     * @param message {@code String} what was expected
+     */
+    static void expect(boolean condition, String message) {
+        if (condition)
+            return;
+
+        failures++;
+        System.out.println("FAILED " + message);
+    }
+
+    /**
+     * Prints the outcome of the specified check and exits with status 1 if
+     * an expectation failed.
+     *
+     * @param name {@code String} name of the check
+     */
+    static void done(String name) {
+        System.out.println(name + (failures == 0 ? " passed"
+            : " failed " + failures + " expectations"));
+
+        if (failures > 0)
+            System.exit(1);
+    }
+
+}
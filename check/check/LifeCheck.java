@@ -0,0 +1,273 @@
+package check;
+
+import utility.RandomSource;
+import world.HashLife;
+import world.LifeEngine;
+import world.LifeRule;
+import world.LifeWorld;
+
+/**
+ * Check that the engines of the LIFE mode compute the same generations: a
+ * {@link LifeWorld}, bounded and wrapped and with rows that end inside and
+ * on the edge of a word, must follow its rule cell by cell, and a
+ * {@link HashLife} stepping 1 to 64 generations at a time, with and without
+ * collecting its table, must match a LifeWorld large enough that the
+ * pattern never reaches its edges.
+ * <p>
+ * Usage: {@code LifeCheck}
+ *
+ * @author Scott Lai
+ */
+public final class LifeCheck {
+
+    /** Seed of the random patterns. */
+    private static final long SEED = 2203;
+
+    /** Rules followed by the engines. */
+    private static final String[] RULES = {"B3/S23", "B36/S23", "B2/S",
+        "B1357/S1357", "B0/S8"};
+
+    /** Numbers of rows of the LifeWorlds checked cell by cell. */
+    private static final int[] ROWS = {3, 7, 20};
+
+    /** Numbers of columns of the LifeWorlds checked cell by cell. */
+    private static final int[] COLUMNS = {3, 5, 63, 64, 65, 130};
+
+    /** Edge of the window of the HashLife comparison. */
+    private static final int SIZE = 600;
+
+    /** Edge of the random pattern stepped by HashLife. */
+    private static final int PATTERN = 32;
+
+    /** Base 2 logarithm of the largest HashLife step. */
+    private static final int MAX_STEP = 6;
+
+    /**
+     * Ensures that a LifeCheck Object cannot be created.
+     */
+    private LifeCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        RandomSource random = RandomSource.of(SEED);
+
+        for (String text : RULES) {
+            LifeRule rule = LifeRule.parse(text);
+
+            for (int rows : ROWS)
+                for (int columns : COLUMNS)
+                    for (boolean torus : new boolean[] {false, true})
+                        checkLifeWorld(rule, rows, columns, torus, random);
+
+            // A rule that gives birth with no neighbours fills the plane
+            if (rule.born(0))
+                continue;
+
+            checkHashLife(rule, 0, false, random);
+            checkHashLife(rule, 2000, false, random);
+            checkHashLife(rule, 2000, true, random);
+        }
+
+        Checks.done("LifeCheck");
+    }
+
+    /**
+     * Helper method to compare a random LifeWorld with its rule applied to
+     * every Cell for a few generations.
+     *
+     * @param rule {@code LifeRule} rule followed by the Cells
+     * @param rows {@code int} number of rows
+     * @param columns {@code int} number of columns
+     * @param torus {@code boolean} {@code true} if the edges wrap around
+     * @param random {@code RandomSource} source of the pattern
+     */
+    private static void checkLifeWorld(LifeRule rule, int rows, int columns,
+        boolean torus, RandomSource random) {
+
+        String name = rule + " " + rows + "x" + columns
+            + (torus ? " torus" : "");
+        LifeWorld world = new LifeWorld(rows, columns, torus, rule);
+
+        world.populate(random, 40);
+
+        boolean[][] expected = new boolean[rows][columns];
+
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < columns; c++)
+                expected[r][c] = world.isAlive(r, c);
+
+        for (int generation = 1; generation <= 6; generation++) {
+            expected = next(expected, rule, torus);
+            world.step();
+
+            if (!same(expected, world, name + " generation " + generation))
+                return;
+        }
+    }
+
+    /**
+     * Helper method to apply a rule to every Cell of a generation.
+     *
+     * @param cells {@code boolean[][]} the generation
+     * @param rule {@code LifeRule} rule followed by the Cells
+     * @param torus {@code boolean} {@code true} if the edges wrap around
+     *
+     * @return {@code boolean[][]} the next generation
+     */
+    private static boolean[][] next(boolean[][] cells, LifeRule rule,
+        boolean torus) {
+
+        int rows = cells.length;
+        int columns = cells[0].length;
+        boolean[][] next = new boolean[rows][columns];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int count = 0;
+
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int row = r + dr;
+                        int column = c + dc;
+
+                        if (dr == 0 && dc == 0)
+                            continue;
+
+                        if (torus) {
+                            row = (row + rows) % rows;
+                            column = (column + columns) % columns;
+                        } else if (row < 0 || row >= rows || column < 0
+                            || column >= columns) {
+                            continue;
+                        }
+
+                        if (cells[row][column])
+                            count++;
+                    }
+                }
+
+                next[r][c] = cells[r][c] ? rule.survives(count)
+                    : rule.born(count);
+            }
+        }
+
+        return next;
+    }
+
+    /**
+     * Helper method to check that an engine holds the expected generation.
+     *
+     * @param expected {@code boolean[][]} the live Cells expected
+     * @param engine {@code LifeEngine} the engine
+     * @param name {@code String} what is compared
+     *
+     * @return {@code boolean} {@code true} if every Cell and the population
+     * match
+     */
+    private static boolean same(boolean[][] expected, LifeEngine engine,
+        String name) {
+
+        long population = 0;
+
+        for (int r = 0; r < expected.length; r++) {
+            for (int c = 0; c < expected[r].length; c++) {
+                if (engine.isAlive(r, c) != expected[r][c]) {
+                    Checks.expect(false, name + " cell " + r + ", " + c);
+                    return false;
+                }
+
+                if (expected[r][c])
+                    population++;
+            }
+        }
+
+        Checks.expect(engine.population() == population,
+            name + " population");
+
+        return engine.population() == population;
+    }
+
+    /**
+     * Helper method to compare a HashLife with a LifeWorld that steps one
+     * generation at a time, from the same random pattern in the middle of
+     * the window.
+     *
+     * @param rule {@code LifeRule} rule followed by the Cells
+     * @param maxNodes {@code int} number of Nodes above which the table of
+     * the HashLife is collected; 0 to never collect
+     * @param keepResults {@code boolean} {@code true} if a collection keeps
+     * the results remembered
+     * @param random {@code RandomSource} source of the pattern
+     */
+    private static void checkHashLife(LifeRule rule, int maxNodes,
+        boolean keepResults, RandomSource random) {
+
+        String name = rule + " HashLife" + (maxNodes > 0 ? " collected"
+            + (keepResults ? " keeping results" : "") : "");
+        LifeWorld world = new LifeWorld(SIZE, SIZE, false, rule);
+        HashLife life = new HashLife(SIZE, SIZE, rule, maxNodes,
+            keepResults);
+        int from = (SIZE - PATTERN) / 2;
+
+        for (int r = from; r < from + PATTERN; r++) {
+            for (int c = from; c < from + PATTERN; c++) {
+                boolean alive = random.next(100) < 35;
+
+                world.set(r, c, alive);
+                life.set(r, c, alive);
+            }
+        }
+
+        // At most 254 generations, so the pattern stays inside the window
+        for (int log2 = 0; log2 <= MAX_STEP; log2++) {
+            life.setStep(log2);
+
+            for (int repeat = 0; repeat < 2; repeat++) {
+                life.step();
+
+                for (int g = 0; g < 1 << log2; g++)
+                    world.step();
+
+                if (!same(world, life, name + " generation "
+                    + world.generation()))
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Helper method to check that a HashLife holds the generation of a
+     * LifeWorld.
+     *
+     * @param world {@code LifeWorld} the expected generation
+     * @param life {@code HashLife} the HashLife
+     * @param name {@code String} what is compared
+     *
+     * @return {@code boolean} {@code true} if both match
+     */
+    private static boolean same(LifeWorld world, HashLife life, String name) {
+        if (life.generation() != world.generation()) {
+            Checks.expect(false, name + " reached");
+            return false;
+        }
+
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (life.isAlive(r, c) != world.isAlive(r, c)) {
+                    Checks.expect(false, name + " cell " + r + ", " + c);
+                    return false;
+                }
+            }
+        }
+
+        Checks.expect(life.population() == world.population(),
+            name + " population");
+
+        return life.population() == world.population();
+    }
+
+}
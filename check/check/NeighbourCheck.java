@@ -0,0 +1,98 @@
+package check;
+
+import cell.CellFactory;
+import organism.Species;
+import utility.RandomSource;
+import world.NeighbourCounts;
+import world.World;
+
+/**
+ * Check that {@link NeighbourCounts} counts the same 8 Cells at a time as one
+ * Cell at a time, and that the counts a World keeps up to date as its
+ * LifeForms act agree with both: for square and hex Worlds, bounded and
+ * wrapped, with rows and columns around the widths and bands the packed
+ * count works in, every species around every Cell must be counted the same
+ * way on each day.
+ * <p>
+ * Usage: {@code NeighbourCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class NeighbourCheck {
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Numbers of rows of the Worlds. */
+    private static final int[] ROWS = {4, 7, 63, 64, 65, 130};
+
+    /** Numbers of columns of the Worlds. */
+    private static final int[] COLUMNS = {3, 8, 9, 16, 17, 31};
+
+    /**
+     * Ensures that a NeighbourCheck Object cannot be created.
+     */
+    private NeighbourCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days simulated, optional
+     */
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        for (String mode : MODES)
+            for (boolean torus : new boolean[] {false, true})
+                for (int rows : ROWS)
+                    for (int columns : COLUMNS)
+                        check(mode, torus, rows, columns, days);
+
+        Checks.done("NeighbourCheck");
+    }
+
+    /**
+     * Helper method to compare the counts of one World on each day.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param rows {@code int} number of rows
+     * @param columns {@code int} number of columns
+     * @param days {@code int} number of days simulated
+     */
+    private static void check(String mode, boolean torus, int rows,
+        int columns, int days) {
+
+        String name = mode + " " + rows + "x" + columns
+            + (torus ? " torus" : "");
+        World world = new World(new CellFactory(mode, rows, columns, torus),
+            RandomSource.of(rows * 100 + columns));
+        NeighbourCounts packed = new NeighbourCounts(world);
+        NeighbourCounts scalar = new NeighbourCounts(world);
+
+        for (int d = 0; d <= days; d++) {
+            packed.countPacked(world);
+            scalar.countScalar(world);
+
+            for (int i = 0; i < rows * columns; i++) {
+                for (byte s = 0; s < Species.COUNT; s++) {
+                    if (packed.count(i, s) != scalar.count(i, s)) {
+                        Checks.expect(false, name + " cell " + i
+                            + " species " + s + " on day " + world.day());
+                        return;
+                    }
+
+                    if (world.adjacentCount(i, s) != scalar.count(i, s)) {
+                        Checks.expect(false, name + " kept count of cell "
+                            + i + " species " + s + " on day "
+                            + world.day());
+                        return;
+                    }
+                }
+            }
+
+            world.simulate();
+        }
+    }
+
+}
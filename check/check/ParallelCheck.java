@@ -0,0 +1,244 @@
+package check;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import cell.CellFactory;
+import utility.RandomSource;
+import world.Checkpoint;
+import world.SynchronousSimulation;
+import world.TiledSimulation;
+import world.World;
+
+/**
+ * Check that a parallel simulation does not depend on its threads: square
+ * and hex Worlds, bounded and wrapped, simulated by a
+ * {@link TiledSimulation} or a {@link SynchronousSimulation} on pools of
+ * different sizes must hold the same species and hp on every Cell after
+ * every day. A World simulated sequentially after more than 255
+ * synchronous days must let every LifeForm take its turn, like the same
+ * World loaded from a checkpoint.
+ * <p>
+ * Usage: {@code ParallelCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class ParallelCheck {
+
+    /** Seed of the random source of the Worlds. */
+    private static final long SEED = 7;
+
+    /** Seed of the synchronous simulations. */
+    private static final long SYNCHRONOUS_SEED = 11;
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Numbers of threads compared with a single one. */
+    private static final int[] THREADS = {2, 3, 8};
+
+    /**
+     * Numbers of synchronous days run before each sequential stretch of a
+     * mixed run; the first ends on day 255, whose stamp matches day 0.
+     */
+    private static final int[] SYNCHRONOUS_DAYS = {255, 1, 300};
+
+    /**
+     * Ensures that a ParallelCheck Object cannot be created.
+     */
+    private ParallelCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days simulated, optional
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        Path path = Files.createTempFile("mixed", ".golw");
+
+        try {
+            for (String mode : MODES)
+                for (boolean torus : new boolean[] {false, true}) {
+                    checkTiled(mode, torus, days);
+                    checkSynchronous(mode, torus, days);
+                    checkMixed(mode, torus, path);
+                }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        Checks.done("ParallelCheck");
+    }
+
+    /**
+     * Helper method to compare tiled runs of one World on each number of
+     * threads with a run on a single thread.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param days {@code int} number of days simulated
+     */
+    private static void checkTiled(String mode, boolean torus, int days) {
+        String name = "tiled " + mode + (torus ? " torus" : "");
+        World[] worlds = new World[THREADS.length + 1];
+        ForkJoinPool[] pools = new ForkJoinPool[worlds.length];
+        TiledSimulation[] simulations = new TiledSimulation[worlds.length];
+
+        for (int i = 0; i < worlds.length; i++) {
+            worlds[i] = world(mode, torus);
+            pools[i] = new ForkJoinPool(i == 0 ? 1 : THREADS[i - 1]);
+            simulations[i] = new TiledSimulation(pools[i], 16, 16);
+        }
+
+        try {
+            for (int d = 0; d < days; d++) {
+                for (int i = 0; i < worlds.length; i++)
+                    simulations[i].simulate(worlds[i]);
+
+                if (!same(worlds, name + " on day " + worlds[0].day()))
+                    return;
+            }
+        } finally {
+            for (ForkJoinPool pool : pools)
+                pool.shutdown();
+        }
+    }
+
+    /**
+     * Helper method to compare synchronous runs of one World on each number
+     * of threads with a run on a single thread.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param days {@code int} number of days simulated
+     */
+    private static void checkSynchronous(String mode, boolean torus,
+        int days) {
+
+        String name = "synchronous " + mode + (torus ? " torus" : "");
+        World[] worlds = new World[THREADS.length + 1];
+        ForkJoinPool[] pools = new ForkJoinPool[worlds.length];
+        SynchronousSimulation[] simulations =
+            new SynchronousSimulation[worlds.length];
+
+        for (int i = 0; i < worlds.length; i++) {
+            worlds[i] = world(mode, torus);
+            pools[i] = new ForkJoinPool(i == 0 ? 1 : THREADS[i - 1]);
+            simulations[i] = new SynchronousSimulation(pools[i],
+                SYNCHRONOUS_SEED);
+        }
+
+        try {
+            for (int d = 0; d < days; d++) {
+                for (int i = 0; i < worlds.length; i++)
+                    simulations[i].simulate(worlds[i]);
+
+                if (!same(worlds, name + " on day " + worlds[0].day()))
+                    return;
+            }
+        } finally {
+            for (ForkJoinPool pool : pools)
+                pool.shutdown();
+        }
+    }
+
+    /**
+     * Helper method to check that sequential days after synchronous ones
+     * let every LifeForm act: after each stretch of synchronous days the
+     * World is saved and loaded back, which marks no LifeForm as having
+     * acted, and both must hold the same Cells on the following sequential
+     * days.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param path {@code Path} the checkpoint file
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    private static void checkMixed(String mode, boolean torus, Path path)
+        throws IOException {
+
+        String name = "mixed " + mode + (torus ? " torus" : "");
+        World world = new World(new CellFactory(mode, 60, 60, torus),
+            RandomSource.of(SEED));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SynchronousSimulation simulation =
+            new SynchronousSimulation(pool, SYNCHRONOUS_SEED);
+
+        try {
+            for (int days : SYNCHRONOUS_DAYS) {
+                for (int d = 0; d < days; d++)
+                    simulation.simulate(world);
+
+                Checkpoint.save(world, path, false);
+
+                World loaded = Checkpoint.load(path);
+
+                for (int d = 0; d < 3; d++) {
+                    world.simulate();
+                    loaded.simulate();
+
+                    for (int i = 0; i < world.rows() * world.columns(); i++) {
+                        if (world.species(i) != loaded.species(i)
+                            || world.hp(i) != loaded.hp(i)) {
+                            Checks.expect(false, name + " cell " + i
+                                + " on day " + world.day());
+                            return;
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Helper method to create the World every run starts from.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     *
+     * @return {@code World} a populated World
+     */
+    private static World world(String mode, boolean torus) {
+        return new World(new CellFactory(mode, 150, 170, torus),
+            RandomSource.of(SEED));
+    }
+
+    /**
+     * Helper method to check that the Worlds run on more threads hold the
+     * same species and hp as the first one.
+     *
+     * @param worlds {@code World[]} the Worlds, the first run on one thread
+     * @param name {@code String} what is compared
+     *
+     * @return {@code boolean} {@code true} if every World matches
+     */
+    private static boolean same(World[] worlds, String name) {
+        World expected = worlds[0];
+        boolean same = true;
+
+        for (int w = 1; w < worlds.length; w++) {
+            World world = worlds[w];
+
+            for (int i = 0; i < expected.rows() * expected.columns(); i++) {
+                if (world.species(i) != expected.species(i)
+                    || world.hp(i) != expected.hp(i)) {
+                    Checks.expect(false, name + " on " + THREADS[w - 1]
+                        + " threads, cell " + i);
+                    same = false;
+                    break;
+                }
+            }
+        }
+
+        return same;
+    }
+
+}
@@ -0,0 +1,132 @@
+package check;
+
+import cell.CellFactory;
+import organism.Species;
+import organism.plant.Plant;
+import utility.RandomSource;
+import world.NeighbourCounts;
+import world.PlantLayer;
+import world.World;
+
+/**
+ * Check that a {@link PlantLayer} decides 64 Cells at a time which Plants
+ * breed the same way as {@link Plant} does one Cell at a time: for square
+ * and hex Worlds, bounded and wrapped, with odd and even rows and columns
+ * around the width of a word, every Cell must breed exactly if it holds a
+ * Plant whose counted neighbours meet the breed condition, on each day.
+ * <p>
+ * Usage: {@code PlantLayerCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class PlantLayerCheck {
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Numbers of rows of the Worlds. */
+    private static final int[] ROWS = {3, 4, 7, 31};
+
+    /** Numbers of columns of the Worlds. */
+    private static final int[] COLUMNS = {3, 5, 63, 64, 65, 127, 130};
+
+    /** Plant whose breed condition is compared. */
+    private static final Rule PLANT = new Rule();
+
+    /**
+     * Ensures that a PlantLayerCheck Object cannot be created.
+     */
+    private PlantLayerCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days simulated, optional
+     */
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        for (String mode : MODES)
+            for (boolean torus : new boolean[] {false, true})
+                for (int rows : ROWS)
+                    for (int columns : COLUMNS)
+                        check(mode, torus, rows, columns, days);
+
+        Checks.done("PlantLayerCheck");
+    }
+
+    /**
+     * Helper method to compare the Plants that breed in one World on each
+     * day.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param rows {@code int} number of rows
+     * @param columns {@code int} number of columns
+     * @param days {@code int} number of days simulated
+     */
+    private static void check(String mode, boolean torus, int rows,
+        int columns, int days) {
+
+        String name = mode + " " + rows + "x" + columns
+            + (torus ? " torus" : "");
+        World world = new World(new CellFactory(mode, rows, columns, torus),
+            RandomSource.of(rows * 1000 + columns));
+        PlantLayer plants = new PlantLayer(world);
+        NeighbourCounts counts = new NeighbourCounts(world);
+        int mates = Species.mates(Species.PLANT);
+        int diet = Species.diet(Species.PLANT);
+
+        for (int d = 0; d <= days; d++) {
+            plants.pack(world, 0, rows);
+            plants.evaluate(0, rows);
+            counts.countScalar(world);
+
+            for (int i = 0; i < rows * columns; i++) {
+                int mate = 0;
+                int food = 0;
+
+                for (byte s = 0; s < Species.COUNT; s++) {
+                    if ((mates & Species.bit(s)) != 0)
+                        mate += counts.count(i, s);
+
+                    if ((diet & Species.bit(s)) != 0)
+                        food += counts.count(i, s);
+                }
+
+                boolean expected = world.species(i) == Species.PLANT
+                    && PLANT.breeds(counts.count(i, Species.EMPTY), mate,
+                        food);
+
+                if (plants.breeds(i) != expected) {
+                    Checks.expect(false, name + " cell " + i + " on day "
+                        + world.day());
+                    return;
+                }
+            }
+
+            world.simulate();
+        }
+    }
+
+    /**
+     * Plant that exposes its breed condition.
+     */
+    private static final class Rule extends Plant {
+
+        /**
+         * Returns if a Plant with the specified neighbours breeds.
+         *
+         * @param empty {@code int} number of adjacent empty Cells
+         * @param mates {@code int} number of adjacent Cells it breeds with
+         * @param food {@code int} number of adjacent Cells it can eat
+         *
+         * @return {@code true} if the Plant breeds; {@code false} otherwise
+         */
+        boolean breeds(int empty, int mates, int food) {
+            return breedCondition(empty, mates, food);
+        }
+
+    }
+
+}
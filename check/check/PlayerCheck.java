@@ -0,0 +1,148 @@
+package check;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import cell.CellFactory;
+import utility.RandomSource;
+import world.Player;
+import world.Recorder;
+import world.Snapshot;
+import world.World;
+
+/**
+ * Check that a run recorded by a {@link Recorder} is replayed exactly by a
+ * {@link Player}: for square and hex Worlds, bounded and wrapped, every day
+ * reached by stepping forward, by seeking backward and by seeking in a
+ * random order must hold the species the World held on that day.
+ * <p>
+ * Usage: {@code PlayerCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class PlayerCheck {
+
+    /** Seed of the random source of the Worlds and of the seeks. */
+    private static final long SEED = 48000;
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Number of days between two keyframes. */
+    private static final int INTERVAL = 7;
+
+    /**
+     * Ensures that a PlayerCheck Object cannot be created.
+     */
+    private PlayerCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days recorded, optional
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        Path path = Files.createTempFile("recording", ".golr");
+
+        try {
+            for (String mode : MODES)
+                for (boolean torus : new boolean[] {false, true})
+                    check(mode, torus, path, days);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        Checks.done("PlayerCheck");
+    }
+
+    /**
+     * Helper method to record one World and replay it.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param torus {@code boolean} {@code true} if the World wraps around
+     * @param path {@code Path} the recording
+     * @param days {@code int} number of days recorded
+     *
+     * @throws IOException if the recording cannot be written or read
+     */
+    private static void check(String mode, boolean torus, Path path,
+        int days) throws IOException {
+
+        String name = mode + (torus ? " torus" : "");
+        World world = new World(new CellFactory(mode, 41, 67, torus),
+            RandomSource.of(SEED));
+        Snapshot[] expected = new Snapshot[days + 1];
+
+        try (Recorder recorder = new Recorder(world, path, INTERVAL)) {
+            expected[0] = world.snapshot(null);
+
+            for (int d = 1; d <= days; d++) {
+                world.simulate();
+                recorder.record();
+                expected[d] = world.snapshot(null);
+            }
+        }
+
+        try (Player player = new Player(path)) {
+            Checks.expect(player.firstDay() == 0 && player.lastDay() == days,
+                name + " days recorded");
+
+            // Forward one day at a time, then backward, then at random
+            for (int d = 0; d <= days; d++) {
+                Snapshot actual = d == 0 ? player.seek(0) : player.next();
+
+                if (!same(expected[d], actual, name + " next"))
+                    return;
+            }
+
+            Checks.expect(player.next() == null, name + " next after the end");
+
+            for (int d = days; d >= 0; d--)
+                if (!same(expected[d], player.seek(d), name + " backward"))
+                    return;
+
+            Random random = new Random(SEED);
+
+            for (int i = 0; i < 4 * days; i++) {
+                int d = random.nextInt(days + 1);
+
+                if (!same(expected[d], player.seek(d), name + " random"))
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Helper method to check that a replayed day holds the species recorded.
+     *
+     * @param expected {@code Snapshot} the day as simulated
+     * @param actual {@code Snapshot} the day as replayed
+     * @param name {@code String} what is compared
+     *
+     * @return {@code boolean} {@code true} if the days match
+     */
+    private static boolean same(Snapshot expected, Snapshot actual,
+        String name) {
+
+        if (actual == null || actual.day() != expected.day()) {
+            Checks.expect(false, name + " reached day " + expected.day());
+            return false;
+        }
+
+        for (int i = 0; i < expected.size(); i++) {
+            if (actual.species(i) != expected.species(i)) {
+                Checks.expect(false, name + " cell " + i + " on day "
+                    + expected.day());
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,115 @@
+package check;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import cell.CellFactory;
+import organism.Species;
+import utility.RandomSource;
+import world.SparseWorld;
+
+/**
+ * Check that a {@link SparseWorld} is the same everywhere on its plane and
+ * keeps only the chunks it needs: square and hex SparseWorlds populated
+ * around the origin and far from it, by whole chunks, must hold the same
+ * species on every Cell after every day, and the number of chunks allocated
+ * at the end of a day must be the number of chunks holding a LifeForm.
+ * <p>
+ * Usage: {@code SparseCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class SparseCheck {
+
+    /** Seed of the random source of the SparseWorlds. */
+    private static final long SEED = 99;
+
+    /** Modes of the SparseWorlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /** Edge of the square populated at the start, in Cells. */
+    private static final int SIZE = 150;
+
+    /** Offsets of the far populations, as rows and columns of chunks. */
+    private static final int[][] OFFSETS = {
+        {-1_000_000, 3_000_000}, {20_000_000, -7}};
+
+    /**
+     * Ensures that a SparseCheck Object cannot be created.
+     */
+    private SparseCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days simulated, optional
+     */
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+
+        for (String mode : MODES)
+            for (int[] offset : OFFSETS)
+                check(mode, offset[0] << SparseWorld.CHUNK_SHIFT,
+                    offset[1] << SparseWorld.CHUNK_SHIFT, days);
+
+        Checks.done("SparseCheck");
+    }
+
+    /**
+     * Helper method to compare a SparseWorld populated around the origin
+     * with one populated at the specified offset.
+     *
+     * @param mode {@code String} shape of the Cells
+     * @param rows {@code int} row offset, a whole number of chunks
+     * @param columns {@code int} column offset, a whole number of chunks
+     * @param days {@code int} number of days simulated
+     */
+    private static void check(String mode, int rows, int columns, int days) {
+        String name = mode + " at " + rows + ", " + columns;
+        SparseWorld origin = new SparseWorld(new CellFactory(mode, 10, 10),
+            RandomSource.of(SEED));
+        SparseWorld far = new SparseWorld(new CellFactory(mode, 10, 10),
+            RandomSource.of(SEED));
+
+        origin.populate(0, SIZE, 0, SIZE);
+        far.populate(rows, rows + SIZE, columns, columns + SIZE);
+
+        for (int d = 1; d <= days; d++) {
+            origin.simulate();
+            far.simulate();
+
+            // A LifeForm moves or spawns at most one Cell away in a day
+            int from = -d;
+            int to = SIZE + d;
+            int population = 0;
+            Set<Long> occupied = new HashSet<>();
+
+            for (int r = from; r < to; r++) {
+                for (int c = from; c < to; c++) {
+                    byte species = origin.species(r, c);
+
+                    if (species != far.species(rows + r, columns + c)) {
+                        Checks.expect(false, name + " cell " + r + ", " + c
+                            + " on day " + d);
+                        return;
+                    }
+
+                    if (species != Species.EMPTY) {
+                        population++;
+                        occupied.add((long) (r >> SparseWorld.CHUNK_SHIFT)
+                            << 32 | (c >> SparseWorld.CHUNK_SHIFT)
+                            & 0xffffffffL);
+                    }
+                }
+            }
+
+            Checks.expect(origin.population() == population
+                && far.population() == population, name + " population on day "
+                + d);
+            Checks.expect(origin.chunks() == occupied.size()
+                && far.chunks() == occupied.size(), name + " chunks on day "
+                + d);
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package check;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import cell.CellFactory;
+import organism.Species;
+import utility.RandomSource;
+import world.ChangeLog;
+import world.Statistics;
+import world.SynchronousSimulation;
+import world.TiledSimulation;
+import world.World;
+
+/**
+ * Check that the {@link Statistics} of a World count what happens to it: for
+ * square and hex Worlds simulated sequentially, by a {@link TiledSimulation}
+ * and by a {@link SynchronousSimulation}, the population of every species
+ * must match a recount of the Cells after every day, and must equal the
+ * population at first plus the births less the starvations and predations.
+ * Sequential and tiled days must also count the same births, starvations,
+ * predations and moves as the {@link ChangeLog} records.
+ * <p>
+ * Runs with {@code -Dgameoflife.statistics=true}.
+ * <p>
+ * Usage: {@code StatisticsCheck [days]}
+ *
+ * @author Scott Lai
+ */
+public final class StatisticsCheck {
+
+    /** Seed of the random source of the Worlds. */
+    private static final long SEED = 1602;
+
+    /** Seed of the synchronous simulations. */
+    private static final long SYNCHRONOUS_SEED = 11;
+
+    /** Modes of the Worlds. */
+    private static final String[] MODES = {"SQUARE", "HEX"};
+
+    /**
+     * Ensures that a StatisticsCheck Object cannot be created.
+     */
+    private StatisticsCheck() {}
+
+    /**
+     * Runs the check.
+     *
+     * @param args number of days simulated, optional
+     */
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+
+        Checks.expect(Statistics.ENABLED, "-Dgameoflife.statistics=true");
+
+        if (!Statistics.ENABLED)
+            Checks.done("StatisticsCheck");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TiledSimulation tiled = new TiledSimulation(pool, 16, 16);
+        SynchronousSimulation synchronous =
+            new SynchronousSimulation(pool, SYNCHRONOUS_SEED);
+
+        try {
+            for (String mode : MODES) {
+                check(mode + " sequential", mode, World::simulate, true, days);
+                check(mode + " tiled", mode, tiled::simulate, true, days);
+                check(mode + " synchronous", mode, synchronous::simulate,
+                    false, days);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Checks.done("StatisticsCheck");
+    }
+
+    /**
+     * Helper method to compare the Statistics of one World with its Cells
+     * and its log on each day.
+     *
+     * @param name {@code String} what is checked
+     * @param mode {@code String} shape of the Cells
+     * @param day {@code Consumer<World>} simulates a day
+     * @param logged {@code boolean} {@code true} if the log records every
+     * event, as it does for days that are not synchronous
+     * @param days {@code int} number of days simulated
+     */
+    private static void check(String name, String mode, Consumer<World> day,
+        boolean logged, int days) {
+
+        World world = new World(new CellFactory(mode, 90, 110, false),
+            RandomSource.of(SEED));
+        Statistics stats = new Statistics();
+        ChangeLog log = new ChangeLog();
+
+        world.setStatistics(stats);
+        world.setChangeLog(log);
+
+        long[] first = count(world);
+        long[] births = new long[Species.COUNT];
+        long[] starvations = new long[Species.COUNT];
+        long[] predations = new long[Species.COUNT];
+        long moves = 0;
+
+        for (int d = 0; d < days; d++) {
+            day.accept(world);
+
+            for (int r = 0; r < log.size(); r++) {
+                if (log.kind(r) == ChangeLog.BIRTH)
+                    births[log.species(r)]++;
+                else if (log.kind(r) == ChangeLog.DEATH)
+                    starvations[log.species(r)]++;
+                else if (log.kind(r) == ChangeLog.EAT)
+                    predations[log.species(r)]++;
+                else
+                    moves++;
+            }
+
+            String at = name + " on day " + world.day();
+            long[] count = count(world);
+
+            for (byte id = Species.PLANT; id < Species.COUNT; id++) {
+                Checks.expect(stats.population(id) == count[id],
+                    at + " population of species " + id);
+                Checks.expect(world.speciesPopulation(id) == count[id],
+                    at + " kept population of species " + id);
+                Checks.expect(stats.population(id) == first[id]
+                    + stats.births(id) - stats.starvations(id)
+                    - stats.predations(id), at + " balance of species " + id);
+
+                if (logged) {
+                    Checks.expect(stats.births(id) == births[id],
+                        at + " births of species " + id);
+                    Checks.expect(stats.starvations(id) == starvations[id],
+                        at + " starvations of species " + id);
+                    Checks.expect(stats.predations(id) == predations[id],
+                        at + " predations of species " + id);
+                }
+            }
+
+            if (logged)
+                Checks.expect(stats.getMoves() == moves, at + " moves");
+        }
+    }
+
+    /**
+     * Helper method to count the LifeForms of each species from the Cells.
+     *
+     * @param world {@code World} the World
+     *
+     * @return {@code long[]} number of Cells of each species id
+     */
+    private static long[] count(World world) {
+        long[] count = new long[Species.COUNT];
+
+        for (int i = 0; i < world.rows() * world.columns(); i++)
+            count[world.species(i)]++;
+
+        return count;
+    }
+
+}
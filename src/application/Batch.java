@@ -0,0 +1,456 @@
+package application;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.management.JMException;
+
+import cell.CellFactory;
+import organism.Species;
+import utility.Config;
+import utility.RandomSource;
+import world.Profiler;
+import world.Statistics;
+import world.World;
+
+/**
+ * Headless entry point that runs a sweep of independent Worlds concurrently,
+ * one World per thread, and writes one line of summary statistics per run as
+ * CSV. It never starts JavaFX.
+ * <p>
+ * Every option but {@code --torus} takes a value or a comma separated list of
+ * values, and one run is made for each combination of them:
+ * <pre>
+ * --topology SQUARE,HEX   shape of the Cells          (SQUARE)
+ * --torus                 wrap the edges around
+ * --size 100x100,500x500  rows x columns              (100x100)
+ * --days 1000             days simulated per run      (1000)
+ * --seed 1                seed of the first run       (1)
+ * --runs 10               runs per combination, with consecutive seeds (1)
+ * --plants 20             percentage of Plants        (from the Config)
+ * --herbivores 20         percentage of Herbivores    (from the Config)
+ * --carnivores 10         percentage of Carnivores    (from the Config)
+ * --omnivores 5           percentage of Omnivores     (from the Config)
+ * --config base.properties  {@link Config} of the species, e.g. maximum hp
+ * --threads 8             Worlds run at a time        (number of cores)
+ * --out runs.csv          output file                 (standard output)
+ * </pre>
+ * Each line holds the parameters of the run, the final population, the mean
+ * population and the day of extinction of each species (-1 if it survived,
+ * 0 if none was spawned), and the time taken in milliseconds. The LIFE mode
+ * has no species to summarise and is rejected.
+ * <p>
+ * With {@code -Dgameoflife.profile=true} the {@link Profiler} is registered
+ * as {@code gameoflife:type=Profiler}, and with
+ * {@code -Dgameoflife.statistics=true} the {@link Statistics} of each run in
+ * progress as {@code gameoflife:type=Statistics,run=<index>}.
+ *
+ * @author Scott Lai
+ */
+public final class Batch {
+
+    /** Species summarised, in the order of the columns. */
+    private static final byte[] SPECIES = {
+        Species.PLANT, Species.HERBIVORE, Species.CARNIVORE, Species.OMNIVORE
+    };
+
+    /** Name of each species in the columns, indexed like {@link #SPECIES}. */
+    private static final String[] NAMES = {
+        "plants", "herbivores", "carnivores", "omnivores"
+    };
+
+    /** Key of each species in a {@link Config}, indexed like {@link #SPECIES}. */
+    private static final String[] KEYS = {
+        "plant.percent", "herbivore.percent", "carnivore.percent",
+        "omnivore.percent"
+    };
+
+    /** Options that take values, with their defaults. */
+    private static final String[][] OPTIONS = {
+        {"topology", "SQUARE"}, {"size", "100x100"}, {"days", "1000"},
+        {"seed", "1"}, {"runs", "1"}, {"plants", ""}, {"herbivores", ""},
+        {"carnivores", ""}, {"omnivores", ""}, {"config", ""},
+        {"threads", String.valueOf(Runtime.getRuntime().availableProcessors())},
+        {"out", ""}
+    };
+
+    /**
+     * Ensures that a Batch Object cannot be created.
+     */
+    private Batch() {}
+
+    /**
+     * Runs the sweep described by the specified options.
+     *
+     * @param args options, see the class description
+     */
+    public static void main(String[] args) {
+        Map<String, String> options;
+        List<Run> runs;
+
+        try {
+            options = parse(args);
+            runs = sweep(options, options.get("config").isEmpty()
+                ? Config.DEFAULT : Config.load(Paths.get(options.get("config"))));
+        } catch (IOException e) {
+            System.err.println("Cannot read the config: " + e);
+            System.exit(2);
+            return;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: Batch [--topology SQUARE,HEX] [--torus]"
+                + " [--size RxC,...] [--days N,...] [--seed N] [--runs N]"
+                + " [--plants P,...] [--herbivores P,...] [--carnivores P,...]"
+                + " [--omnivores P,...] [--config FILE] [--threads N]"
+                + " [--out FILE]");
+            System.exit(2);
+            return;
+        }
+
+        if (Profiler.ENABLED) {
+            try {
+                Profiler.register("gameoflife:type=Profiler");
+            } catch (JMException e) {
+                System.err.println("Cannot register the Profiler: " + e);
+            }
+        }
+
+        String out = options.get("out");
+        ExecutorService pool = Executors.newFixedThreadPool(
+            Integer.parseInt(options.get("threads")));
+
+        try (PrintStream csv = out.isEmpty() ? System.out
+            : new PrintStream(Files.newOutputStream(Paths.get(out)))) {
+
+            List<Future<String>> lines = new ArrayList<>();
+
+            for (Run run : runs)
+                lines.add(pool.submit(run));
+
+            csv.println(header());
+
+            // Lines are written in the order of the runs as they complete
+            for (Future<String> line : lines)
+                csv.println(line.get());
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Batch failed: " + e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Helper method to read the options from the command line.
+     *
+     * @param args {@code String[]} the command line
+     *
+     * @return {@code Map<String, String>} value of every option
+     *
+     * @throws IllegalArgumentException if an option is unknown, has no
+     * value or asks for fewer than one thread
+     */
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String[] option : OPTIONS)
+            options.put(option[0], option[1]);
+
+        options.put("torus", "false");
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || !options.containsKey(
+                args[i].substring(2)))
+                throw new IllegalArgumentException("Unknown option "
+                    + args[i]);
+
+            String name = args[i].substring(2);
+
+            if (name.equals("torus"))
+                options.put(name, "true");
+            else if (i + 1 < args.length)
+                options.put(name, args[++i]);
+            else
+                throw new IllegalArgumentException("Missing value of "
+                    + args[i]);
+        }
+
+        if (Integer.parseInt(options.get("threads")) < 1)
+            throw new IllegalArgumentException("Invalid threads "
+                + options.get("threads"));
+
+        return options;
+    }
+
+    /**
+     * Helper method to list one run for each combination of the values of
+     * the options.
+     *
+     * @param options {@code Map<String, String>} value of every option
+     * @param base {@code Config} configuration of the species the options
+     * override
+     *
+     * @return {@code List<Run>} the runs, in order
+     *
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    private static List<Run> sweep(Map<String, String> options, Config base) {
+        String[] topologies = options.get("topology").split(",");
+        String[] sizes = options.get("size").split(",");
+        int[] days = parseInts(options.get("days"));
+        String[][] percents = new String[NAMES.length][];
+
+        for (int s = 0; s < NAMES.length; s++)
+            percents[s] = options.get(NAMES[s]).isEmpty()
+                ? new String[] {String.valueOf(base.percent(SPECIES[s]))}
+                : options.get(NAMES[s]).split(",");
+
+        long seed = Long.parseLong(options.get("seed"));
+        int repeats = Integer.parseInt(options.get("runs"));
+        boolean torus = Boolean.parseBoolean(options.get("torus"));
+
+        // Mixed radix counter over topology, size, days and each percentage
+        int[] radix = new int[3 + NAMES.length];
+
+        radix[0] = topologies.length;
+        radix[1] = sizes.length;
+        radix[2] = days.length;
+
+        for (int s = 0; s < NAMES.length; s++)
+            radix[3 + s] = percents[s].length;
+
+        int combinations = 1;
+
+        for (int r : radix)
+            combinations = Math.multiplyExact(combinations, r);
+
+        List<Run> runs = new ArrayList<>();
+
+        for (int c = 0; c < combinations; c++) {
+            int[] digit = new int[radix.length];
+
+            for (int d = radix.length - 1, rest = c; d >= 0; d--) {
+                digit[d] = rest % radix[d];
+                rest /= radix[d];
+            }
+
+            String mode = topologies[digit[0]].trim().toUpperCase();
+            String[] size = sizes[digit[1]].split("x");
+
+            // A LIFE board has no species to summarise
+            if (mode.equals("LIFE"))
+                throw new IllegalArgumentException("Topology LIFE is not"
+                    + " supported by Batch, only SQUARE and HEX");
+
+            if (!mode.equals("SQUARE") && !mode.equals("HEX"))
+                throw new IllegalArgumentException("Unknown topology " + mode);
+
+            if (size.length != 2)
+                throw new IllegalArgumentException("Invalid size "
+                    + sizes[digit[1]]);
+
+            // Reject a size the World cannot take before any run starts
+            CellFactory factory;
+
+            try {
+                factory = new CellFactory(mode,
+                    Integer.parseInt(size[0].trim()),
+                    Integer.parseInt(size[1].trim()), torus);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid size "
+                    + sizes[digit[1]] + (torus ? ", a torus needs at least"
+                    + " 3 rows and columns" : ""), e);
+            }
+
+            Config config = base;
+
+            for (int s = 0; s < NAMES.length; s++)
+                config = config.with(KEYS[s], percents[s][digit[3 + s]]);
+
+            for (int r = 0; r < repeats; r++)
+                runs.add(new Run(runs.size(), factory, days[digit[2]],
+                    seed + r, config));
+        }
+
+        return runs;
+    }
+
+    /**
+     * Helper method to parse a comma separated list of integers.
+     *
+     * @param values {@code String} the list
+     *
+     * @return {@code int[]} the integers
+     */
+    private static int[] parseInts(String values) {
+        String[] split = values.split(",");
+        int[] temp = new int[split.length];
+
+        for (int i = 0; i < split.length; i++)
+            temp[i] = Integer.parseInt(split[i].trim());
+
+        return temp;
+    }
+
+    /**
+     * Helper method to return the first line of the CSV.
+     *
+     * @return {@code String} the column names
+     */
+    private static String header() {
+        StringBuilder line = new StringBuilder(
+            "run,topology,torus,rows,columns,days,seed");
+
+        for (String name : NAMES)
+            line.append(',').append(name).append("_percent");
+
+        for (String name : NAMES)
+            line.append(',').append(name);
+
+        for (String name : NAMES)
+            line.append(",mean_").append(name);
+
+        for (String name : NAMES)
+            line.append(",extinct_").append(name);
+
+        return line.append(",millis").toString();
+    }
+
+    /**
+     * One World of the sweep, simulated from its parameters to a line of the
+     * CSV.
+     */
+    private static final class Run implements Callable<String> {
+
+        /** Index of the run. */
+        private final int index;
+
+        /** Shape, size and topology of the World. */
+        private final CellFactory factory;
+
+        /** Number of days simulated. */
+        private final int days;
+
+        /** Seed of the random source. */
+        private final long seed;
+
+        /** Configuration of the species. */
+        private final Config config;
+
+        /**
+         * Constructs a run.
+         *
+         * @param index {@code int} index of the run
+         * @param factory {@code CellFactory} shape, size and topology of the
+         * World
+         * @param days {@code int} number of days simulated
+         * @param seed {@code long} seed of the random source
+         * @param config {@code Config} configuration of the species
+         */
+        Run(int index, CellFactory factory, int days, long seed,
+            Config config) {
+
+            this.index = index;
+            this.factory = factory;
+            this.days = days;
+            this.seed = seed;
+            this.config = config;
+        }
+
+        /**
+         * Simulates the World of this run.
+         *
+         * @return {@code String} the line of the CSV
+         */
+        @Override
+        public String call() {
+            long start = System.nanoTime();
+
+            World world = new World(factory, RandomSource.of(seed), config);
+            Statistics stats = null;
+
+            if (Statistics.ENABLED) {
+                stats = new Statistics();
+                world.setStatistics(stats);
+
+                try {
+                    stats.register("gameoflife:type=Statistics,run=" + index);
+                } catch (JMException e) {
+                    System.err.println("Cannot register the Statistics of run "
+                        + index + ": " + e);
+                }
+            }
+
+            long[] sum = new long[Species.COUNT];
+            int[] extinct = new int[Species.COUNT];
+            int[] count = new int[Species.COUNT];
+
+            Arrays.fill(extinct, -1);
+
+            for (int day = 0; day <= days; day++) {
+                if (day > 0)
+                    world.simulate();
+
+                for (byte id : SPECIES) {
+                    count[id] = world.speciesPopulation(id);
+
+                    if (day > 0)
+                        sum[id] += count[id];
+
+                    // A species seeded at 0% is extinct from the start
+                    if (count[id] == 0 && extinct[id] < 0)
+                        extinct[id] = day;
+                }
+            }
+
+            if (stats != null) {
+                try {
+                    stats.unregister();
+                } catch (JMException e) {
+                    System.err.println("Cannot unregister the Statistics of"
+                        + " run " + index + ": " + e);
+                }
+            }
+
+            StringBuilder line = new StringBuilder();
+
+            line.append(index).append(',').append(factory.mode()).append(',')
+                .append(factory.torus()).append(',').append(factory.row())
+                .append(',').append(factory.column()).append(',')
+                .append(days).append(',').append(seed);
+
+            for (byte id : SPECIES)
+                line.append(',').append(config.percent(id));
+
+            for (byte id : SPECIES)
+                line.append(',').append(count[id]);
+
+            for (byte id : SPECIES)
+                line.append(',').append(String.format(Locale.ROOT, "%.2f",
+                    days == 0 ? 0.0 : (double) sum[id] / days));
+
+            for (byte id : SPECIES)
+                line.append(',').append(extinct[id]);
+
+            return line.append(',')
+                .append((System.nanoTime() - start) / 1_000_000).toString();
+        }
+
+    }
+
+}
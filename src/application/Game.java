@@ -1,41 +1,266 @@
 package application;
 
+import java.util.function.UnaryOperator;
+
+import javax.management.JMException;
+
 import cell.CellFactory;
+import cell.Hex;
+import javafx.animation.AnimationTimer;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
-import utility.Setting;
+import utility.Config;
+import world.HashLife;
+import world.LifeEngine;
+import world.LifeWorld;
+import world.Profiler;
+import world.Snapshot;
+import world.Statistics;
+import world.Stepper;
 import world.World;
 
 /**
- * Class to represent a Game of Life.
+ * Class to represent a Game of Life. A click or an arrow key simulates one
+ * day. Space runs the World on a background thread at
+ * {@link Config#daysPerSecond()}, and F switches between that rate and as
+ * fast as possible; every frame shows the latest day simulated.
+ * <p>
+ * In the LIFE mode of the CellFactory, the Game runs a {@link LifeEngine}
+ * following the rule of the {@link Config} instead of the LifeForms, and
+ * Page Up and Page Down double and halve the generations of each step, so
+ * that a {@link HashLife} can jump billions of generations ahead.
+ * <p>
+ * With {@code -Dgameoflife.statistics=true}, the World of a Game counts its
+ * LifeForms in {@link Statistics} registered as
+ * {@code gameoflife:type=Statistics} until the Game is disposed.
  * 
  * @author Scott Lai
  */
 public class Game {
 
-    /** Current World of this Game of Life. */
-    private World world;
+    /** Operation that simulates a day in the World of this Game. */
+    private final Runnable day;
+
+    /** Operation that fills a Snapshot of the World of this Game. */
+    private final UnaryOperator<Snapshot> snapshot;
+
+    /** View that displays the World to the screen. */
+    private View view;
 
     /** Content on the screen of this game */
     private Scene content;
 
+    /** Background thread that runs the World. */
+    private Stepper stepper;
+
+    /** Timer that shows the latest Snapshot on every frame. */
+    private final AnimationTimer timer;
+
+    /** Snapshot reused by the days simulated one at a time. */
+    private Snapshot frame;
+
+    /** Whether a running World is simulated as fast as possible. */
+    private boolean fast;
+
+    /** Configuration of this Game. */
+    private final Config config;
+
+    /** Base 2 logarithm of the generations of each step in the LIFE mode. */
+    private volatile int stepLog;
+
+    /** Base 2 logarithm of the largest step in the LIFE mode. */
+    private int maxStepLog;
+
+    /** Statistics of the World; {@code null} if none are counted. */
+    private Statistics stats;
+
     /**
-     * Constructs a Game of Life by creating a World.
+     * Constructs a Game of Life by creating a World with the default
+     * configuration.
      */
     public Game(CellFactory factory) {
+        this(factory, Config.DEFAULT);
+    }
+
+    /**
+     * Constructs a Game of Life by creating a World with the specified
+     * configuration.
+     *
+     * @param factory {@code CellFactory} shape, size and topology of the World
+     * @param config {@code Config} configuration of the species, the window
+     * and the display
+     */
+    public Game(CellFactory factory, Config config) {
+        this.config = config;
+
+        if (factory.mode().equalsIgnoreCase("LIFE")) {
+            LifeEngine life;
+
+            // HashLife runs on an unbounded plane, which cannot wrap around
+            if (config.lifeEngine().equals("HASHLIFE") && !factory.torus())
+                life = new HashLife(factory.row(), factory.column(),
+                    config.rule(), config.hashLifeNodes(),
+                    config.keepResults());
+            else
+                life = new LifeWorld(factory, config.rule());
+
+            life.populate(config.random(), config.lifePercent());
+
+            maxStepLog = life.maxStepLog();
+            day = () -> {
+                if (life.stepLog() != stepLog)
+                    life.setStep(stepLog);
+
+                life.step();
+            };
+            snapshot = life::snapshot;
+            view = viewOf(life.rows(), life.columns(), false,
+                life.snapshot(null));
+        } else {
+            World world = new World(factory, config.random(), config);
+
+            if (Statistics.ENABLED) {
+                stats = new Statistics();
+                world.setStatistics(stats);
+
+                try {
+                    stats.register("gameoflife:type=Statistics");
+                } catch (JMException e) {
+                    System.err.println("Cannot register the Statistics: "
+                        + e);
+                }
+            }
+
+            day = world::simulate;
+            snapshot = world::snapshot;
+            view = viewOf(world.rows(), world.columns(),
+                world.cell() instanceof Hex, world.snapshot(null));
+        }
         
-        world = new World(factory);
-        
-        content = new Scene(world.root(), Setting.WINDOW_WIDTH, Setting.WINDOW_HEIGHT);
+        content = new Scene(view.root(), config.windowWidth(),
+            config.windowHeight());
 
-        content.setOnMouseClicked(event -> world.simulate());
+        stepper = new Stepper(day, snapshot);
+        stepper.setRate(config.daysPerSecond());
+
+        content.setOnMouseClicked(event -> step());
 
         content.setOnKeyPressed(event -> {
             KeyCode input = event.getCode();
             if (input == KeyCode.RIGHT || input == KeyCode.LEFT || 
                 input == KeyCode.UP || input == KeyCode.DOWN)
-                world.simulate();
+                step();
+            else if (input == KeyCode.SPACE)
+                toggleRun();
+            else if (input == KeyCode.F)
+                toggleFast();
+            else if (input == KeyCode.PAGE_UP)
+                stepLog = Math.min(stepLog + 1, maxStepLog);
+            else if (input == KeyCode.PAGE_DOWN)
+                stepLog = Math.max(stepLog - 1, 0);
         });
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                Snapshot latest = stepper.take();
+
+                if (latest == null)
+                    return;
+
+                long start = Profiler.ENABLED ? System.nanoTime() : 0;
+
+                view.show(latest);
+
+                if (Profiler.ENABLED)
+                    Profiler.lap(Profiler.RENDER, start);
+            }
+        };
+
+        timer.start();
+    }
+
+    /**
+     * Stops the background thread and the frame timer of this Game and
+     * unregisters its Statistics, so that it can be replaced by another one.
+     */
+    public void dispose() {
+        stepper.stop();
+        timer.stop();
+
+        if (stats != null) {
+            try {
+                stats.unregister();
+            } catch (JMException e) {
+                System.err.println("Cannot unregister the Statistics: " + e);
+            }
+        }
+    }
+
+    /**
+     * Simulates a day in the World and refreshes the view, unless the World
+     * is running.
+     */
+    private void step() {
+        if (stepper.running())
+            return;
+
+        day.run();
+
+        frame = snapshot.apply(frame);
+        view.show(frame);
+    }
+
+    /**
+     * Starts or stops running the World on the background thread.
+     */
+    private void toggleRun() {
+        if (stepper.running())
+            stepper.stop();
+        else
+            stepper.start();
+    }
+
+    /**
+     * Switches a running World between the target rate and as fast as
+     * possible.
+     */
+    private void toggleFast() {
+        fast = !fast;
+
+        stepper.setRate(fast ? 0 : config.daysPerSecond());
+    }
+
+    /**
+     * Helper method to create the view of a World: one Shape per Cell, or a
+     * single image scaled to the window if the World has more Cells than
+     * {@link Config#shapeLimit()}. The Cells of the image are as large as
+     * fit in the window, and at least a pixel, which the scaling shrinks
+     * back to the window.
+     *
+     * @param rows {@code int} number of rows of the World
+     * @param columns {@code int} number of columns of the World
+     * @param hex {@code boolean} {@code true} if the Cells are hexagons
+     * @param first {@code Snapshot} Snapshot shown at first
+     *
+     * @return {@code View} view of the World
+     */
+    private View viewOf(int rows, int columns, boolean hex, Snapshot first) {
+        if (rows * columns <= config.shapeLimit())
+            return new WorldView(rows, columns, hex, first);
+
+        int cellSize;
+
+        // Rows of hex Cells are sqrt(3) / 2 of the width of a Cell apart
+        if (hex)
+            cellSize = Math.min(2 * config.windowWidth() / (2 * columns + 1),
+                (int) (2 * config.windowHeight()
+                    / (Math.sqrt(3) * (rows + 1))));
+        else
+            cellSize = Math.min(config.windowWidth() / columns,
+                config.windowHeight() / rows);
+
+        return new PixelView(rows, columns, hex, first, Math.max(1, cellSize));
     }
 
     /**
@@ -1,10 +1,16 @@
 package application;
 
+import java.io.IOException;
+
+import javax.management.JMException;
+
 import cell.CellFactory;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
+import utility.Config;
+import world.Profiler;
 
 /**
  * Main Class to launch this Application.
@@ -16,16 +22,30 @@ public class Main extends Application {
 	/** Game of Life object. */
 	private static Game game;
 
-	/** Factory to make Cell. */
-	private static CellFactory factory = new CellFactory("SQUARE");
+	/** Configuration read from the command line. */
+	private static Config config = Config.DEFAULT;
 
 	/** Content of the start scene. */
 	private static Scene content;
 	
+	/**
+	 * Shows the start scene, or starts the Game right away if the
+	 * configuration sets the mode or the torus. Keys 1 to 6 then pick the
+	 * mode and the torus the configuration left at their defaults.
+	 * 
+	 * @param window {@code Stage} the window
+	 */
 	@Override
 	public void start(Stage window) {
+		boolean modeSet = !config.mode().equals(Config.DEFAULT.mode());
+		boolean torusSet = config.torus() != Config.DEFAULT.torus();
 
-		content = new StartScene().content();
+		if (modeSet || torusSet) {
+			game = new Game(new CellFactory(config), config);
+			content = game.content();
+		} else {
+			content = new StartScene(config).content();
+		}
 		
 		window.setTitle("Game of Life");
 
@@ -34,14 +54,27 @@ public class Main extends Application {
 		window.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
 			String input = event.getText();
 
-			if (input.equalsIgnoreCase("1")) {
-				factory.setMode("SQUARE");
-			} else if (input.equalsIgnoreCase("2")) {
-				factory.setMode("HEX");
+			String mode;
+
+			if (input.equalsIgnoreCase("1") || input.equalsIgnoreCase("3")) {
+				mode = "SQUARE";
+			} else if (input.equalsIgnoreCase("2") || input.equalsIgnoreCase("4")) {
+				mode = "HEX";
+			} else if (input.equalsIgnoreCase("5") || input.equalsIgnoreCase("6")) {
+				mode = "LIFE";
 			} else {
 				return;
 			}
-			game = new Game(factory);
+			boolean torus = torusSet ? config.torus() : input.equals("3")
+				|| input.equals("4") || input.equals("6");
+
+			CellFactory factory = new CellFactory(config
+				.with("mode", modeSet ? config.mode() : mode)
+				.with("torus", String.valueOf(torus)));
+			if (game != null)
+				game.dispose();
+
+			game = new Game(factory, config);
 			content = game.content();
 			window.setScene(content);
 		});
@@ -50,11 +83,28 @@ public class Main extends Application {
 	}
 		
 	/**
-	 * Drives the program.
-	 * @param args unused
+	 * Drives the program. With {@code -Dgameoflife.profile=true} the
+	 * {@link Profiler} is registered as {@code gameoflife:type=Profiler}.
+	 * @param args settings of the {@link Config}, each {@code --key=value},
+	 * and {@code --config file} to read them from a properties file
 	 */
 	public static void main(String[] args) {
-		launch(args);
+		try {
+			config = Config.parse(args);
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Invalid configuration: " + e.getMessage());
+			System.exit(2);
+		}
+
+		if (Profiler.ENABLED) {
+			try {
+				Profiler.register("gameoflife:type=Profiler");
+			} catch (JMException e) {
+				System.err.println("Cannot register the Profiler: " + e);
+			}
+		}
+
+		launch();
 	}
 
 }
@@ -0,0 +1,336 @@
+package application;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import cell.Hex;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import organism.Species;
+import world.Snapshot;
+import world.World;
+
+/**
+ * Class to display a World as a single image, for Worlds too large for one
+ * Shape per Cell. The pixels live in an {@code int} array shared with the
+ * image through a {@link PixelBuffer}, and showing a Snapshot only paints
+ * the Cells whose species changed and uploads the rectangle around them.
+ * <p>
+ * Every Cell is painted through a mask of pixel offsets computed once: a
+ * block for a square Cell, and for a hex Cell the pixels closer to its centre
+ * than to the centre of any adjacent Cell. Cells of at least 4 pixels are
+ * inset by a pixel so that the black background draws the grid. The image
+ * is scaled to fit the Scene it is shown in, so a World with more Cells than
+ * the window has pixels is still shown whole.
+ *
+ * @author Scott Lai
+ */
+public class PixelView implements View {
+
+    /** Color of the grid between the Cells. */
+    private static final int GRID = 0xff000000;
+
+    /** Smallest Cell, in pixels, that is drawn with a grid. */
+    private static final int MIN_GRID = 4;
+
+    /** ARGB of each species id, indexed by id. */
+    private static final int[] PALETTE = new int[Species.COUNT];
+
+    static {
+        for (byte id = 0; id < Species.COUNT; id++)
+            PALETTE[id] = argb(WorldView.colorOf(id));
+    }
+
+    /** Pixels of the image, row by row. */
+    private final int[] pixels;
+
+    /** Width of the image, in pixels. */
+    private final int width;
+
+    /** Height of the image, in pixels. */
+    private final int height;
+
+    /** Pixel of the anchor of each Cell, indexed the same way as the World. */
+    private final int[] anchor;
+
+    /** Offsets from the anchor of a Cell to each of its pixels. */
+    private final int[] mask;
+
+    /** Smallest x and y, then largest x and y, of the mask from an anchor. */
+    private final int[] extent;
+
+    /** Species id shown on each Cell; -1 before the first refresh. */
+    private final byte[] shown;
+
+    /** Buffer that shares the pixels with the image. */
+    private final PixelBuffer<IntBuffer> buffer;
+
+    /** AnchorPane to display the world to the screen. */
+    private final AnchorPane root;
+
+    /**
+     * Constructs a view of the specified World.
+     *
+     * @param world {@code World} the World to display
+     * @param cellSize {@code int} edge of a square Cell or width of a hex
+     * Cell, in pixels
+     */
+    public PixelView(World world, int cellSize) {
+        this(world.rows(), world.columns(), world.cell() instanceof Hex,
+            world.snapshot(null), cellSize);
+    }
+
+    /**
+     * Constructs a view of a World of the specified size, whose Cells are
+     * indexed {@code row * columns + column}, such as a {@code LifeWorld}.
+     *
+     * @param rows {@code int} number of rows
+     * @param columns {@code int} number of columns
+     * @param hex {@code boolean} {@code true} if the Cells are hexagons
+     * @param first {@code Snapshot} Snapshot shown at first
+     * @param cellSize {@code int} edge of a square Cell or width of a hex
+     * Cell, in pixels
+     */
+    public PixelView(int rows, int columns, boolean hex, Snapshot first,
+        int cellSize) {
+
+        if (cellSize < 1)
+            throw new IllegalArgumentException("Invalid cell size");
+
+        anchor = new int[rows * columns];
+        shown = new byte[rows * columns];
+        Arrays.fill(shown, (byte) -1);
+
+        int[][] points;
+        int[] xs = new int[rows * columns];
+        int[] ys = new int[rows * columns];
+
+        if (hex) {
+            int n = Math.max(1, cellSize / 2);
+            int r = (int) Math.round(2 * n / Math.sqrt(3));
+            int pitch = Math.max(1, (int) Math.round(1.5 * r));
+
+            points = hexMask(n, pitch, r, 2 * n >= MIN_GRID);
+
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    xs[row * columns + column] = column * 2 * n
+                        + (row & 1) * n;
+                    ys[row * columns + column] = row * pitch;
+                }
+            }
+        } else {
+            points = squareMask(cellSize, cellSize >= MIN_GRID);
+
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    xs[row * columns + column] = column * cellSize;
+                    ys[row * columns + column] = row * cellSize;
+                }
+            }
+        }
+
+        // Shift every Cell so that its mask lies within the image
+        int minX = 0, minY = 0, maxX = 0, maxY = 0;
+
+        for (int[] point : points) {
+            minX = Math.min(minX, point[0]);
+            minY = Math.min(minY, point[1]);
+            maxX = Math.max(maxX, point[0]);
+            maxY = Math.max(maxY, point[1]);
+        }
+
+        int right = 0, bottom = 0;
+
+        for (int i = 0; i < anchor.length; i++) {
+            right = Math.max(right, xs[i]);
+            bottom = Math.max(bottom, ys[i]);
+        }
+
+        extent = new int[] {minX, minY, maxX, maxY};
+        width = right + maxX - minX + 1;
+        height = bottom + maxY - minY + 1;
+
+        for (int i = 0; i < anchor.length; i++)
+            anchor[i] = (ys[i] - minY) * width + xs[i] - minX;
+
+        mask = new int[points.length];
+
+        for (int i = 0; i < points.length; i++)
+            mask[i] = points[i][1] * width + points[i][0];
+
+        pixels = new int[width * height];
+        Arrays.fill(pixels, GRID);
+
+        buffer = new PixelBuffer<>(width, height, IntBuffer.wrap(pixels),
+            PixelFormat.getIntArgbPreInstance());
+
+        ImageView image = new ImageView(new WritableImage(buffer));
+
+        // Scale the image to the window, keeping the Cells in proportion
+        image.setPreserveRatio(true);
+        image.setSmooth(false);
+
+        root = new AnchorPane(image);
+
+        root.sceneProperty().addListener((observable, old, scene) -> {
+            image.fitWidthProperty().unbind();
+            image.fitHeightProperty().unbind();
+
+            if (scene != null) {
+                image.fitWidthProperty().bind(scene.widthProperty());
+                image.fitHeightProperty().bind(scene.heightProperty());
+            }
+        });
+
+        show(first);
+    }
+
+    /**
+     * Paints every Cell whose species changed since the last Snapshot shown
+     * and uploads the rectangle of pixels around them.
+     */
+    @Override
+    public final void show(Snapshot snapshot) {
+        int left = width, top = height, right = -1, bottom = -1;
+
+        for (int i = 0; i < shown.length; i++) {
+            byte species = snapshot.species(i);
+
+            if (species == shown[i])
+                continue;
+
+            shown[i] = species;
+
+            int color = PALETTE[species];
+            int base = anchor[i];
+
+            for (int offset : mask)
+                pixels[base + offset] = color;
+
+            int x = base % width;
+            int y = base / width;
+
+            left = Math.min(left, x);
+            top = Math.min(top, y);
+            right = Math.max(right, x);
+            bottom = Math.max(bottom, y);
+        }
+
+        if (right < 0)
+            return;
+
+        // Widen the rectangle of anchors by the extent of the mask
+        int x = left + extent[0];
+        int y = top + extent[1];
+
+        Rectangle2D dirty = new Rectangle2D(x, y,
+            Math.min(width, right + extent[2] + 1) - x,
+            Math.min(height, bottom + extent[3] + 1) - y);
+
+        buffer.updateBuffer(b -> dirty);
+    }
+
+    @Override
+    public final AnchorPane root() {
+        return root;
+    }
+
+    /**
+     * Helper method to compute the pixels of a square Cell.
+     *
+     * @param size {@code int} edge of the Cell, in pixels
+     * @param grid {@code boolean} {@code true} to leave the last row and
+     * column of pixels for the grid
+     *
+     * @return {@code int[][]} x and y of each pixel relative to the top left
+     * corner of the Cell
+     */
+    private static int[][] squareMask(int size, boolean grid) {
+        int edge = grid ? size - 1 : size;
+        int[][] points = new int[edge * edge][];
+
+        for (int y = 0; y < edge; y++)
+            for (int x = 0; x < edge; x++)
+                points[y * edge + x] = new int[] {x, y};
+
+        return points;
+    }
+
+    /**
+     * Helper method to rasterise a hex Cell: the pixels whose centre is
+     * closer to the centre of the Cell than to the centres of the six
+     * adjacent Cells. Ties go to the Cell further down, then further right,
+     * so the masks of all Cells tile the image without overlap.
+     *
+     * @param n {@code int} half the width of the Cell, in pixels
+     * @param pitch {@code int} distance between two rows, in pixels
+     * @param r {@code int} length of a side of the Cell, in pixels
+     * @param grid {@code boolean} {@code true} to leave a pixel along the
+     * edges for the grid
+     *
+     * @return {@code int[][]} x and y of each pixel relative to the centre
+     * of the Cell
+     */
+    private static int[][] hexMask(int n, int pitch, int r, boolean grid) {
+        int[][] centres = {
+            {-n, -pitch}, {n, -pitch}, {-2 * n, 0},
+            {2 * n, 0}, {-n, pitch}, {n, pitch}
+        };
+
+        int[][] temp = new int[(2 * n + 1) * (2 * r + 3)][];
+        int size = 0;
+
+        for (int y = -r - 1; y <= r + 1; y++) {
+            for (int x = -n; x <= n; x++) {
+                // Centre of the pixel, in half pixels
+                long px = 2 * x + 1, py = 2 * y + 1;
+                boolean inside = true;
+
+                for (int[] centre : centres) {
+                    long cx = 2 * centre[0], cy = 2 * centre[1];
+                    long own = px * px + py * py;
+                    long other = (px - cx) * (px - cx) + (py - cy) * (py - cy);
+                    boolean later = cy > 0 || cy == 0 && cx > 0;
+
+                    if (own > other || own == other && later) {
+                        inside = false;
+                        break;
+                    }
+
+                    // Distance to the edge towards the centre, in half pixels
+                    if (grid
+                        && other - own < 2 * Math.sqrt(cx * cx + cy * cy)) {
+                        inside = false;
+                        break;
+                    }
+                }
+
+                if (inside)
+                    temp[size++] = new int[] {x, y};
+            }
+        }
+
+        return Arrays.copyOf(temp, size);
+    }
+
+    /**
+     * Helper method to convert the specified Color to an opaque ARGB pixel.
+     *
+     * @param color {@code Color} the color
+     *
+     * @return {@code int} ARGB of the color
+     */
+    private static int argb(Color color) {
+        return 0xff000000
+            | (int) Math.round(color.getRed() * 255) << 16
+            | (int) Math.round(color.getGreen() * 255) << 8
+            | (int) Math.round(color.getBlue() * 255);
+    }
+
+}
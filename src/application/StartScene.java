@@ -4,7 +4,7 @@ import javafx.scene.Scene;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
-import utility.Setting;
+import utility.Config;
 
 /**
  * Class to represent a Starting screen.
@@ -19,6 +19,18 @@ public class StartScene {
     /** Instruction for Hex */
     private Text text2 = new Text("PRESS 2 FOR HEX");
 
+    /** Instruction for wrapped Square. */
+    private Text text3 = new Text("PRESS 3 FOR SQUARE TORUS");
+
+    /** Instruction for wrapped Hex. */
+    private Text text4 = new Text("PRESS 4 FOR HEX TORUS");
+
+    /** Instruction for Conway's Game of Life. */
+    private Text text5 = new Text("PRESS 5 FOR LIFE");
+
+    /** Instruction for wrapped Conway's Game of Life. */
+    private Text text6 = new Text("PRESS 6 FOR LIFE TORUS");
+
     /** Vbox to group the text together. */
     private VBox box = new VBox();
 
@@ -26,16 +38,30 @@ public class StartScene {
     private Scene content;
 
     /**
-     * Constructs a Starting Scene.
+     * Constructs a Starting Scene of the default window size.
      */
     public StartScene() {
+        this(Config.DEFAULT);
+    }
+
+    /**
+     * Constructs a Starting Scene of the window size of the specified
+     * configuration.
+     *
+     * @param config {@code Config} the configuration
+     */
+    public StartScene(Config config) {
         text1.setFont(new Font(32));
         text2.setFont(new Font(32));
+        text3.setFont(new Font(32));
+        text4.setFont(new Font(32));
+        text5.setFont(new Font(32));
+        text6.setFont(new Font(32));
 
-        box.getChildren().addAll(text1, text2);
+        box.getChildren().addAll(text1, text2, text3, text4, text5, text6);
         box.setSpacing(10);
 
-        content = new Scene(box, Setting.WINDOW_WIDTH, Setting.WINDOW_HEIGHT);
+        content = new Scene(box, config.windowWidth(), config.windowHeight());
     }
 
     /**
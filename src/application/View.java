@@ -0,0 +1,28 @@
+package application;
+
+import javafx.scene.Parent;
+import world.Snapshot;
+
+/**
+ * Interface of the ways a World can be displayed to the screen.
+ *
+ * @author Scott Lai
+ */
+public interface View {
+
+    /**
+     * Updates the screen with every Cell of the specified Snapshot that
+     * changed since the last one shown.
+     *
+     * @param snapshot {@code Snapshot} species of the Cells of the World
+     */
+    void show(Snapshot snapshot);
+
+    /**
+     * Returns the node to put in the Scene.
+     *
+     * @return {@code Parent} root of this view
+     */
+    Parent root();
+
+}
@@ -0,0 +1,212 @@
+package application;
+
+import cell.Hex;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.StrokeType;
+import javafx.scene.transform.Scale;
+import organism.Species;
+import utility.Setting;
+import world.Snapshot;
+import world.World;
+
+/**
+ * Class to display a World to the screen with one Shape per Cell. The view is
+ * attached to a headless World and only touches the scene graph when a
+ * Snapshot is shown. Large Worlds are displayed by a
+ * {@link PixelView} instead.
+ * <p>
+ * The Shapes keep the size of {@link Setting}, so a World of a configured
+ * size may not fit the window; the view is then shrunk to fit the Scene it
+ * is shown in.
+ *
+ * @author Scott Lai
+ */
+public class WorldView implements View {
+
+    /** Color of each species id, indexed by id. */
+    private static final Color[] PALETTE = new Color[Species.COUNT];
+
+    static {
+        PALETTE[Species.EMPTY] = Color.WHITE;
+        PALETTE[Species.PLANT] = Color.GREEN;
+        PALETTE[Species.HERBIVORE] = Color.YELLOW;
+        PALETTE[Species.CARNIVORE] = Color.RED;
+        PALETTE[Species.OMNIVORE] = Color.ORANGE;
+    }
+
+    /** Shapes of the Cells, indexed the same way as the World. */
+    private final Shape[] shapes;
+
+    /** AnchorPane to display the world to the screen. */
+    private final AnchorPane root;
+
+    /**
+     * Constructs a view of the specified World.
+     *
+     * @param world {@code World} the World to display
+     */
+    public WorldView(World world) {
+        this(world.rows(), world.columns(), world.cell() instanceof Hex,
+            world.snapshot(null));
+    }
+
+    /**
+     * Constructs a view of a World of the specified size, whose Cells are
+     * indexed {@code row * columns + column}, such as a {@code LifeWorld}.
+     *
+     * @param rows {@code int} number of rows
+     * @param columns {@code int} number of columns
+     * @param hex {@code boolean} {@code true} if the Cells are hexagons
+     * @param first {@code Snapshot} Snapshot shown at first
+     */
+    public WorldView(int rows, int columns, boolean hex, Snapshot first) {
+        this.root = new AnchorPane();
+
+        shapes = new Shape[rows * columns];
+
+        double width = 0;
+        double height = 0;
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Shape shape = hex ? createHex(r, c) : createSquare(r, c);
+
+                decorate(shape);
+
+                shapes[r * columns + c] = shape;
+                root.getChildren().add(shape);
+
+                width = Math.max(width, shape.getBoundsInParent().getMaxX());
+                height = Math.max(height,
+                    shape.getBoundsInParent().getMaxY());
+            }
+        }
+
+        fit(width, height);
+
+        show(first);
+    }
+
+    /**
+     * Updates the fill of every Shape whose Cell changed since the last
+     * Snapshot shown.
+     */
+    @Override
+    public final void show(Snapshot snapshot) {
+        for (int i = 0; i < shapes.length; i++) {
+            Color color = colorOf(snapshot.species(i));
+
+            if (!color.equals(shapes[i].getFill()))
+                shapes[i].setFill(color);
+        }
+    }
+
+    /**
+     * Returns the AnchorPane of this view.
+     *
+     * @return {@code AnchorPane} root of this view
+     */
+    @Override
+    public final AnchorPane root() {
+        return root;
+    }
+
+    /**
+     * Returns the color that represents the specified species.
+     *
+     * @param species {@code byte} species id; {@link Species#EMPTY} for an
+     * empty Cell
+     *
+     * @return {@code Color} color of the species
+     */
+    public static Color colorOf(byte species) {
+        return PALETTE[species];
+    }
+
+    /**
+     * Helper method to shrink the view to fit the Scene it is shown in,
+     * keeping the Cells in proportion. A view that fits is left as it is.
+     *
+     * @param width {@code double} width of the Shapes, in pixels
+     * @param height {@code double} height of the Shapes, in pixels
+     */
+    private void fit(double width, double height) {
+        Scale scale = new Scale(1, 1, 0, 0);
+
+        root.getTransforms().add(scale);
+
+        root.sceneProperty().addListener((observable, old, scene) -> {
+            scale.xProperty().unbind();
+            scale.yProperty().unbind();
+
+            if (scene == null)
+                return;
+
+            DoubleBinding factor = Bindings.createDoubleBinding(
+                () -> Math.min(1, Math.min(scene.getWidth() / width,
+                    scene.getHeight() / height)),
+                scene.widthProperty(), scene.heightProperty());
+
+            scale.xProperty().bind(factor);
+            scale.yProperty().bind(factor);
+        });
+    }
+
+    /**
+     * Helper method to create the Shape of a square Cell.
+     *
+     * @param row {@code int} row of the Cell
+     * @param column {@code int} column of the Cell
+     *
+     * @return {@code Shape} shape of the Cell
+     */
+    private static Shape createSquare(int row, int column) {
+        double x = column * Setting.SQUARE_SIZE;
+        double y = row * Setting.SQUARE_SIZE;
+
+        return new Rectangle(x, y, Setting.SQUARE_SIZE, Setting.SQUARE_SIZE);
+    }
+
+    /**
+     * Helper method to create the Shape of a hexagonal Cell.
+     *
+     * @param row {@code int} row of the Cell
+     * @param column {@code int} column of the Cell
+     *
+     * @return {@code Shape} shape of the Cell
+     */
+    private static Shape createHex(int row, int column) {
+        Polygon temp = new Polygon();
+        double x = column * Setting.HEX_WIDTH + (row % 2) * Setting.N + Setting.X_OFFSET;
+        double y = row * Setting.HEX_HEIGHT * 0.75 + Setting.Y_OFFSET;
+
+        temp.getPoints().addAll(
+            x, y,
+            x, y + Setting.R,
+            x + Setting.N, y + Setting.R * 1.5,
+            x + Setting.HEX_WIDTH, y + Setting.R,
+            x + Setting.HEX_WIDTH, y,
+            x + Setting.N, y - Setting.R * 0.5
+        );
+
+        return temp;
+    }
+
+    /**
+     * Helper method to decorates the specified Shape.
+     *
+     * @param shape {@code Shape} shape of a Cell
+     */
+    private static void decorate(Shape shape) {
+        shape.setStrokeType(StrokeType.INSIDE);
+        shape.setStrokeWidth(0.5);
+        shape.setStroke(Color.BLACK);
+    }
+
+}
@@ -1,12 +1,18 @@
 package cell;
 
+import utility.Config;
 import utility.Setting;
 
 /**
- * Factory to abstract the process of making Cells.
+ * Factory to abstract the process of making Cells. The mode "LIFE" makes
+ * square Cells for a {@code LifeWorld}, which follows a B/S rule such as
+ * Conway's Game of Life instead of the LifeForms.
  */
 public final class CellFactory {
 
+    /** Fewest rows and columns of a World that wraps around. */
+    private static final int MIN_TORUS = 3;
+
     /** The mode to know which cells to create. */
     private String mode;
 
@@ -16,6 +22,9 @@ public final class CellFactory {
     /** Number of columns in each row. */
     private int columnNumber;
 
+    /** Whether the edges of the world wrap around. */
+    private boolean torus;
+
     /**
      * Constructs a Cell Factory by defining its mode.
      * @param mode
@@ -26,6 +35,66 @@ public final class CellFactory {
         setNumber(this.mode);
     }
 
+    /**
+     * Constructs a Cell Factory by defining its mode and the size of the 
+     * world, independent of the window size.
+     * 
+     * @param mode {@code String} "SQUARE", "HEX" or "LIFE"
+     * @param rowNumber {@code int} number of rows
+     * @param columnNumber {@code int} number of columns in each row
+     */
+    public CellFactory(String mode, int rowNumber, int columnNumber) {
+        this(mode, rowNumber, columnNumber, false);
+    }
+
+    /**
+     * Constructs a Cell Factory by defining its mode, the size of the world
+     * and whether its edges wrap around.
+     * 
+     * @param mode {@code String} "SQUARE", "HEX" or "LIFE"
+     * @param rowNumber {@code int} number of rows
+     * @param columnNumber {@code int} number of columns in each row
+     * @param torus {@code boolean} {@code true} if the top row touches the
+     * bottom row and the left column touches the right column
+     *
+     * @throws IllegalArgumentException if a size is not positive, or under 3
+     * for a torus
+     */
+    public CellFactory(String mode, int rowNumber, int columnNumber,
+        boolean torus) {
+
+        if (rowNumber <= 0 || columnNumber <= 0)
+            throw new IllegalArgumentException("Invalid size");
+
+        // Fewer would make a neighbour on both sides count twice
+        if (torus && (rowNumber < MIN_TORUS || columnNumber < MIN_TORUS))
+            throw new IllegalArgumentException("World is too small to wrap");
+
+        this.mode = mode;
+        this.rowNumber = rowNumber;
+        this.columnNumber = columnNumber;
+        this.torus = torus;
+    }
+
+    /**
+     * Constructs a Cell Factory from the mode, size and topology of the
+     * specified configuration. If its rows or columns are 0, the World fits
+     * the window of the configuration.
+     *
+     * @param config {@code Config} the configuration
+     */
+    public CellFactory(Config config) {
+        this.mode = config.mode();
+        this.torus = config.torus();
+
+        if (config.rows() > 0 && config.columns() > 0) {
+            rowNumber = config.rows();
+            columnNumber = config.columns();
+        } else {
+            setNumber(mode, config.windowWidth(), config.windowHeight());
+        }
+    }
+
     /**
      * Change the current mode of this factory to the specified mode.
      * 
@@ -34,7 +103,8 @@ public final class CellFactory {
      * @return the new Mode
      */
     public String setMode(String mode) {
-        if (!(mode.equalsIgnoreCase("SQUARE") || mode.equalsIgnoreCase("HEX")))
+        if (!(mode.equalsIgnoreCase("SQUARE") || mode.equalsIgnoreCase("HEX")
+            || mode.equalsIgnoreCase("LIFE")))
             throw new IllegalArgumentException("Invalid mode");
         
         this.mode = mode;
@@ -44,41 +114,71 @@ public final class CellFactory {
         return mode;
     }
 
+    /**
+     * Change whether the edges of the world wrap around.
+     * 
+     * @param torus {@code boolean} {@code true} if the top row touches the
+     * bottom row and the left column touches the right column
+     */
+    public void setTorus(boolean torus) {
+        this.torus = torus;
+    }
+
     /**
      * Set the number of row and column based on the mode.
      * 
      * @param mode {@code String}  
      */
     private void setNumber(String mode) {
-        if (mode.equalsIgnoreCase("SQUARE")) {
-            rowNumber = Setting.SQUARE_ROW;
-            columnNumber = Setting.SQUARE_COLUMN;
+        setNumber(mode, Setting.WINDOW_WIDTH, Setting.WINDOW_HEIGHT);
+    }
+
+    /**
+     * Set the number of row and column based on the mode, so that the Cells
+     * fill a window of the specified size.
+     * 
+     * @param mode {@code String} "SQUARE", "HEX" or "LIFE"
+     * @param width {@code int} width of the window
+     * @param height {@code int} height of the window
+     */
+    private void setNumber(String mode, int width, int height) {
+        if (mode.equalsIgnoreCase("SQUARE") || mode.equalsIgnoreCase("LIFE")) {
+            rowNumber = height / Setting.SQUARE_SIZE;
+            columnNumber = width / Setting.SQUARE_SIZE;
         } else if (mode.equalsIgnoreCase("HEX")) {
-            rowNumber = Setting.HEX_ROW;
-            columnNumber = Setting.HEX_COLUMN;
+            rowNumber = height / (int) Setting.HEX_WIDTH;
+            columnNumber = width / (int) Setting.HEX_WIDTH - 2;
         }
+
+        // A window smaller than a Cell still shows one
+        rowNumber = Math.max(1, rowNumber);
+        columnNumber = Math.max(1, columnNumber);
     }
 
     /**
-     * Returns a new Cell with the specified row and column values according to
-     * this factory's current mode.
+     * Returns a new Cell that describes the adjacency of the Cells according
+     * to this factory's current mode.
      * 
-     * @param row {@code int} row value, i.e. y-coordinate
-     * @param column {@code int} column value, i.e. x-coordinate
-     * 
-     * @return a new Cell with the specified row and column value; {@code null}
-     * if the mode is invalid
+     * @return a new Cell of the current mode; {@code null} if the mode is
+     * invalid
      */
-    public Cell makeCell(int row, int column) {
+    public Cell makeCell() {
 
-        if (mode.equalsIgnoreCase("SQUARE"))
-            return new Square(row, column);
+        if (mode.equalsIgnoreCase("SQUARE") || mode.equalsIgnoreCase("LIFE"))
+            return new Square();
         else if (mode.equalsIgnoreCase("HEX"))
-            return new Hex(row, column);
+            return new Hex();
         
         return null;
     }
 
+    /**
+     * Returns the current mode of this factory.
+     */
+    public String mode() {
+        return mode;
+    }
+
     /**
      * Returns the number of rows this factory can create.
      */
@@ -92,4 +192,11 @@ public final class CellFactory {
     public int column() {
         return columnNumber;
     }
+
+    /**
+     * Returns whether the edges of the world wrap around.
+     */
+    public boolean torus() {
+        return torus;
+    }
 }
\ No newline at end of file
@@ -1,43 +1,27 @@
 package cell;
 
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
-import utility.Setting;
-
 /**
  * Class to represent a Square Cell in the Game of Life.
  * 
  * @author Scott Lai
  */
 public class Square extends Cell {
+
+    /** Coordinate difference of the Cells adjacent to a Square Cell. */
+    private static final int[][] ADJACENT = new int[][] {
+        {-1, -1}, {-1, 0}, {-1, 1},
+        {0, -1}, {0, 1},
+        {1, -1}, {1, 0}, {1, 1}
+    };
     
     /**
-     * Constructs a Square Cell object with the specified coordinate.
-     * 
-     * @param row       {@code int} row 0-based row number, i.e. y-coordinate
-     * @param column    {@code int} 0-based column number, i.e. x-coordinate
+     * Constructs a Square Cell object.
      */
-    Square(int row, int column) {
-        super(row, column);
-    }
-
-    @Override
-    protected Shape createShape() {
-        double x = column * Setting.SQUARE_SIZE;
-        double y = row * Setting.SQUARE_SIZE;
-
-        return new Rectangle(x, y, Setting.SQUARE_SIZE, Setting.SQUARE_SIZE);
-    }
+    Square() {}
 
     @Override
-    public int[][] adjacent() {
-        int[][] temp = new int[][] {
-            {-1, -1}, {-1, 0}, {-1, 1},
-            {0, -1}, {0, 1},
-            {1, -1}, {1, 0}, {1, 1}
-        };
-
-        return temp;
+    public int[][] adjacent(int row) {
+        return ADJACENT;
     }
 
 }
\ No newline at end of file
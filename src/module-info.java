@@ -3,7 +3,10 @@ module Game_Of_Life {
     exports cell;
     exports application;
     exports organism;
+    exports utility;
 
     requires transitive javafx.base;
     requires transitive javafx.graphics;
+    requires transitive java.management;
+    requires jdk.jfr;
 }
\ No newline at end of file
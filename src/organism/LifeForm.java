@@ -1,112 +1,151 @@
 package organism;
 
-import java.util.List;
-
-import cell.Cell;
-import javafx.scene.paint.Color;
-import world.World;
+import world.Habitat;
+import world.Neighbourhood;
+import world.Profiler;
 
 /**
  * Abstract class to represent a LifeForm, i.e. Plant Eaters and Plants in the 
- * Game of Life.
+ * Game of Life. A LifeForm describes how a kind of organism behaves; the hp 
+ * and position of each individual organism are stored in its Habitat.
  * 
  * @author Scott Lai
  */
 public abstract class LifeForm {
 
-    /** Color of the current LifeForm. */
-    protected final Color color;
-
-    /** The Cell that this LifeForm is living on. */
-    protected Cell occupiedCell;
+    /** Species id of this LifeForm. */
+    protected final byte id;
 
     /** Maximum number of turns this LifeForm can take. */
     protected final int maxHP;
 
-    /** Number of turns left before this LifeForm dies. */
-    protected int hp;
-
     /**
-     * Construct a LifeForm by defining its {@code Color} and {@code Cell}.
+     * Construct a LifeForm by defining its species id and maximum hp.
      * 
-     * @param color {@code Color} color of this LifeForm
-     * 
-     * @param spawnCell {@code Cell} the Cell in which this LifeForm spawns on
+     * @param id {@code byte} species id of this LifeForm
+     * @param maxHP {@code int} maximum number of turns without eating
      */
-    public LifeForm(Color color, Cell spawnCell, int maxHP) {
-        this.color = color;
-        this.occupiedCell = spawnCell;
-        hp = this.maxHP = maxHP;
+    protected LifeForm(byte id, int maxHP) {
+        this.id = id;
+        this.maxHP = maxHP;
     }
 
     /**
-     * Returns if the instance of a class can be "eaten" by the specified 
-     * LifeForm.
+     * Returns if this LifeForm can eat the specified LifeForm, as listed by
+     * {@link Species#diet(byte)}.
      * 
      * @param life {@code LifeForm} to check if this LifeForm can eat
      * 
-     * @return {@code true} if the current class can be eaten by the specified 
-     * {@code LifeForm}; {@code false} otherwise
+     * @return {@code true} if this LifeForm can eat the specified 
+     * {@code LifeForm}; {@code false} otherwise or if it is {@code null}
      */
-    public abstract boolean canEat(LifeForm life);
+    public final boolean canEat(LifeForm life) {
+        return life != null && (Species.diet(id) & Species.bit(life.id)) != 0;
+    }
 
     /**
-     * Returns if this LifeForm can breed with the specified LifeForm.
+     * Returns if this LifeForm can breed with the specified LifeForm, as
+     * listed by {@link Species#mates(byte)}.
      * 
      * @param partner {@code LifeForm} potential mating partner
      * 
      * @return {@code true} if this LifeForm can breed with the specified 
-     * LifeForm; {@code false} otherwise
+     * LifeForm; {@code false} otherwise or if it is {@code null}
      */
-    public abstract boolean canBreedWith(LifeForm partner);
+    public final boolean canBreedWith(LifeForm partner) {
+        return partner != null
+            && (Species.mates(id) & Species.bit(partner.id)) != 0;
+    }
 
     /**
-     * Returns if this LifeForm can breed given the specified list of adjacent
+     * Returns if this LifeForm can breed given the specified number of adjacent
      * empty, canBreedWith LifeForm, and Food Cells.
      * 
-     * @param empty {@code List<Cell>} List of adjacent empty Cells
-     * @param canBreed {@code List<Cell>} List of adjacent Cells that contain
+     * @param empty {@code int} number of adjacent empty Cells
+     * @param canBreed {@code int} number of adjacent Cells that contain
      * LifeForm this LifeForm can breed with
+     * @param food {@code int} number of adjacent Cells that contain 
+     * LifeForm this LifeForm can eat
      * 
-     * @return the Cell in which the new born is spawned;
+     * @return {@code true} if this LifeForm can breed; {@code false} otherwise
      */
-    protected abstract boolean breedCondition(List<Cell> empty, 
-        List<Cell> canBreed, List<Cell> food);
+    protected abstract boolean breedCondition(int empty, int canBreed, 
+        int food);
 
     /**
-     * Spawns a new instance of this type of LifeForm on the specified dest Cell.
+     * Returns if this LifeForm can breed given the specified classified
+     * adjacent Cells.
+     * 
+     * @param adjacent {@code Neighbourhood} the classified adjacent Cells
      * 
-     * @param dest {@code Cell} cell to spawn on
+     * @return {@code true} if this LifeForm can breed; {@code false} otherwise
      */
-    protected abstract void spawn(Cell dest);
+    public final boolean canBreed(Neighbourhood adjacent) {
+        return breedCondition(adjacent.emptyCount(), adjacent.breedableCount(), 
+            adjacent.foodCount());
+    }
+
+    /**
+     * Returns if this LifeForm can move.
+     * 
+     * @return {@code true} if this LifeForm can move; {@code false} otherwise
+     */
+    public boolean canMove() {
+        return true;
+    }
 
     /**
      * Method for a LifeForm to perform at the start of the turn.
      * A turn consists of first breeding then moving.
      * 
-     * @param world {@code World} the World that this LifeForm is living in
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
+     * @param adjacent {@code Neighbourhood} reusable buffers for the adjacent
+     * Cells
      * 
      * @return {@code true} if this LifeForm is able to perform at the start of
      * each turn, i.e. not starved or be able to spread seed; {@code false} 
      * otherwise
      */
-    public boolean takeTurn(World world) {
-        if (starved()) {
-            die();
+    public boolean takeTurn(Habitat world, int cell, Neighbourhood adjacent) {
+        long start = Profiler.ENABLED ? System.nanoTime() : 0;
+
+        if (starved(world, cell)) {
+            die(world, cell);
+
+            if (Profiler.ENABLED)
+                Profiler.lap(Profiler.TURN, start);
+
             return false;
         }
 
-        loseHP();
+        loseHP(world, cell);
 
-        List<Cell> breedCells = world.getAdjacentBreedable(occupiedCell);
-        List<Cell> emptyCells = world.getAdjacentEmpty(occupiedCell);
-        List<Cell> foodCells = world.getAdjacentEdible(occupiedCell);
+        world.count(cell, adjacent);
 
-        breed(emptyCells, breedCells, foodCells);
-        
-        List<Cell> foodOrEmpty = world.getAdjacentEdibleOrEmpty(occupiedCell);
+        boolean breeds = canBreed(adjacent);
+        boolean moves = canMove() && adjacent.foodOrEmptyCount() > 0;
 
-        move(foodOrEmpty);
+        // The adjacent Cells are only listed to pick a destination
+        if ((breeds || moves) && !adjacent.listed())
+            world.classify(cell, adjacent);
+
+        long time = Profiler.ENABLED ? Profiler.lap(Profiler.CLASSIFY, start)
+            : 0;
+
+        if (breeds)
+            breed(world, adjacent);
+
+        if (Profiler.ENABLED)
+            time = Profiler.lap(Profiler.BREED, time);
+
+        if (moves)
+            move(world, cell, adjacent);
+
+        if (Profiler.ENABLED) {
+            Profiler.lap(Profiler.MOVE, time);
+            Profiler.lap(Profiler.TURN, start);
+        }
 
         return true;
     }
@@ -114,23 +153,22 @@ public abstract class LifeForm {
     /**
      * Breeds and returns if this LifeForm breeds successfully.
      * 
-     * @param empty {@code List<Cell>} list of adjacent empty cells
-     * @param canBreed {@code List<Cell>} list of adjacent cells with
-     * LifeForm that this LifeForm can breed with
-     * @param food {@code List<Cell>} list of adjacent cells with 
-     * LifeForm that this LifeForm can eat
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param adjacent {@code Neighbourhood} the classified adjacent Cells
      * 
      * @return {@code true} if this LifeForm breeds successfully; {@code false}
      * otherwise
      */
-    protected boolean breed(List<Cell> empty, List<Cell> canBreed, List<Cell> food) {
+    protected boolean breed(Habitat world, Neighbourhood adjacent) {
         
-        if (!breedCondition(empty, canBreed, food))
+        if (!canBreed(adjacent))
             return false;
         
-        Cell dest = World.randomCell(empty);
+        int dest = adjacent.randomEmpty();
+
+        world.setOccupant(dest, this);
 
-        spawn(dest);
+        adjacent.occupy(dest);
 
         return true;
     }
@@ -138,103 +176,110 @@ public abstract class LifeForm {
     /**
      * Moving part of a turn.
      * 
-     * @param foodOrEmpty {@code List<Cell>} List of Cells that are empty or 
-     * contain LifeForm that this LifeForm can eat
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
+     * @param adjacent {@code Neighbourhood} the classified adjacent Cells
      * 
      * @return {@code true} if this LifeForm moves successfully; {@code false}
      * otherwise
      */
-    protected boolean move(List<Cell> foodOrEmpty) {
-        if (foodOrEmpty.isEmpty()) {
+    protected boolean move(Habitat world, int cell, Neighbourhood adjacent) {
+        if (!canMove() || adjacent.foodOrEmptyCount() == 0) {
             return false;
         }
 
-        Cell dest = World.randomCell(foodOrEmpty);
+        int dest = adjacent.randomFoodOrEmpty();
 
-        eat(dest.occupant());
+        eat(world, cell, dest);
         
-        moveTo(dest);
+        world.move(cell, dest);
 
         return true;
     }
 
-    
     /**
-     * Eats the specified LifeForm and returns if that LifeForm has been eaten
-     * by this LifeForm successfully. 
+     * Eats the LifeForm on the specified Cell and returns if that LifeForm 
+     * has been eaten by this LifeForm successfully. 
      * 
-     * @param life {@code LifeForm} life to be eaten by this LifeForm
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
+     * @param food {@code int} index of the Cell with the LifeForm to be eaten
      * 
      * @return {@code true} if the specified LifeForm has been eaten by this
      * LifeForm; {@code false} otherwise
      */
-    private boolean eat(LifeForm life) {
-        if (!canEat(life)) {
+    private boolean eat(Habitat world, int cell, int food) {
+        if (!canEat(world.occupant(food))) {
             return false;
         }
 
-        life.die();
+        world.eat(cell, food);
 
-        restoreHP();
+        restoreHP(world, cell);
 
         return true;    
     }
 
     /**
-     * Helper method to moves this LifeForm to the dest Cell.
+     * Gets called when this lifeForm dies.
      * 
-     * @param dest {@code Cell} destination Cell
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
      */
-    private boolean moveTo(Cell dest) {
-        if (!dest.isEmpty())
-            return false;
-        
-        dest.setOccupant(this);
-
-        occupiedCell.kill();
-
-        occupiedCell = dest;
-
-        return true;
+    private final void die(Habitat world, int cell) {
+        world.kill(cell);
     }
 
     /**
-     * Gets called when this lifeForm dies.
+     * Returns the species id of this LifeForm.
+     * 
+     * @return {@code byte} species id of this LifeForm
      */
-    private final void die() {
-        occupiedCell.kill(); // Destroy this LifeForm reference in Cell
+    public final byte id() {
+        return id;
     }
 
     /**
-     * Returns the color of this LifeForm.
+     * Returns the maximum number of turns this LifeForm can take without 
+     * eating.
      * 
-     * @return {@code Color} color of this LifeForm
+     * @return {@code int} maximum hp of this LifeForm
      */
-    public final Color color() {
-        return color;
+    public final int maxHP() {
+        return maxHP;
     }
 
     /**
-     * Returns if this Herbivore is starving, i.e. {@code hp == 0}.
+     * Returns if the LifeForm on the specified Cell is starving, i.e. 
+     * {@code hp == 0}.
+     * 
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
      * 
-     * @return {@code true} if this herbivore is starving; {@code false} otherwise
+     * @return {@code true} if the LifeForm is starving; {@code false} otherwise
      */
-    protected final boolean starved() {
-        return hp == 0;
+    protected final boolean starved(Habitat world, int cell) {
+        return world.hp(cell) == 0;
     }
 
     /**
-     * Removes 1 hp of this LifeForm.
+     * Removes 1 hp of the LifeForm on the specified Cell.
+     * 
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
      */
-    private void loseHP() {
-        hp--;
+    private void loseHP(Habitat world, int cell) {
+        world.setHP(cell, world.hp(cell) - 1);
     }
 
     /**
-     * Restores this LifeForm's hp to full.
+     * Restores the hp of the LifeForm on the specified Cell to full.
+     * 
+     * @param world {@code Habitat} the World that this LifeForm is living in
+     * @param cell {@code int} index of the Cell this LifeForm is living on
      */
-    private void restoreHP() {
-        hp = maxHP;
+    private void restoreHP(Habitat world, int cell) {
+        world.setHP(cell, world.maxHP(id));
     }
 
 }
@@ -0,0 +1,117 @@
+package organism;
+
+import organism.carnivore.Carnivore;
+import organism.herbivore.Herbivore;
+import organism.omnivore.Omnivore;
+import organism.plant.Plant;
+
+/**
+ * Utility class that identifies each kind of LifeForm by a small id. The World
+ * stores these ids in a {@code byte[]} instead of holding LifeForm objects.
+ * <p>
+ * What a species eats and breeds with is data: a bitmask per species with
+ * bit {@code 1 << id} set for every species it can eat or breed with, so a
+ * check is a single AND and a new species is a new row rather than a new
+ * marker interface. The bit of {@link #EMPTY} is never set, so an empty Cell
+ * is never food nor a mate.
+ *
+ * @author Scott Lai
+ */
+public final class Species {
+
+    /** Id of an empty Cell. */
+    public static final byte EMPTY = 0;
+
+    /** Id of a Plant. */
+    public static final byte PLANT = 1;
+
+    /** Id of a Herbivore. */
+    public static final byte HERBIVORE = 2;
+
+    /** Id of a Carnivore. */
+    public static final byte CARNIVORE = 3;
+
+    /** Id of an Omnivore. */
+    public static final byte OMNIVORE = 4;
+
+    /** Number of ids, including {@link #EMPTY}. */
+    public static final int COUNT = 5;
+
+    /** Bitmask of the species each species can eat, indexed by id. */
+    private static final int[] DIET = {
+        0,
+        0,
+        1 << PLANT,
+        1 << HERBIVORE | 1 << OMNIVORE,
+        1 << PLANT | 1 << HERBIVORE | 1 << CARNIVORE
+    };
+
+    /** Bitmask of the species each species can breed with, indexed by id. */
+    private static final int[] MATES = {
+        0,
+        1 << PLANT,
+        1 << HERBIVORE,
+        1 << CARNIVORE,
+        1 << OMNIVORE
+    };
+
+    /** LifeForm of each id, {@code null} for {@link #EMPTY}. */
+    private static final LifeForm[] LIFEFORMS = new LifeForm[] {
+        null,
+        new Plant(),
+        new Herbivore(),
+        new Carnivore(),
+        new Omnivore()
+    };
+
+    /**
+     * Ensures that a Species Object cannot be created.
+     */
+    private Species() {}
+
+    /**
+     * Returns the LifeForm with the specified id.
+     *
+     * @param id {@code byte} id of the LifeForm
+     *
+     * @return {@code LifeForm} the LifeForm with the id; {@code null} for
+     * {@link #EMPTY}
+     */
+    public static LifeForm of(byte id) {
+        return LIFEFORMS[id];
+    }
+
+    /**
+     * Returns the bit of the specified id in a diet or mates bitmask.
+     *
+     * @param id {@code byte} species id
+     *
+     * @return {@code int} {@code 1 << id}
+     */
+    public static int bit(byte id) {
+        return 1 << id;
+    }
+
+    /**
+     * Returns the species the specified species can eat.
+     *
+     * @param id {@code byte} species id
+     *
+     * @return {@code int} bitmask of the ids it can eat
+     */
+    public static int diet(byte id) {
+        return DIET[id];
+    }
+
+    /**
+     * Returns the species the specified species can breed with.
+     *
+     * @param id {@code byte} species id
+     *
+     * @return {@code int} bitmask of the ids it can breed with
+     */
+    public static int mates(byte id) {
+        return MATES[id];
+    }
+
+}
@@ -1,8 +0,0 @@
-package organism.carnivore;
-
-/**
- * Common Interface for classes that are edible by Carnivore.
- */
-public interface CarnivoreEdible {
-
-}
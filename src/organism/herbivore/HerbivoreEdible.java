@@ -1,8 +0,0 @@
-package organism.herbivore;
-
-/**
- * Common Interface for classes that are edible by Herbivore.
- */
-public interface HerbivoreEdible {
-    
-}
@@ -1,8 +0,0 @@
-package organism.omnivore;
-
-/**
- * Common Interface for classes that are edible by Omnivore.
- */
-public interface OmnivoreEdible {
-    
-}
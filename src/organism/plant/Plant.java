@@ -1,40 +1,29 @@
 package organism.plant;
 
-import java.util.List;
-
-import cell.Cell;
-import javafx.scene.paint.Color;
 import organism.LifeForm;
-import organism.herbivore.HerbivoreEdible;
-import organism.omnivore.OmnivoreEdible;
+import organism.Species;
 
 /**
  * Class to represent a Plant in the Game of Life.
  * 
  * @author Scott Lai
  */
-public class Plant extends LifeForm implements HerbivoreEdible, OmnivoreEdible {
+public class Plant extends LifeForm {
 
     /** Maximum number of turns a Plant can take without eating. */
     private static final int MAX_HP = Integer.MAX_VALUE;
 
+    /** Fewest adjacent Plants a Plant needs to breed. */
+    public static final int MIN_MATES = 2;
+
+    /** Fewest adjacent empty Cells a Plant needs to breed. */
+    public static final int MIN_EMPTY = 3;
+
     /**
      * Constructs a Plant.
-     * 
-     * @param spawnCell {@code Cell} the Cell in which this Plant spawns on
      */
-    public Plant(Cell spawnCell) {
-        super(Color.GREEN, spawnCell, MAX_HP);
-    }
-
-    @Override
-    public boolean canEat(LifeForm life) {
-        return false;
-    }
-
-    @Override
-    protected void spawn(Cell dest) {
-        dest.setOccupant(new Plant(dest));
+    public Plant() {
+        super(Species.PLANT, MAX_HP);
     }
 
     @Override
@@ -43,7 +32,7 @@ public class Plant extends LifeForm implements HerbivoreEdible, OmnivoreEdible {
      * 
      * @return {@code false}
      */
-    protected boolean move(List<Cell> edibleEmptyCells) {
+    public boolean canMove() {
         return false;
     }
 
@@ -51,18 +40,10 @@ public class Plant extends LifeForm implements HerbivoreEdible, OmnivoreEdible {
     /**
      * {@inheritDoc}
      */
-    protected boolean breedCondition(List<Cell> empty, List<Cell> canBreed,
-        List<Cell> food) {
+    protected boolean breedCondition(int empty, int canBreed,
+        int food) {
         
-        return  canBreed.size() >= 2 && empty.size() >= 3 && food.size() == 0;
+        return  canBreed >= MIN_MATES && empty >= MIN_EMPTY && food == 0;
     }
 
-    @Override
-    /**
-     * {@inheritDoc}
-     */
-    public boolean canBreedWith(LifeForm partner) {
-        return partner instanceof Plant;
-    }
-    
 }
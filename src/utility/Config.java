@@ -0,0 +1,528 @@
+package utility;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import organism.Species;
+import world.LifeRule;
+
+/**
+ * Immutable configuration of a Game of Life, read at start up instead of
+ * compiled in. It holds the size and shape of the World, which no longer
+ * depend on the window, the percentage and the maximum hp of each species,
+ * and the window and display settings. Every value defaults to the matching
+ * constant of {@link Setting}.
+ * <p>
+ * The keys are:
+ * <pre>
+ * mode               SQUARE, HEX, or LIFE for a B/S rule instead of species
+ * torus              true to wrap the edges around
+ * rule               B/S rule of the LIFE mode, e.g. B3/S23
+ * life.percent       percentage of the Cells alive at first in the LIFE mode
+ * life.engine        PACKED bits, or HASHLIFE on an unbounded plane; a torus
+ *                    is always PACKED
+ * hashlife.nodes     nodes of HASHLIFE above which its cache is collected,
+ *                    0 to never collect
+ * hashlife.keep.results  true if a collection keeps the memoised results
+ * rows, columns      size of the World; either 0 to fit the window
+ * plant.percent      percentage of each species spawned, also
+ * herbivore.percent  carnivore.percent and omnivore.percent
+ * plant.maxhp        turns each species survives without eating, also
+ * herbivore.maxhp    carnivore.maxhp and omnivore.maxhp
+ * window.width       size of the window in pixels, also window.height
+ * days.per.second    target rate of a running World
+ * shape.limit        largest number of Cells drawn as one Shape each
+ * seed               seed of the random source; empty for the
+ *                    {@link TableRandom} of the original game
+ * </pre>
+ * A Config is read from a properties file with {@link #load(Path)} or from
+ * command line flags with {@link #parse(String[])}, and a value is changed
+ * with {@link #with(String, String)}, which returns a new Config.
+ *
+ * @author Scott Lai
+ */
+public final class Config {
+
+    /** Name of each species in the keys, indexed by species id. */
+    private static final String[] SPECIES = {
+        null, "plant", "herbivore", "carnivore", "omnivore"
+    };
+
+    /** Default values, also the set of known keys. */
+    private static final Properties DEFAULT_KEYS = defaults();
+
+    /** Configuration made of the defaults only. */
+    public static final Config DEFAULT = new Config(defaults());
+
+    /** Every value, as text. */
+    private final Properties values;
+
+    /** Shape of the Cells. */
+    private final String mode;
+
+    /** Whether the edges wrap around. */
+    private final boolean torus;
+
+    /** B/S rule of the LIFE mode. */
+    private final LifeRule rule;
+
+    /** Percentage of the Cells alive at first in the LIFE mode. */
+    private final int lifePercent;
+
+    /** Engine of the LIFE mode. */
+    private final String lifeEngine;
+
+    /** Nodes of HashLife above which its cache is collected. */
+    private final int hashLifeNodes;
+
+    /** Whether a collection of HashLife keeps the memoised results. */
+    private final boolean keepResults;
+
+    /** Number of rows; 0 to fit the window. */
+    private final int rows;
+
+    /** Number of columns; 0 to fit the window. */
+    private final int columns;
+
+    /** Percentage of each species, indexed by species id. */
+    private final int[] percent = new int[Species.COUNT];
+
+    /** Maximum hp of each species, indexed by species id. */
+    private final int[] maxHP = new int[Species.COUNT];
+
+    /** Width of the window. */
+    private final int windowWidth;
+
+    /** Height of the window. */
+    private final int windowHeight;
+
+    /** Target number of days simulated per second while running. */
+    private final double daysPerSecond;
+
+    /** Largest number of Cells displayed with one Shape each. */
+    private final int shapeLimit;
+
+    /** Whether a seed is set. */
+    private final boolean seeded;
+
+    /** Seed of the random source, if {@link #seeded}. */
+    private final long seed;
+
+    /**
+     * Constructs a Config from the specified values.
+     *
+     * @param values {@code Properties} every value, as text
+     *
+     * @throws IllegalArgumentException if a key is unknown or a value is
+     * invalid
+     */
+    private Config(Properties values) {
+        this.values = values;
+
+        for (String key : values.stringPropertyNames())
+            if (!DEFAULT_KEYS.containsKey(key))
+                throw new IllegalArgumentException("Unknown setting " + key);
+
+        mode = values.getProperty("mode").trim().toUpperCase();
+        torus = Boolean.parseBoolean(values.getProperty("torus").trim());
+        rows = getInt("rows", 0);
+        columns = getInt("columns", 0);
+        windowWidth = getInt("window.width", 1);
+        windowHeight = getInt("window.height", 1);
+        daysPerSecond = Double.parseDouble(
+            values.getProperty("days.per.second").trim());
+        shapeLimit = getInt("shape.limit", 0);
+        rule = LifeRule.parse(values.getProperty("rule"));
+        lifePercent = getInt("life.percent", 0);
+        lifeEngine = values.getProperty("life.engine").trim().toUpperCase();
+        hashLifeNodes = getInt("hashlife.nodes", 0);
+        keepResults = Boolean.parseBoolean(
+            values.getProperty("hashlife.keep.results").trim());
+
+        String seedValue = values.getProperty("seed").trim();
+
+        seeded = !seedValue.isEmpty();
+        seed = seeded ? Long.parseLong(seedValue) : 0;
+
+        if (!lifeEngine.equals("PACKED") && !lifeEngine.equals("HASHLIFE"))
+            throw new IllegalArgumentException("Invalid life.engine "
+                + lifeEngine);
+
+        if (!mode.equals("SQUARE") && !mode.equals("HEX")
+            && !mode.equals("LIFE"))
+            throw new IllegalArgumentException("Invalid mode " + mode);
+
+        if (lifePercent > Setting.SPAWN_VALUE)
+            throw new IllegalArgumentException("Invalid life.percent "
+                + lifePercent);
+
+        if (!(daysPerSecond >= 0))
+            throw new IllegalArgumentException("Invalid days.per.second");
+
+        int total = 0;
+
+        for (byte id = 1; id < Species.COUNT; id++) {
+            percent[id] = getInt(SPECIES[id] + ".percent", 0);
+            maxHP[id] = getInt(SPECIES[id] + ".maxhp", 1);
+            total += percent[id];
+        }
+
+        if (total > Setting.SPAWN_VALUE)
+            throw new IllegalArgumentException("Percentages exceed "
+                + Setting.SPAWN_VALUE);
+    }
+
+    /**
+     * Returns a Config with the values of the specified properties file over
+     * the defaults.
+     *
+     * @param path {@code Path} the properties file
+     *
+     * @return {@code Config} the Config
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a key is unknown or a value is
+     * invalid
+     */
+    public static Config load(Path path) throws IOException {
+        return DEFAULT.with(path);
+    }
+
+    /**
+     * Returns a Config from the specified command line flags, each
+     * {@code --key=value} or {@code --key value}, applied in order. A
+     * {@code --config} flag names a properties file whose values are applied
+     * at that point.
+     *
+     * @param args {@code String[]} the flags
+     *
+     * @return {@code Config} the Config
+     *
+     * @throws IOException if the properties file cannot be read
+     * @throws IllegalArgumentException if a flag is unknown or a value is
+     * invalid
+     */
+    public static Config parse(String[] args) throws IOException {
+        Config config = DEFAULT;
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Invalid flag " + args[i]);
+
+            String key = args[i].substring(2);
+            String value;
+            int equals = key.indexOf('=');
+
+            if (equals >= 0) {
+                value = key.substring(equals + 1);
+                key = key.substring(0, equals);
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value of "
+                    + args[i]);
+            }
+
+            if (key.equals("config"))
+                config = config.with(Paths.get(value));
+            else
+                config = config.with(key, value);
+        }
+
+        return config;
+    }
+
+    /**
+     * Returns a Config like this one with the specified value changed.
+     *
+     * @param key {@code String} the key, e.g. {@code "herbivore.maxhp"}
+     * @param value {@code String} the new value
+     *
+     * @return {@code Config} a new Config
+     *
+     * @throws IllegalArgumentException if the key is unknown or the value is
+     * invalid
+     */
+    public Config with(String key, String value) {
+        Properties temp = values();
+
+        temp.setProperty(key, value);
+
+        return new Config(temp);
+    }
+
+    /**
+     * Returns a Config like this one with the maximum hp of the specified
+     * species changed.
+     *
+     * @param species {@code byte} species id
+     * @param maxHP {@code int} the new maximum hp
+     *
+     * @return {@code Config} a new Config
+     *
+     * @throws IllegalArgumentException if the value is invalid
+     */
+    public Config withMaxHP(byte species, int maxHP) {
+        return with(SPECIES[species] + ".maxhp", String.valueOf(maxHP));
+    }
+
+    /**
+     * Returns a Config like this one with the values of the specified
+     * properties file.
+     *
+     * @param path {@code Path} the properties file
+     *
+     * @return {@code Config} a new Config
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a key is unknown or a value is
+     * invalid
+     */
+    public Config with(Path path) throws IOException {
+        Properties temp = values();
+
+        try (Reader in = Files.newBufferedReader(path)) {
+            temp.load(in);
+        }
+
+        return new Config(temp);
+    }
+
+    /**
+     * Returns the shape of the Cells.
+     *
+     * @return {@code String} "SQUARE", "HEX" or "LIFE"
+     */
+    public String mode() {
+        return mode;
+    }
+
+    /**
+     * Returns whether the edges of the World wrap around.
+     *
+     * @return {@code boolean} {@code true} if the World is a torus
+     */
+    public boolean torus() {
+        return torus;
+    }
+
+    /**
+     * Returns the B/S rule of the LIFE mode.
+     *
+     * @return {@code LifeRule} the rule
+     */
+    public LifeRule rule() {
+        return rule;
+    }
+
+    /**
+     * Returns the percentage of the Cells alive at first in the LIFE mode.
+     *
+     * @return {@code int} the percentage
+     */
+    public int lifePercent() {
+        return lifePercent;
+    }
+
+    /**
+     * Returns the engine of the LIFE mode.
+     *
+     * @return {@code String} "PACKED" or "HASHLIFE"
+     */
+    public String lifeEngine() {
+        return lifeEngine;
+    }
+
+    /**
+     * Returns the number of nodes of HashLife above which its cache is
+     * collected.
+     *
+     * @return {@code int} number of nodes; 0 to never collect
+     */
+    public int hashLifeNodes() {
+        return hashLifeNodes;
+    }
+
+    /**
+     * Returns whether a collection of the cache of HashLife keeps the
+     * memoised results of the nodes it keeps.
+     *
+     * @return {@code boolean} {@code true} to keep the results
+     */
+    public boolean keepResults() {
+        return keepResults;
+    }
+
+    /**
+     * Returns the number of rows of the World.
+     *
+     * @return {@code int} number of rows; 0 to fit the window
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the World.
+     *
+     * @return {@code int} number of columns; 0 to fit the window
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the percentage of the Cells spawned with the specified species.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code int} the percentage; 0 for {@link Species#EMPTY}
+     */
+    public int percent(byte species) {
+        return percent[species];
+    }
+
+    /**
+     * Returns the number of turns the specified species survives without
+     * eating.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code int} the maximum hp
+     */
+    public int maxHP(byte species) {
+        return maxHP[species];
+    }
+
+    /**
+     * Returns the width of the window.
+     *
+     * @return {@code int} width in pixels
+     */
+    public int windowWidth() {
+        return windowWidth;
+    }
+
+    /**
+     * Returns the height of the window.
+     *
+     * @return {@code int} height in pixels
+     */
+    public int windowHeight() {
+        return windowHeight;
+    }
+
+    /**
+     * Returns the target number of days simulated per second while running.
+     *
+     * @return {@code double} days per second
+     */
+    public double daysPerSecond() {
+        return daysPerSecond;
+    }
+
+    /**
+     * Returns the largest number of Cells displayed with one Shape each.
+     *
+     * @return {@code int} number of Cells
+     */
+    public int shapeLimit() {
+        return shapeLimit;
+    }
+
+    /**
+     * Returns a new random source: a {@link RandomSource#of(long)} of the
+     * seed if one is set, otherwise the {@link TableRandom} of the original
+     * game.
+     *
+     * @return {@code RandomSource} a new random source
+     */
+    public RandomSource random() {
+        return seeded ? RandomSource.of(seed) : new TableRandom();
+    }
+
+    /**
+     * Returns every value of this Config.
+     *
+     * @return {@code Properties} a copy of the values, as text
+     */
+    public Properties values() {
+        Properties temp = new Properties();
+
+        temp.putAll(values);
+
+        return temp;
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+
+    /**
+     * Helper method to read a whole number value.
+     *
+     * @param key {@code String} the key
+     * @param min {@code int} the smallest valid value
+     *
+     * @return {@code int} the value
+     *
+     * @throws IllegalArgumentException if the value is not a number or is
+     * too small
+     */
+    private int getInt(String key, int min) {
+        int value = Integer.parseInt(values.getProperty(key).trim());
+
+        if (value < min)
+            throw new IllegalArgumentException("Invalid " + key + " " + value);
+
+        return value;
+    }
+
+    /**
+     * Helper method to return the default values, from {@link Setting} and
+     * the LifeForms.
+     *
+     * @return {@code Properties} the default values
+     */
+    private static Properties defaults() {
+        Properties temp = new Properties();
+
+        temp.setProperty("mode", "SQUARE");
+        temp.setProperty("torus", "false");
+        temp.setProperty("rule", LifeRule.CONWAY.toString());
+        temp.setProperty("life.percent", "30");
+        temp.setProperty("life.engine", "PACKED");
+        temp.setProperty("hashlife.nodes", "1000000");
+        temp.setProperty("hashlife.keep.results", "true");
+        temp.setProperty("rows", "0");
+        temp.setProperty("columns", "0");
+        temp.setProperty("window.width", String.valueOf(Setting.WINDOW_WIDTH));
+        temp.setProperty("window.height",
+            String.valueOf(Setting.WINDOW_HEIGHT));
+        temp.setProperty("days.per.second",
+            String.valueOf(Setting.DAYS_PER_SECOND));
+        temp.setProperty("shape.limit", String.valueOf(Setting.SHAPE_LIMIT));
+        temp.setProperty("seed", "");
+
+        temp.setProperty("herbivore.percent", String.valueOf(
+            Setting.SPAWN_VALUE - Setting.HERBIVORE_VALUE));
+        temp.setProperty("plant.percent", String.valueOf(
+            Setting.HERBIVORE_VALUE - Setting.PLANT_VALUE));
+        temp.setProperty("carnivore.percent", String.valueOf(
+            Setting.PLANT_VALUE - Setting.CARNIVORE_VALUE));
+        temp.setProperty("omnivore.percent", String.valueOf(
+            Setting.CARNIVORE_VALUE - Setting.OMNIVORE_VALUE));
+
+        for (byte id = 1; id < Species.COUNT; id++)
+            temp.setProperty(SPECIES[id] + ".maxhp",
+                String.valueOf(Species.of(id).maxHP()));
+
+        return temp;
+    }
+
+}
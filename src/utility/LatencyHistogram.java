@@ -0,0 +1,179 @@
+package utility;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed relative precision, in
+ * the manner of HdrHistogram. Values below {@value #SUB_BUCKETS} are counted
+ * exactly; above, every power of two is split into
+ * {@value #HALF} linear sub-buckets, so a value is reported within 1/64 of
+ * itself whatever its magnitude. Recording is a shift and an increment and
+ * never allocates.
+ * <p>
+ * A LatencyHistogram is written by one thread only. Other threads may read
+ * it while it is written and see counts that are slightly behind.
+ *
+ * @author Scott Lai
+ */
+public final class LatencyHistogram {
+
+    /** Number of sub-buckets of the first bucket, counted exactly. */
+    private static final int SUB_BUCKETS = 128;
+
+    /** Number of sub-buckets of every following bucket. */
+    private static final int HALF = SUB_BUCKETS / 2;
+
+    /** Number of leading zeros of the largest value of the first bucket. */
+    private static final int FIRST_ZEROS = Long.numberOfLeadingZeros(
+        SUB_BUCKETS - 1);
+
+    /** Number of values recorded in each sub-bucket. */
+    private final long[] counts = new long[index(Long.MAX_VALUE) + 1];
+
+    /** Number of values recorded. */
+    private long count;
+
+    /** Sum of the values recorded. */
+    private long total;
+
+    /** Largest value recorded. */
+    private long max;
+
+    /**
+     * Constructs an empty LatencyHistogram.
+     */
+    public LatencyHistogram() {}
+
+    /**
+     * Records the specified latency.
+     *
+     * @param nanos {@code long} the latency; a negative one counts as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+
+        counts[index(nanos)]++;
+        count++;
+        total += nanos;
+
+        if (nanos > max)
+            max = nanos;
+    }
+
+    /**
+     * Adds every value recorded in the specified histogram to this one.
+     *
+     * @param other {@code LatencyHistogram} the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] += other.counts[i];
+
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Forgets every value recorded.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return {@code long} number of values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the values recorded.
+     *
+     * @return {@code long} the sum in nanoseconds
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return {@code long} the largest value in nanoseconds; 0 if none
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return {@code double} the mean in nanoseconds; 0 if none
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns the value below which the specified percentage of the values
+     * recorded fall, as the highest value of its sub-bucket.
+     *
+     * @param percentile {@code double} the percentage, from 0 to 100
+     *
+     * @return {@code long} the value in nanoseconds; 0 if none
+     */
+    public long valueAt(double percentile) {
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1,
+            (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank)
+                return Math.min(highest(i), max);
+        }
+
+        return max;
+    }
+
+    /**
+     * Helper method to return the sub-bucket of the specified value.
+     *
+     * @param value {@code long} a non-negative value
+     *
+     * @return {@code int} index into the counts
+     */
+    private static int index(long value) {
+        int shift = Math.max(0, FIRST_ZEROS - Long.numberOfLeadingZeros(value));
+
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * Helper method to return the highest value of the specified sub-bucket.
+     *
+     * @param index {@code int} index into the counts
+     *
+     * @return {@code long} the highest value
+     */
+    private static long highest(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int shift = index / HALF - 1;
+
+        return ((long) (index - shift * HALF) + 1 << shift) - 1;
+    }
+
+}
@@ -0,0 +1,160 @@
+package utility;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from {@code long} keys to non-negative {@code int} values that
+ * stores both in primitive arrays, using open addressing with linear probing.
+ * It neither boxes keys nor allocates per entry.
+ *
+ * @author Scott Lai
+ */
+public final class LongIntHashMap {
+
+    /** Value of a free slot, also returned for a missing key. */
+    public static final int MISSING = -1;
+
+    /** Keys of the slots. */
+    private long[] keys;
+
+    /** Values of the slots; {@link #MISSING} if the slot is free. */
+    private int[] values;
+
+    /** Number of entries. */
+    private int size;
+
+    /**
+     * Constructs an empty LongIntHashMap.
+     */
+    public LongIntHashMap() {
+        keys = new long[16];
+        values = new int[16];
+
+        Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * Returns the value of the specified key.
+     *
+     * @param key {@code long} the key
+     *
+     * @return {@code int} the value; {@link #MISSING} if there is none
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+
+        for (int i = slot(key, mask); values[i] != MISSING; i = (i + 1) & mask)
+            if (keys[i] == key)
+                return values[i];
+
+        return MISSING;
+    }
+
+    /**
+     * Associates the specified value with the specified key.
+     *
+     * @param key {@code long} the key
+     * @param value {@code int} the value, not negative
+     */
+    public void put(long key, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Negative value");
+
+        if ((size + 1) * 2 > keys.length)
+            resize(keys.length * 2);
+
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * Removes the specified key, shifting back the entries that probed past
+     * it so that no tombstone is left.
+     *
+     * @param key {@code long} the key
+     *
+     * @return {@code int} the removed value; {@link #MISSING} if there was none
+     */
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+
+        while (values[i] != MISSING && keys[i] != key)
+            i = (i + 1) & mask;
+
+        int removed = values[i];
+
+        if (removed == MISSING)
+            return MISSING;
+
+        for (int j = (i + 1) & mask; values[j] != MISSING; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+
+            // Move the entry back if the hole lies between its home and it
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+
+        values[i] = MISSING;
+        size--;
+
+        return removed;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return {@code int} number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Helper method to grow the table and rehash every entry.
+     *
+     * @param capacity {@code int} new number of slots, a power of 2
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldValues[i] != MISSING)
+                put(oldKeys[i], oldValues[i]);
+    }
+
+    /**
+     * Helper method to return the home slot of the specified key.
+     *
+     * @param key {@code long} the key
+     * @param mask {@code int} number of slots minus 1
+     *
+     * @return {@code int} the home slot
+     */
+    private static int slot(long key, int mask) {
+        return (int) SplitMixRandom.mix64(key) & mask;
+    }
+
+}
@@ -289,7 +289,16 @@ public final class RandomGenerator {
      * @return a random {@code int} in the range {@code [0, max)}
      */
     public static int next(final int max) {
-        return Math.abs(NUMBERS[(next++) % NUMBERS.length]) % max;
+        return Math.abs(number(next++)) % max;
+    }
+
+    /**
+     * Returns the number at the specified position of the sequence.
+     * @param index {@code int} position in the sequence, wrapped around
+     * @return the number at the position
+     */
+    static int number(final int index) {
+        return NUMBERS[Integer.remainderUnsigned(index, NUMBERS.length)];
     }
 
 }
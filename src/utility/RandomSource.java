@@ -0,0 +1,41 @@
+package utility;
+
+/**
+ * Source of pseudorandom integers used by a World. A RandomSource belongs to
+ * one thread at a time; {@link #split()} derives an independent source for
+ * another region or thread.
+ *
+ * @author Scott Lai
+ */
+public interface RandomSource {
+
+    /**
+     * Generates a random integer in the range {@code [0, max)}, i.e. from 
+     * {@code 0} to {@code max - 1}.
+     * 
+     * @param max {@code int} upper bound, positive
+     * 
+     * @return a random {@code int} in the range {@code [0, max)}
+     */
+    int next(int max);
+
+    /**
+     * Returns a new RandomSource whose sequence is derived from, but does not
+     * overlap with, the sequence of this one. Splitting advances this source.
+     * 
+     * @return {@code RandomSource} a new RandomSource
+     */
+    RandomSource split();
+
+    /**
+     * Returns a seeded RandomSource with a long period and unbiased bounds.
+     * 
+     * @param seed {@code long} the seed
+     * 
+     * @return {@code RandomSource} a new RandomSource
+     */
+    static RandomSource of(long seed) {
+        return new SplitMixRandom(seed);
+    }
+
+}
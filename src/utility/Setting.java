@@ -75,6 +75,12 @@ public class Setting {
     /** Number of columns in each row of hex cells. */
     public static final int HEX_COLUMN = WINDOW_WIDTH / (int) HEX_WIDTH - 2;
 
+    /** Target number of days simulated per second while running. */
+    public static final double DAYS_PER_SECOND = 10;
+
+    /** Largest number of Cells displayed with one Shape each. */
+    public static final int SHAPE_LIMIT = 10000;
+
     /**
      * Ensures that a Setting Object cannot be created.
      */
@@ -0,0 +1,141 @@
+package utility;
+
+/**
+ * Seedable and splittable RandomSource based on the SplitMix64 generator. It
+ * has a period of 2<sup>64</sup>, and bounded draws use Lemire's
+ * multiply-and-reject method so that no value in the range is favoured.
+ *
+ * @author Scott Lai
+ */
+public final class SplitMixRandom implements RandomSource {
+
+    /** Default increment of the state, the golden ratio in fixed point. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Current state. */
+    private long state;
+
+    /** Increment of the state, always odd. */
+    private final long gamma;
+
+    /**
+     * Constructs a SplitMixRandom with the specified seed.
+     * 
+     * @param seed {@code long} the seed
+     */
+    public SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Constructs a SplitMixRandom with the specified state and increment.
+     * 
+     * @param state {@code long} the state
+     * @param gamma {@code long} the increment, forced to be odd
+     */
+    public SplitMixRandom(long state, long gamma) {
+        this.state = state;
+        this.gamma = gamma | 1L;
+    }
+
+    @Override
+    public int next(int max) {
+        if (max <= 0)
+            throw new IllegalArgumentException("Invalid bound");
+
+        long product = (nextLong() >>> 32) * max;
+        long low = product & 0xFFFFFFFFL;
+
+        if (low < max) {
+            long threshold = (0x100000000L - max) % max;
+
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * max;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+
+        return (int) (product >>> 32);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplitMixRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Returns the current state of this generator.
+     * 
+     * @return {@code long} the state
+     */
+    public long state() {
+        return state;
+    }
+
+    /**
+     * Sets the current state of this generator, e.g. to restore it or to
+     * derive a sequence from a hash without allocating a new generator.
+     * 
+     * @param state {@code long} the state
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * Returns the increment of this generator.
+     * 
+     * @return {@code long} the increment
+     */
+    public long gamma() {
+        return gamma;
+    }
+
+    /**
+     * Generates the next random {@code long}.
+     * 
+     * @return a random {@code long}
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Helper method to advance the state.
+     * 
+     * @return {@code long} the new state
+     */
+    private long nextSeed() {
+        return state += gamma;
+    }
+
+    /**
+     * Scrambles the bits of the specified value, e.g. to hash a seed with a
+     * position.
+     * 
+     * @param z {@code long} the value
+     * 
+     * @return {@code long} the scrambled value
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Helper method to derive the odd increment of a split generator.
+     * 
+     * @param z {@code long} a fresh state
+     * 
+     * @return {@code long} the increment
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+
+        return Long.bitCount(z ^ (z >>> 1)) < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+
+}
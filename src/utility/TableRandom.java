@@ -0,0 +1,57 @@
+package utility;
+
+/**
+ * RandomSource that reproduces the predefined sequence of 
+ * {@link RandomGenerator}, for regression tests against the original
+ * behaviour. The sequence repeats every 256 draws and bounds are slightly
+ * biased, so it is not meant for large worlds.
+ *
+ * @author Scott Lai
+ */
+public final class TableRandom implements RandomSource {
+
+    /** Index for the random number inside the table. */
+    private int next;
+
+    /**
+     * Constructs a TableRandom at the start of the sequence.
+     */
+    public TableRandom() {
+        this(0);
+    }
+
+    /**
+     * Constructs a TableRandom at the specified position of the sequence.
+     * 
+     * @param next {@code int} index of the next number in the sequence
+     */
+    public TableRandom(int next) {
+        this.next = next;
+    }
+
+    @Override
+    public int next(int max) {
+        return Math.abs(RandomGenerator.number(next++)) % max;
+    }
+
+    /**
+     * Returns a TableRandom at the start of the sequence, the way the
+     * original World reset the RandomGenerator.
+     * 
+     * @return {@code RandomSource} a TableRandom at the start of the sequence
+     */
+    @Override
+    public RandomSource split() {
+        return new TableRandom();
+    }
+
+    /**
+     * Returns the index of the next number in the sequence.
+     * 
+     * @return {@code int} index of the next number
+     */
+    public int position() {
+        return next;
+    }
+
+}
@@ -0,0 +1,204 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class to record what changed in a World during one day, so that a
+ * renderer, a recorder or a statistics collector costs time in proportion to
+ * the changes instead of the number of Cells. Attach it with
+ * {@link World#setChangeLog}; a World without one records nothing.
+ * <p>
+ * Every change is a record of primitive fields kept in a reusable
+ * {@code int} array: its kind, the species involved, the Cell it happened on
+ * and, for a move or an eat, the Cell the LifeForm came from. The records of
+ * a day are readable from the end of that day until the next day begins, in
+ * the order they happened, except that records made concurrently on Cells
+ * far apart are in no particular order. A day simulated synchronously
+ * reports every Cell whose species changed as a death followed by a birth.
+ *
+ * @author Scott Lai
+ */
+public final class ChangeLog {
+
+    /** Kind of a record of a LifeForm spawned on an empty Cell. */
+    public static final int BIRTH = 0;
+
+    /** Kind of a record of a LifeForm that starved. */
+    public static final int DEATH = 1;
+
+    /** Kind of a record of a LifeForm that moved to an empty Cell. */
+    public static final int MOVE = 2;
+
+    /** Kind of a record of a LifeForm eaten by the LifeForm of another Cell. */
+    public static final int EAT = 3;
+
+    /** Number of {@code int} fields of a record. */
+    private static final int WIDTH = 3;
+
+    /** Records of the day, {@link #WIDTH} fields each. */
+    private int[] records = new int[WIDTH * 256];
+
+    /** Number of records of the day. */
+    private int size;
+
+    /** Day of the records. */
+    private int day;
+
+    /** Records not merged yet, one lane per thread. */
+    private final ThreadLocal<Lane> local = ThreadLocal.withInitial(this::lane);
+
+    /** Lanes of every thread that has recorded a change. */
+    private final List<Lane> lanes = new ArrayList<>();
+
+    /**
+     * Constructs an empty ChangeLog, to attach to a World with
+     * {@link World#setChangeLog(ChangeLog)}.
+     */
+    public ChangeLog() {}
+
+    /**
+     * Returns the number of records of the day.
+     *
+     * @return {@code int} number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the day of the records.
+     *
+     * @return {@code int} day of the World
+     */
+    public int day() {
+        return day;
+    }
+
+    /**
+     * Returns the kind of the specified record.
+     *
+     * @param record {@code int} index of the record
+     *
+     * @return {@code int} {@link #BIRTH}, {@link #DEATH}, {@link #MOVE} or
+     * {@link #EAT}
+     */
+    public int kind(int record) {
+        return records[record * WIDTH] >>> 8;
+    }
+
+    /**
+     * Returns the species of the LifeForm born, dead, moved or eaten.
+     *
+     * @param record {@code int} index of the record
+     *
+     * @return {@code byte} species id
+     */
+    public byte species(int record) {
+        return (byte) records[record * WIDTH];
+    }
+
+    /**
+     * Returns the Cell the specified record happened on: the destination of
+     * a move, or the Cell of the LifeForm eaten.
+     *
+     * @param record {@code int} index of the record
+     *
+     * @return {@code int} index of the Cell
+     */
+    public int cell(int record) {
+        return records[record * WIDTH + 1];
+    }
+
+    /**
+     * Returns the Cell a moving or eating LifeForm came from.
+     *
+     * @param record {@code int} index of the record
+     *
+     * @return {@code int} index of the Cell; {@code -1} for a birth or a
+     * death
+     */
+    public int from(int record) {
+        return records[record * WIDTH + 2];
+    }
+
+    /**
+     * Discards the records of the previous day.
+     *
+     * @param day {@code int} the day that begins
+     */
+    void begin(int day) {
+        this.day = day;
+        size = 0;
+    }
+
+    /**
+     * Records a change made by the current thread.
+     *
+     * @param kind {@code int} kind of the change
+     * @param species {@code byte} species involved
+     * @param cell {@code int} Cell the change happened on
+     * @param from {@code int} Cell the LifeForm came from; {@code -1} if none
+     */
+    void record(int kind, byte species, int cell, int from) {
+        Lane lane = local.get();
+
+        if (lane.size + WIDTH > lane.records.length)
+            lane.records = Arrays.copyOf(lane.records, lane.records.length * 2);
+
+        lane.records[lane.size] = kind << 8 | species & 0xff;
+        lane.records[lane.size + 1] = cell;
+        lane.records[lane.size + 2] = from;
+        lane.size += WIDTH;
+    }
+
+    /**
+     * Appends the records of every lane to the records of the day. Called
+     * once no thread is recording, e.g. between the phases of a parallel
+     * day.
+     */
+    synchronized void seal() {
+        for (Lane lane : lanes) {
+            if (lane.size == 0)
+                continue;
+
+            if (size * WIDTH + lane.size > records.length)
+                records = Arrays.copyOf(records,
+                    Math.max(records.length * 2, size * WIDTH + lane.size));
+
+            System.arraycopy(lane.records, 0, records, size * WIDTH,
+                lane.size);
+
+            size += lane.size / WIDTH;
+            lane.size = 0;
+        }
+    }
+
+    /**
+     * Helper method to create and register the lane of a thread.
+     *
+     * @return {@code Lane} the new lane
+     */
+    private synchronized Lane lane() {
+        Lane lane = new Lane();
+
+        lanes.add(lane);
+
+        return lane;
+    }
+
+    /**
+     * Records of one thread that are not merged yet.
+     */
+    private static final class Lane {
+
+        /** Records of the lane, {@link #WIDTH} fields each. */
+        private int[] records = new int[WIDTH * 64];
+
+        /** Number of {@code int} fields used. */
+        private int size;
+
+    }
+
+}
@@ -0,0 +1,523 @@
+package world;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import cell.CellFactory;
+import cell.Hex;
+import organism.Species;
+import utility.Config;
+import utility.RandomSource;
+import utility.SplitMixRandom;
+import utility.TableRandom;
+
+/**
+ * Class to save a World to a binary file and to load it back, so that a long
+ * run can be resumed from its last checkpoint. The body of the file is read
+ * and written through memory-mapped windows of a {@link FileChannel}.
+ * <p>
+ * The file starts with a header of {@value #HEADER} bytes:
+ * <pre>
+ * int   magic "GOLW"         short version        short flags
+ * byte  shape (0 square, 1 hex)                   byte  random source kind
+ * byte  bytes per hp         byte  unused
+ * int   rows                 int   columns        int   day
+ * long  random state         long  random gamma
+ * long  bytes of species     long  bytes of hp
+ * byte  unused [8]
+ * int   maxhp of the Plant, the Herbivore, the Carnivore and the Omnivore
+ * </pre>
+ * followed by the species of every Cell, either packed two per byte or, if
+ * {@link #RLE} is set, as runs of a varint length and a species id; and then
+ * the hp of every occupied Cell in order, in 1, 2 or 4 bytes each.
+ * <p>
+ * The maximum hp of each species is all of the {@link Config} a running
+ * World depends on. Version 1 had a header of {@value #HEADER_V1} bytes,
+ * without it, and loads with the maximum hp of the default Config.
+ *
+ * @author Scott Lai
+ */
+public final class Checkpoint {
+
+    /** Magic number that starts a checkpoint, "GOLW". */
+    private static final int MAGIC = 0x474F4C57;
+
+    /** Version of the format written. */
+    private static final short VERSION = 2;
+
+    /** Number of bytes of the header. */
+    private static final int HEADER = 80;
+
+    /** Number of bytes of the header of version 1. */
+    private static final int HEADER_V1 = 64;
+
+    /** Flag of a species plane compressed as runs. */
+    private static final int RLE = 1;
+
+    /** Flag of a World whose edges wrap around. */
+    private static final int TORUS = 2;
+
+    /** Kind of a {@link TableRandom}. */
+    private static final byte TABLE = 0;
+
+    /** Kind of a {@link SplitMixRandom}. */
+    private static final byte SPLIT_MIX = 1;
+
+    /** Number of bytes mapped at a time. */
+    private static final long WINDOW = 1 << 28;
+
+    /**
+     * Ensures that a Checkpoint Object cannot be created.
+     */
+    private Checkpoint() {}
+
+    /**
+     * Saves the specified World to the specified file, replacing it.
+     *
+     * @param world {@code World} the World to save
+     * @param path {@code Path} the file
+     * @param compress {@code boolean} {@code true} to compress the species as
+     * runs, which suits sparse Worlds
+     *
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the random source of the World
+     * cannot be saved
+     */
+    public static void save(World world, Path path, boolean compress)
+        throws IOException {
+
+        byte[] species = world.species;
+        int[] hp = world.hp;
+
+        RandomSource random = world.random();
+        byte kind;
+        long state;
+        long gamma = 0;
+
+        if (random instanceof SplitMixRandom) {
+            kind = SPLIT_MIX;
+            state = ((SplitMixRandom) random).state();
+            gamma = ((SplitMixRandom) random).gamma();
+        } else if (random instanceof TableRandom) {
+            kind = TABLE;
+            state = ((TableRandom) random).position();
+        } else {
+            throw new IllegalArgumentException("Random source cannot be saved");
+        }
+
+        int occupied = 0;
+        int maxHP = 0;
+        boolean negative = false;
+
+        for (int i = 0; i < species.length; i++) {
+            if (species[i] != Species.EMPTY) {
+                occupied++;
+                maxHP = Math.max(maxHP, hp[i]);
+                negative |= hp[i] < 0;
+            }
+        }
+
+        // A negative hp needs all 4 bytes to keep its sign
+        int hpWidth = negative ? 4 : maxHP <= 0xff ? 1
+            : maxHP <= 0xffff ? 2 : 4;
+        long speciesBytes = compress ? runBytes(species)
+            : (species.length + 1) / 2;
+        long hpBytes = (long) occupied * hpWidth;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) ((compress ? RLE : 0)
+            | (world.wraps() ? TORUS : 0)));
+        header.put((byte) (world.cell() instanceof Hex ? 1 : 0));
+        header.put(kind);
+        header.put((byte) hpWidth);
+        header.put((byte) 0);
+        header.putInt(world.rows());
+        header.putInt(world.columns());
+        header.putInt(world.day());
+        header.putLong(state);
+        header.putLong(gamma);
+        header.putLong(speciesBytes);
+        header.putLong(hpBytes);
+        header.position(HEADER_V1);
+
+        for (byte id = Species.PLANT; id < Species.COUNT; id++)
+            header.putInt(world.config.maxHP(id));
+
+        header.rewind();
+
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            while (header.hasRemaining())
+                channel.write(header, header.position());
+
+            Mapped out = new Mapped(channel, FileChannel.MapMode.READ_WRITE,
+                HEADER, HEADER + speciesBytes + hpBytes);
+
+            if (compress)
+                writeRuns(out, species);
+            else
+                for (int i = 0; i < species.length; i += 2)
+                    out.put((byte) (species[i]
+                        | (i + 1 < species.length ? species[i + 1] << 4 : 0)));
+
+            for (int i = 0; i < species.length; i++)
+                if (species[i] != Species.EMPTY)
+                    for (int b = 0; b < hpWidth; b++)
+                        out.put((byte) (hp[i] >>> (8 * b)));
+        }
+    }
+
+    /**
+     * Loads a World from the specified file, with the default configuration
+     * apart from what was saved.
+     *
+     * @param path {@code Path} the file
+     *
+     * @return {@code World} the World, on the day it was saved
+     *
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     * of a supported version
+     */
+    public static World load(Path path) throws IOException {
+        return load(path, Config.DEFAULT);
+    }
+
+    /**
+     * Loads a World from the specified file, with the specified
+     * configuration apart from the maximum hp of each species saved in the
+     * file.
+     *
+     * @param path {@code Path} the file
+     * @param config {@code Config} configuration of what was not saved
+     *
+     * @return {@code World} the World, on the day it was saved
+     *
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     * of a supported version
+     */
+    public static World load(Path path, Config config) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.READ)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+
+            header.limit(HEADER_V1);
+
+            while (header.hasRemaining())
+                if (channel.read(header, header.position()) < 0)
+                    throw new IOException("Truncated checkpoint");
+
+            header.flip();
+
+            if (header.getInt() != MAGIC)
+                throw new IOException("Not a checkpoint");
+
+            short version = header.getShort();
+
+            if (version != VERSION && version != 1)
+                throw new IOException("Unsupported checkpoint version "
+                    + version);
+
+            int flags = header.getShort();
+            String mode = header.get() == 1 ? "HEX" : "SQUARE";
+            byte kind = header.get();
+            int hpWidth = header.get();
+            header.get();
+            int rows = header.getInt();
+            int columns = header.getInt();
+            int day = header.getInt();
+            RandomSource random = getRandom(kind, header.getLong(),
+                header.getLong());
+            long speciesBytes = header.getLong();
+            long hpBytes = header.getLong();
+            int start = version == 1 ? HEADER_V1 : HEADER;
+
+            if (version != 1) {
+                header.limit(HEADER);
+                header.position(HEADER_V1);
+
+                while (header.hasRemaining())
+                    if (channel.read(header, header.position()) < 0)
+                        throw new IOException("Truncated checkpoint");
+
+                header.position(HEADER_V1);
+
+                for (byte id = Species.PLANT; id < Species.COUNT; id++)
+                    config = config.withMaxHP(id, header.getInt());
+            } else {
+                for (byte id = Species.PLANT; id < Species.COUNT; id++)
+                    config = config.withMaxHP(id, Config.DEFAULT.maxHP(id));
+            }
+
+            if (channel.size() < start + speciesBytes + hpBytes)
+                throw new IOException("Truncated checkpoint");
+
+            World world = new World(new CellFactory(mode, rows, columns,
+                (flags & TORUS) != 0), random, config, false);
+
+            byte[] species = world.species;
+            int[] hp = world.hp;
+
+            Mapped in = new Mapped(channel, FileChannel.MapMode.READ_ONLY,
+                start, start + speciesBytes + hpBytes);
+
+            if ((flags & RLE) != 0) {
+                readRuns(in, species);
+            } else {
+                for (int i = 0; i < species.length; i += 2) {
+                    byte pair = in.get();
+
+                    species[i] = (byte) (pair & 0xf);
+
+                    if (i + 1 < species.length)
+                        species[i + 1] = (byte) (pair >>> 4 & 0xf);
+                }
+            }
+
+            for (byte id : species)
+                if (id < 0 || id >= Species.COUNT)
+                    throw new IOException("Corrupt checkpoint");
+
+            for (int i = 0; i < species.length; i++) {
+                if (species[i] == Species.EMPTY)
+                    continue;
+
+                int value = 0;
+
+                for (int b = 0; b < hpWidth; b++)
+                    value |= (in.get() & 0xff) << (8 * b);
+
+                hp[i] = value;
+            }
+
+            world.restore(day);
+
+            return world;
+        }
+    }
+
+    /**
+     * Helper method to recreate a saved random source.
+     *
+     * @param kind {@code byte} kind of the random source
+     * @param state {@code long} its state or position
+     * @param gamma {@code long} its gamma, if any
+     *
+     * @return {@code RandomSource} the random source
+     *
+     * @throws IOException if the kind is unknown
+     */
+    private static RandomSource getRandom(byte kind, long state, long gamma)
+        throws IOException {
+
+        if (kind == SPLIT_MIX)
+            return new SplitMixRandom(state, gamma);
+        else if (kind == TABLE)
+            return new TableRandom((int) state);
+
+        throw new IOException("Unknown random source " + kind);
+    }
+
+    /**
+     * Helper method to return the number of bytes of the species as runs.
+     *
+     * @param species {@code byte[]} species of every Cell
+     *
+     * @return {@code long} number of bytes
+     */
+    private static long runBytes(byte[] species) {
+        long bytes = 0;
+
+        for (int i = 0; i < species.length; ) {
+            int start = i;
+
+            while (i < species.length && species[i] == species[start])
+                i++;
+
+            bytes += varintBytes(i - start) + 1;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Helper method to write the species as runs.
+     *
+     * @param out {@code Mapped} the output
+     * @param species {@code byte[]} species of every Cell
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeRuns(Mapped out, byte[] species)
+        throws IOException {
+        for (int i = 0; i < species.length; ) {
+            int start = i;
+
+            while (i < species.length && species[i] == species[start])
+                i++;
+
+            for (int run = i - start; ; run >>>= 7) {
+                if (run < 0x80) {
+                    out.put((byte) run);
+                    break;
+                }
+
+                out.put((byte) (run & 0x7f | 0x80));
+            }
+
+            out.put(species[start]);
+        }
+    }
+
+    /**
+     * Helper method to read the species written as runs.
+     *
+     * @param in {@code Mapped} the input
+     * @param species {@code byte[]} species of every Cell to fill
+     *
+     * @throws IOException if the file cannot be read or a run goes past the
+     * last Cell
+     */
+    private static void readRuns(Mapped in, byte[] species)
+        throws IOException {
+
+        for (int i = 0; i < species.length; ) {
+            int run = 0;
+
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.get();
+
+                run |= (b & 0x7f) << shift;
+
+                if (b >= 0)
+                    break;
+            }
+
+            if (run > species.length - i)
+                throw new IOException("Corrupt checkpoint");
+
+            byte id = in.get();
+
+            for (int end = i + run; i < end; i++)
+                species[i] = id;
+        }
+    }
+
+    /**
+     * Helper method to return the number of bytes of a varint.
+     *
+     * @param value {@code int} a non-negative value
+     *
+     * @return {@code int} number of bytes
+     */
+    private static int varintBytes(int value) {
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    /**
+     * Byte stream over a region of a file, mapped one window at a time so
+     * that regions larger than a MappedByteBuffer can hold are supported.
+     */
+    private static final class Mapped {
+
+        /** The file. */
+        private final FileChannel channel;
+
+        /** Mode of the mapping. */
+        private final FileChannel.MapMode mode;
+
+        /** End of the region, exclusive. */
+        private final long end;
+
+        /** Position in the file of the current window. */
+        private long base;
+
+        /** Current window. */
+        private MappedByteBuffer buffer;
+
+        /**
+         * Constructs a stream over the specified region of a file.
+         *
+         * @param channel {@code FileChannel} the file
+         * @param mode {@code FileChannel.MapMode} mode of the mapping
+         * @param start {@code long} start of the region, inclusive
+         * @param end {@code long} end of the region, exclusive
+         *
+         * @throws IOException if the file cannot be mapped
+         */
+        Mapped(FileChannel channel, FileChannel.MapMode mode, long start,
+            long end) throws IOException {
+
+            this.channel = channel;
+            this.mode = mode;
+            this.end = end;
+
+            map(start);
+        }
+
+        /**
+         * Returns the next byte.
+         *
+         * @return {@code byte} the byte
+         *
+         * @throws IOException if the region ends or cannot be mapped
+         */
+        byte get() throws IOException {
+            if (!buffer.hasRemaining())
+                next();
+
+            return buffer.get();
+        }
+
+        /**
+         * Writes the next byte.
+         *
+         * @param value {@code byte} the byte
+         *
+         * @throws IOException if the region ends or cannot be mapped
+         */
+        void put(byte value) throws IOException {
+            if (!buffer.hasRemaining())
+                next();
+
+            buffer.put(value);
+        }
+
+        /**
+         * Helper method to map the window after the current one.
+         *
+         * @throws IOException if the region ends or cannot be mapped
+         */
+        private void next() throws IOException {
+            long start = base + buffer.capacity();
+
+            if (start >= end)
+                throw new IOException("Corrupt checkpoint");
+
+            map(start);
+        }
+
+        /**
+         * Helper method to map the window at the specified position.
+         *
+         * @param start {@code long} position of the window in the file
+         *
+         * @throws IOException if the file cannot be mapped
+         */
+        private void map(long start) throws IOException {
+            base = start;
+            buffer = channel.map(mode, start, Math.min(WINDOW, end - start));
+        }
+
+    }
+
+}
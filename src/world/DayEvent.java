@@ -0,0 +1,58 @@
+package world;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event of a day simulated, with the time the LifeForms of
+ * the day spent in each phase of their turns, summed over every thread.
+ * Emitted by the {@link Profiler}.
+ *
+ * @author Scott Lai
+ */
+@Name("gameoflife.Day")
+@Label("Day")
+@Category("Game Of Life")
+@Description("A day simulated in a World")
+@StackTrace(false)
+final class DayEvent extends jdk.jfr.Event {
+
+    /** Day simulated. */
+    @Label("Day")
+    int day;
+
+    /** Number of turns taken. */
+    @Label("Turns")
+    long turns;
+
+    /** Time spent looking for LifeForms to take their turns. */
+    @Label("Scan")
+    @Timespan
+    long scan;
+
+    /** Time spent classifying the neighbourhoods. */
+    @Label("Classify")
+    @Timespan
+    long classify;
+
+    /** Time spent breeding. */
+    @Label("Breed")
+    @Timespan
+    long breed;
+
+    /** Time spent moving and eating. */
+    @Label("Move")
+    @Timespan
+    long move;
+
+    /** {@link System#nanoTime()} when the day began. */
+    transient long start;
+
+    /** Totals of every phase when the day began. */
+    transient long[] mark;
+
+}
@@ -0,0 +1,111 @@
+package world;
+
+import organism.LifeForm;
+
+/**
+ * Interface of the Cells a LifeForm lives on. A Habitat identifies each of
+ * its Cells by an {@code int} index and is what {@code LifeForm.takeTurn}
+ * reads and changes, so the same rules run on a bounded {@link World} and on
+ * an unbounded {@link SparseWorld}.
+ *
+ * @author Scott Lai
+ */
+public interface Habitat {
+
+    /**
+     * Classifies the Cells adjacent to the specified Cell in a single pass as
+     * empty, holding food for the specified Cell's LifeForm, or holding a
+     * LifeForm it can breed with, and stores them in the specified 
+     * Neighbourhood.
+     *
+     * @param cell {@code int} index of the Cell to find adjacent Cells
+     * @param adjacent {@code Neighbourhood} buffers to fill
+     */
+    void classify(int cell, Neighbourhood adjacent);
+
+    /**
+     * Counts the Cells adjacent to the specified Cell the way
+     * {@link #classify(int, Neighbourhood)} classifies them, and stores the
+     * counts in the specified Neighbourhood. A Habitat that cannot count
+     * faster than it classifies classifies instead; see
+     * {@link Neighbourhood#listed()}.
+     *
+     * @param cell {@code int} index of the Cell to count adjacent Cells
+     * @param adjacent {@code Neighbourhood} buffers to fill
+     */
+    void count(int cell, Neighbourhood adjacent);
+
+    /**
+     * Returns the LifeForm that is occupying the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code LifeForm} the LifeForm on the Cell; {@code null} if the
+     * Cell is empty
+     */
+    LifeForm occupant(int cell);
+
+    /**
+     * Returns the number of turns a LifeForm of the specified species
+     * survives without eating in this Habitat.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code int} the maximum hp
+     */
+    int maxHP(byte species);
+
+    /**
+     * Returns the hp of the LifeForm on the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code int} number of turns left before the LifeForm dies
+     */
+    int hp(int cell);
+
+    /**
+     * Sets the hp of the LifeForm on the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param value {@code int} number of turns left before the LifeForm dies
+     */
+    void setHP(int cell, int value);
+
+    /**
+     * Spawns the specified LifeForm with full hp on the specified Cell. The
+     * new born does not act until the next day.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param newLife {@code LifeForm} LifeForm to occupy the Cell
+     */
+    void setOccupant(int cell, LifeForm newLife);
+
+    /**
+     * Kills the LifeForm on the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     */
+    void kill(int cell);
+
+    /**
+     * Kills the LifeForm on the specified Cell, eaten by the LifeForm on the
+     * other Cell.
+     *
+     * @param eater {@code int} index of the Cell of the eating LifeForm
+     * @param food {@code int} index of the Cell of the LifeForm eaten
+     */
+    void eat(int eater, int food);
+
+    /**
+     * Moves the LifeForm on the specified Cell to the specified empty Cell.
+     *
+     * @param from {@code int} index of the Cell the LifeForm is living on
+     * @param to {@code int} index of the destination Cell
+     *
+     * @return {@code true} if the LifeForm moved; {@code false} if the
+     * destination is not empty
+     */
+    boolean move(int from, int to);
+
+}
@@ -0,0 +1,732 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import organism.Species;
+
+/**
+ * Class to represent an unbounded plane of Cells that follows a
+ * {@link LifeRule} with Gosper's HashLife, which advances a pattern
+ * {@code 2^k} generations at once instead of one Cell at a time.
+ * <p>
+ * The plane is a quadtree of square Nodes: a Node of level {@code n} covers
+ * {@code 2^n} by {@code 2^n} Cells and is made of four Nodes of level
+ * {@code n - 1}, down to the two leaves of level 0, a dead and a live Cell.
+ * Nodes are hash-consed, i.e. there is only one Node for each pattern, so a
+ * pattern that repeats in space is stored once. Each Node also remembers its
+ * centre {@code 2^(n - 2)} generations later, or fewer for a smaller step,
+ * so a pattern that repeats in time is computed once.
+ * <p>
+ * The table of Nodes grows with every new pattern. When it holds more than
+ * the limit given at construction, the next step first collects it, keeping
+ * the Nodes of the current plane and, if asked, the results they
+ * remember; a limit of 0 never collects. The Cells are addressed through a
+ * window of rows by columns whose top left Cell is at 0, 0 on the plane;
+ * Cells outside the window keep living and counting.
+ *
+ * @author Scott Lai
+ */
+public class HashLife implements LifeEngine {
+
+    /** Smallest level of the root, so that it always has grandchildren. */
+    private static final int MIN_LEVEL = 3;
+
+    /** Largest step, so that coordinates fit in a {@code long}. */
+    private static final int MAX_STEP = 48;
+
+    /** Initial number of buckets of the table. */
+    private static final int INITIAL_BUCKETS = 1 << 12;
+
+    /**
+     * Square of Cells of the quadtree. Leaves have no children.
+     */
+    private static final class Node {
+
+        /** North west quadrant. */
+        final Node nw;
+
+        /** North east quadrant. */
+        final Node ne;
+
+        /** South west quadrant. */
+        final Node sw;
+
+        /** South east quadrant. */
+        final Node se;
+
+        /** Base 2 logarithm of the width of this Node. */
+        final int level;
+
+        /** Number of live Cells. */
+        final long population;
+
+        /** Hash of the pattern of this Node. */
+        final int hash;
+
+        /** Next Node of the same bucket of the table. */
+        Node next;
+
+        /** Centre of this Node after {@code 2^resultLog} generations. */
+        Node result;
+
+        /** Base 2 logarithm of the generations of {@link #result}. */
+        int resultLog;
+
+        /** Number of the last collection that kept this Node. */
+        int mark;
+
+        /**
+         * Constructs a leaf.
+         *
+         * @param alive {@code boolean} {@code true} for a live Cell
+         */
+        Node(boolean alive) {
+            nw = ne = sw = se = null;
+            level = 0;
+            population = alive ? 1 : 0;
+            hash = alive ? 1 : 0;
+        }
+
+        /**
+         * Constructs a Node from its quadrants.
+         *
+         * @param nw {@code Node} north west quadrant
+         * @param ne {@code Node} north east quadrant
+         * @param sw {@code Node} south west quadrant
+         * @param se {@code Node} south east quadrant
+         * @param hash {@code int} hash of the quadrants
+         */
+        Node(Node nw, Node ne, Node sw, Node se, int hash) {
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.level = nw.level + 1;
+            this.population = nw.population + ne.population + sw.population
+                + se.population;
+            this.hash = hash;
+        }
+
+    }
+
+    /** Dead Cell. */
+    private static final Node DEAD = new Node(false);
+
+    /** Live Cell. */
+    private static final Node ALIVE = new Node(true);
+
+    /** Rule followed by the Cells. */
+    private final LifeRule rule;
+
+    /** Number of rows of the window. */
+    private final int rows;
+
+    /** Number of columns of the window. */
+    private final int columns;
+
+    /** Number of Nodes above which the table is collected; 0 for never. */
+    private final int maxNodes;
+
+    /** Whether a collection keeps the results of the Nodes it keeps. */
+    private final boolean keepResults;
+
+    /** Buckets of the table of Nodes. */
+    private Node[] buckets = new Node[INITIAL_BUCKETS];
+
+    /** Number of Nodes in the table. */
+    private int count;
+
+    /** Empty Node of each level, made on demand. */
+    private Node[] empty = new Node[MIN_LEVEL + 1];
+
+    /** Number of collections done. */
+    private int epoch;
+
+    /** Root of the quadtree. */
+    private Node root;
+
+    /** Column on the plane of the left edge of the root. */
+    private long originX;
+
+    /** Row on the plane of the top edge of the root. */
+    private long originY;
+
+    /** Number of generations computed. */
+    private long generation;
+
+    /** Base 2 logarithm of the number of generations of each step. */
+    private int stepLog;
+
+    /**
+     * Constructs an empty plane viewed through a window of the specified
+     * size.
+     *
+     * @param rows {@code int} number of rows of the window
+     * @param columns {@code int} number of columns of the window
+     * @param rule {@code LifeRule} rule followed by the Cells
+     * @param maxNodes {@code int} number of Nodes above which the table is
+     * collected; 0 to never collect
+     * @param keepResults {@code boolean} {@code true} if a collection keeps
+     * the results remembered by the Nodes it keeps
+     *
+     * @throws IllegalArgumentException if the rule gives birth with no live
+     * neighbours, which would fill the unbounded plane
+     */
+    public HashLife(int rows, int columns, LifeRule rule, int maxNodes,
+        boolean keepResults) {
+
+        if (rows <= 0 || columns <= 0)
+            throw new IllegalArgumentException("Invalid size");
+
+        if (rule.born(0))
+            throw new IllegalArgumentException("HashLife cannot run " + rule);
+
+        if (maxNodes < 0)
+            throw new IllegalArgumentException("Invalid node limit");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.rule = rule;
+        this.maxNodes = maxNodes;
+        this.keepResults = keepResults;
+
+        int level = MIN_LEVEL;
+
+        while ((1L << level) < Math.max(rows, columns))
+            level++;
+
+        root = empty(level);
+    }
+
+    @Override
+    public void step() {
+        if (maxNodes > 0 && count > maxNodes)
+            collect();
+
+        // The pattern must stay within the centre of the root, whose outside
+        // is dead, for the result to hold all of it
+        while (root.level < stepLog + 3
+            || centre(centre(root)).population != root.population)
+            expand();
+
+        long shift = 1L << (root.level - 2);
+
+        root = result(root, stepLog);
+        originX += shift;
+        originY += shift;
+        generation += 1L << stepLog;
+
+        while (root.level > MIN_LEVEL
+            && centre(root).population == root.population) {
+
+            shift = 1L << (root.level - 2);
+            root = centre(root);
+            originX += shift;
+            originY += shift;
+        }
+    }
+
+    @Override
+    public void setStep(int log2) {
+        if (log2 < 0 || log2 > MAX_STEP)
+            throw new IllegalArgumentException("Invalid step " + log2);
+
+        stepLog = log2;
+    }
+
+    @Override
+    public int maxStepLog() {
+        return MAX_STEP;
+    }
+
+    @Override
+    public int stepLog() {
+        return stepLog;
+    }
+
+    @Override
+    public boolean isAlive(int row, int column) {
+        long x = column - originX;
+        long y = row - originY;
+        long size = 1L << root.level;
+
+        if (x < 0 || y < 0 || x >= size || y >= size)
+            return false;
+
+        Node node = root;
+
+        while (node.level > 0) {
+            long half = 1L << (node.level - 1);
+            boolean east = x >= half;
+            boolean south = y >= half;
+
+            node = south ? (east ? node.se : node.sw)
+                : (east ? node.ne : node.nw);
+
+            if (east)
+                x -= half;
+
+            if (south)
+                y -= half;
+        }
+
+        return node == ALIVE;
+    }
+
+    @Override
+    public void set(int row, int column, boolean alive) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            throw new IndexOutOfBoundsException("Invalid cell " + row + ", "
+                + column);
+
+        while (column < originX || row < originY
+            || column >= originX + (1L << root.level)
+            || row >= originY + (1L << root.level))
+            expand();
+
+        root = set(root, column - originX, row - originY, alive);
+    }
+
+    /**
+     * Helper method to return the specified Node with one Cell changed.
+     *
+     * @param node {@code Node} the Node
+     * @param x {@code long} column of the Cell within the Node
+     * @param y {@code long} row of the Cell within the Node
+     * @param alive {@code boolean} {@code true} to make the Cell alive
+     *
+     * @return {@code Node} the changed Node
+     */
+    private Node set(Node node, long x, long y, boolean alive) {
+        if (node.level == 0)
+            return alive ? ALIVE : DEAD;
+
+        long half = 1L << (node.level - 1);
+
+        if (y < half) {
+            if (x < half)
+                return join(set(node.nw, x, y, alive), node.ne, node.sw,
+                    node.se);
+
+            return join(node.nw, set(node.ne, x - half, y, alive), node.sw,
+                node.se);
+        }
+
+        if (x < half)
+            return join(node.nw, node.ne, set(node.sw, x, y - half, alive),
+                node.se);
+
+        return join(node.nw, node.ne, node.sw,
+            set(node.se, x - half, y - half, alive));
+    }
+
+    /**
+     * Kills every Cell.
+     */
+    public void clear() {
+        root = empty(root.level);
+    }
+
+    @Override
+    public long population() {
+        return root.population;
+    }
+
+    @Override
+    public long generation() {
+        return generation;
+    }
+
+    @Override
+    public Snapshot snapshot(Snapshot reuse) {
+        Snapshot temp = reuse;
+        int size = rows * columns;
+
+        if (temp == null || temp.size() != size)
+            temp = new Snapshot(size);
+
+        Arrays.fill(temp.species, Species.EMPTY);
+        fill(temp.species, root, originX, originY);
+        temp.day = (int) Math.min(generation, Integer.MAX_VALUE);
+
+        return temp;
+    }
+
+    /**
+     * Helper method to mark the live Cells of a Node that lie within the
+     * window.
+     *
+     * @param species {@code byte[]} species of the Cells of the window
+     * @param node {@code Node} the Node
+     * @param x {@code long} column on the plane of the left edge of the Node
+     * @param y {@code long} row on the plane of the top edge of the Node
+     */
+    private void fill(byte[] species, Node node, long x, long y) {
+        long size = 1L << node.level;
+
+        if (node.population == 0 || x >= columns || y >= rows || x + size <= 0
+            || y + size <= 0)
+            return;
+
+        if (node.level == 0) {
+            species[(int) y * columns + (int) x] = Species.PLANT;
+            return;
+        }
+
+        long half = size >> 1;
+
+        fill(species, node.nw, x, y);
+        fill(species, node.ne, x + half, y);
+        fill(species, node.sw, x, y + half);
+        fill(species, node.se, x + half, y + half);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public LifeRule rule() {
+        return rule;
+    }
+
+    /**
+     * Returns the number of Nodes in the table.
+     *
+     * @return {@code int} number of Nodes
+     */
+    public int nodes() {
+        return count;
+    }
+
+    /**
+     * Drops every Node of the table that is not part of the current plane,
+     * and the results they remember unless the results are kept.
+     */
+    public void collect() {
+        epoch++;
+
+        List<Node> kept = new ArrayList<>();
+
+        keep(root, kept);
+
+        for (Node node : empty)
+            if (node != null)
+                keep(node, kept);
+
+        int reachable = kept.size();
+
+        for (int i = 0; i < reachable; i++) {
+            Node node = kept.get(i);
+
+            if (keepResults && node.result != null)
+                keep(node.result, kept);
+            else
+                node.result = null;
+        }
+
+        // Results of the Nodes kept only as results are kept if still there
+        for (int i = reachable; i < kept.size(); i++) {
+            Node node = kept.get(i);
+
+            if (node.result != null && node.result.mark != epoch)
+                node.result = null;
+        }
+
+        int length = INITIAL_BUCKETS;
+
+        while (length < kept.size() * 2)
+            length <<= 1;
+
+        buckets = new Node[length];
+        count = 0;
+
+        for (Node node : kept)
+            insert(node);
+    }
+
+    /**
+     * Helper method to mark a Node and every Node under it as kept.
+     *
+     * @param node {@code Node} the Node
+     * @param kept {@code List<Node>} Nodes kept so far
+     */
+    private void keep(Node node, List<Node> kept) {
+        if (node.level == 0 || node.mark == epoch)
+            return;
+
+        node.mark = epoch;
+        kept.add(node);
+
+        keep(node.nw, kept);
+        keep(node.ne, kept);
+        keep(node.sw, kept);
+        keep(node.se, kept);
+    }
+
+    /**
+     * Helper method to return the centre of the specified Node after
+     * {@code 2^log2} generations.
+     *
+     * @param node {@code Node} the Node, of level 2 or more
+     * @param log2 {@code int} base 2 logarithm of the generations, at most
+     * the level of the Node minus 2
+     *
+     * @return {@code Node} the centre, one level below the Node
+     */
+    private Node result(Node node, int log2) {
+        if (node.result != null && node.resultLog == log2)
+            return node.result;
+
+        Node temp;
+
+        if (node.population == 0)
+            temp = empty(node.level - 1);
+        else if (node.level == 2)
+            temp = generate(node);
+        else
+            temp = advance(node, log2);
+
+        node.result = temp;
+        node.resultLog = log2;
+
+        return temp;
+    }
+
+    /**
+     * Helper method to compute the result of a Node of level 3 or more from
+     * the nine overlapping Nodes of the level below.
+     *
+     * @param node {@code Node} the Node
+     * @param log2 {@code int} base 2 logarithm of the generations
+     *
+     * @return {@code Node} the centre of the Node after the generations
+     */
+    private Node advance(Node node, int log2) {
+        Node n00 = node.nw;
+        Node n01 = join(node.nw.ne, node.ne.nw, node.nw.se, node.ne.sw);
+        Node n02 = node.ne;
+        Node n10 = join(node.nw.sw, node.nw.se, node.sw.nw, node.sw.ne);
+        Node n11 = centre(node);
+        Node n12 = join(node.ne.sw, node.ne.se, node.se.nw, node.se.ne);
+        Node n20 = node.sw;
+        Node n21 = join(node.sw.ne, node.se.nw, node.sw.se, node.se.sw);
+        Node n22 = node.se;
+
+        // At full speed both halves advance; otherwise only the second does
+        boolean full = log2 == node.level - 2;
+        Node[] half = new Node[9];
+        Node[] nine = {n00, n01, n02, n10, n11, n12, n20, n21, n22};
+
+        for (int i = 0; i < 9; i++)
+            half[i] = full ? result(nine[i], log2 - 1) : centre(nine[i]);
+
+        return join(
+            result(join(half[0], half[1], half[3], half[4]), full ? log2 - 1
+                : log2),
+            result(join(half[1], half[2], half[4], half[5]), full ? log2 - 1
+                : log2),
+            result(join(half[3], half[4], half[6], half[7]), full ? log2 - 1
+                : log2),
+            result(join(half[4], half[5], half[7], half[8]), full ? log2 - 1
+                : log2));
+    }
+
+    /**
+     * Helper method to compute the centre 2 by 2 Cells of a Node of level 2
+     * one generation later, by counting the neighbours of each of them.
+     *
+     * @param node {@code Node} the Node, of 4 by 4 Cells
+     *
+     * @return {@code Node} the centre after one generation
+     */
+    private Node generate(Node node) {
+        // Bit y * 4 + x set if the Cell at x, y is alive
+        int bits = 0;
+
+        for (int y = 0; y < 4; y++)
+            for (int x = 0; x < 4; x++)
+                if (cell(node, x, y))
+                    bits |= 1 << (y * 4 + x);
+
+        Node[] centre = new Node[4];
+
+        for (int i = 0; i < 4; i++) {
+            int x = 1 + (i & 1);
+            int y = 1 + (i >> 1);
+            int neighbours = 0;
+
+            for (int dy = -1; dy <= 1; dy++)
+                for (int dx = -1; dx <= 1; dx++)
+                    if ((dx != 0 || dy != 0)
+                        && (bits >>> ((y + dy) * 4 + x + dx) & 1) != 0)
+                        neighbours++;
+
+            boolean alive = (bits >>> (y * 4 + x) & 1) != 0;
+
+            centre[i] = (alive ? rule.survives(neighbours)
+                : rule.born(neighbours)) ? ALIVE : DEAD;
+        }
+
+        return join(centre[0], centre[1], centre[2], centre[3]);
+    }
+
+    /**
+     * Helper method to return if a Cell of a Node of level 2 is alive.
+     *
+     * @param node {@code Node} the Node
+     * @param x {@code int} column within the Node, from 0 to 3
+     * @param y {@code int} row within the Node, from 0 to 3
+     *
+     * @return {@code true} if the Cell is alive; {@code false} otherwise
+     */
+    private static boolean cell(Node node, int x, int y) {
+        Node quadrant = y < 2 ? (x < 2 ? node.nw : node.ne)
+            : (x < 2 ? node.sw : node.se);
+        Node leaf = (y & 1) == 0 ? ((x & 1) == 0 ? quadrant.nw : quadrant.ne)
+            : ((x & 1) == 0 ? quadrant.sw : quadrant.se);
+
+        return leaf == ALIVE;
+    }
+
+    /**
+     * Helper method to return the Node of the level below made of the
+     * centre of the specified Node.
+     *
+     * @param node {@code Node} the Node, of level 2 or more
+     *
+     * @return {@code Node} its centre
+     */
+    private Node centre(Node node) {
+        return join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+    }
+
+    /**
+     * Helper method to double the width of the root, keeping it at the
+     * centre.
+     */
+    private void expand() {
+        Node border = empty(root.level - 1);
+        long shift = 1L << (root.level - 1);
+
+        root = join(join(border, border, border, root.nw),
+            join(border, border, root.ne, border),
+            join(border, root.sw, border, border),
+            join(root.se, border, border, border));
+
+        originX -= shift;
+        originY -= shift;
+    }
+
+    /**
+     * Helper method to return the Node of the specified level with no live
+     * Cell.
+     *
+     * @param level {@code int} the level
+     *
+     * @return {@code Node} the empty Node
+     */
+    private Node empty(int level) {
+        if (level >= empty.length)
+            empty = Arrays.copyOf(empty, level + 1);
+
+        if (empty[level] == null)
+            empty[level] = level == 0 ? DEAD
+                : join(empty(level - 1), empty(level - 1), empty(level - 1),
+                    empty(level - 1));
+
+        return empty[level];
+    }
+
+    /**
+     * Helper method to return the only Node made of the specified quadrants,
+     * creating it if the table does not hold it yet.
+     *
+     * @param nw {@code Node} north west quadrant
+     * @param ne {@code Node} north east quadrant
+     * @param sw {@code Node} south west quadrant
+     * @param se {@code Node} south east quadrant
+     *
+     * @return {@code Node} the Node
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se) {
+        int hash = hash(nw, ne, sw, se);
+
+        for (Node node = buckets[hash & (buckets.length - 1)]; node != null;
+            node = node.next)
+            if (node.nw == nw && node.ne == ne && node.sw == sw
+                && node.se == se)
+                return node;
+
+        Node node = new Node(nw, ne, sw, se, hash);
+
+        if (count >= buckets.length - (buckets.length >> 2))
+            resize();
+
+        insert(node);
+
+        return node;
+    }
+
+    /**
+     * Helper method to add a Node to its bucket of the table.
+     *
+     * @param node {@code Node} the Node
+     */
+    private void insert(Node node) {
+        int bucket = node.hash & (buckets.length - 1);
+
+        node.next = buckets[bucket];
+        buckets[bucket] = node;
+        count++;
+    }
+
+    /**
+     * Helper method to double the number of buckets of the table.
+     */
+    private void resize() {
+        Node[] old = buckets;
+
+        buckets = new Node[old.length << 1];
+        count = 0;
+
+        for (Node head : old) {
+            for (Node node = head; node != null;) {
+                Node next = node.next;
+
+                insert(node);
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Helper method to hash the quadrants of a Node.
+     *
+     * @param nw {@code Node} north west quadrant
+     * @param ne {@code Node} north east quadrant
+     * @param sw {@code Node} south west quadrant
+     * @param se {@code Node} south east quadrant
+     *
+     * @return {@code int} the hash
+     */
+    private static int hash(Node nw, Node ne, Node sw, Node se) {
+        int h = nw.hash;
+
+        h = h * 0x9E3779B1 + ne.hash;
+        h = h * 0x9E3779B1 + sw.hash;
+        h = h * 0x9E3779B1 + se.hash;
+        h = h * 0x9E3779B1 + nw.level;
+
+        return h ^ h >>> 16;
+    }
+
+}
@@ -0,0 +1,124 @@
+package world;
+
+import utility.RandomSource;
+
+/**
+ * Interface of a World that follows an outer-totalistic {@link LifeRule}
+ * instead of the LifeForms, so the same viewer runs a bit-packed
+ * {@link LifeWorld} and a {@link HashLife}. The Cells are addressed by row
+ * and column within a window of {@link #rows()} by {@link #columns()} Cells,
+ * which is also what a Snapshot shows.
+ *
+ * @author Scott Lai
+ */
+public interface LifeEngine {
+
+    /**
+     * Advances the Cells by the step size, {@code 2^log2} generations as set
+     * by {@link #setStep(int)}.
+     */
+    void step();
+
+    /**
+     * Sets the number of generations of each {@link #step()} to
+     * {@code 2^log2}.
+     *
+     * @param log2 {@code int} base 2 logarithm of the step size, from 0 to
+     * {@link #maxStepLog()}
+     *
+     * @throws IllegalArgumentException if the step is out of range
+     */
+    void setStep(int log2);
+
+    /**
+     * Returns the base 2 logarithm of the largest step size.
+     *
+     * @return {@code int} base 2 logarithm of the largest step size
+     */
+    int maxStepLog();
+
+    /**
+     * Returns the base 2 logarithm of the number of generations of each step.
+     *
+     * @return {@code int} base 2 logarithm of the step size
+     */
+    int stepLog();
+
+    /**
+     * Returns if the Cell at the specified coordinate is alive.
+     *
+     * @param row {@code int} 0-based row number
+     * @param column {@code int} 0-based column number
+     *
+     * @return {@code true} if the Cell is alive; {@code false} otherwise
+     */
+    boolean isAlive(int row, int column);
+
+    /**
+     * Makes the Cell at the specified coordinate alive or dead.
+     *
+     * @param row {@code int} 0-based row number
+     * @param column {@code int} 0-based column number
+     * @param alive {@code boolean} {@code true} to make the Cell alive
+     */
+    void set(int row, int column, boolean alive);
+
+    /**
+     * Makes each Cell of the window alive with the specified probability.
+     *
+     * @param random {@code RandomSource} source of the random numbers
+     * @param percent {@code int} percentage of the Cells made alive
+     */
+    default void populate(RandomSource random, int percent) {
+        for (int row = 0; row < rows(); row++)
+            for (int column = 0; column < columns(); column++)
+                set(row, column, random.next(100) < percent);
+    }
+
+    /**
+     * Returns the number of live Cells, including those outside the window.
+     *
+     * @return {@code long} number of live Cells
+     */
+    long population();
+
+    /**
+     * Returns the number of generations computed.
+     *
+     * @return {@code long} the generation
+     */
+    long generation();
+
+    /**
+     * Copies the Cells of the window into a Snapshot, a live Cell shown as a
+     * Plant and a dead one as empty.
+     *
+     * @param reuse {@code Snapshot} Snapshot to fill; {@code null} or one of
+     * another size to create a new one
+     *
+     * @return {@code Snapshot} the filled Snapshot
+     */
+    Snapshot snapshot(Snapshot reuse);
+
+    /**
+     * Returns the number of rows of the window.
+     *
+     * @return {@code int} number of rows
+     */
+    int rows();
+
+    /**
+     * Returns the number of columns of the window.
+     *
+     * @return {@code int} number of columns
+     */
+    int columns();
+
+    /**
+     * Returns the rule followed by the Cells.
+     *
+     * @return {@code LifeRule} the rule
+     */
+    LifeRule rule();
+
+}
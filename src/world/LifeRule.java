@@ -0,0 +1,147 @@
+package world;
+
+/**
+ * Class to represent an outer-totalistic rule of a {@link LifeWorld}, written
+ * in B/S notation: the numbers of live neighbours that give birth to an empty
+ * Cell after the B, and those that let a live Cell survive after the S. For
+ * example, {@code B3/S23} is Conway's Game of Life and {@code B36/S23} is
+ * HighLife.
+ *
+ * @author Scott Lai
+ */
+public final class LifeRule {
+
+    /** Conway's Game of Life. */
+    public static final LifeRule CONWAY = parse("B3/S23");
+
+    /** Bit {@code 1 << n} set if n live neighbours give birth. */
+    private final int birth;
+
+    /** Bit {@code 1 << n} set if n live neighbours let a Cell survive. */
+    private final int survival;
+
+    /**
+     * Constructs a rule from its masks.
+     *
+     * @param birth {@code int} neighbour counts that give birth
+     * @param survival {@code int} neighbour counts that let a Cell survive
+     */
+    private LifeRule(int birth, int survival) {
+        this.birth = birth;
+        this.survival = survival;
+    }
+
+    /**
+     * Returns the rule written in the specified B/S notation, e.g.
+     * {@code "B3/S23"}. The letters are optional and case insensitive.
+     *
+     * @param rule {@code String} the rule
+     *
+     * @return {@code LifeRule} the rule
+     *
+     * @throws IllegalArgumentException if the rule is invalid
+     */
+    public static LifeRule parse(String rule) {
+        String[] parts = rule.trim().toUpperCase().split("/", -1);
+
+        if (parts.length != 2)
+            throw new IllegalArgumentException("Invalid rule " + rule);
+
+        String b = parts[0];
+        String s = parts[1];
+
+        // Accept both B3/S23 and the older S/B order, e.g. S23/B3 or 23/3
+        if (b.startsWith("S") || s.startsWith("B")
+            || !b.startsWith("B") && !s.startsWith("S")) {
+
+            b = parts[1];
+            s = parts[0];
+        }
+
+        return new LifeRule(counts(b, 'B', rule), counts(s, 'S', rule));
+    }
+
+    /**
+     * Returns if the specified number of live neighbours gives birth to an
+     * empty Cell.
+     *
+     * @param count {@code int} number of live neighbours, from 0 to 8
+     *
+     * @return {@code true} if a Cell is born; {@code false} otherwise
+     */
+    public boolean born(int count) {
+        return (birth >>> count & 1) != 0;
+    }
+
+    /**
+     * Returns if the specified number of live neighbours lets a live Cell
+     * survive.
+     *
+     * @param count {@code int} number of live neighbours, from 0 to 8
+     *
+     * @return {@code true} if the Cell survives; {@code false} otherwise
+     */
+    public boolean survives(int count) {
+        return (survival >>> count & 1) != 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LifeRule))
+            return false;
+
+        LifeRule rule = (LifeRule) other;
+
+        return birth == rule.birth && survival == rule.survival;
+    }
+
+    @Override
+    public int hashCode() {
+        return birth << 9 | survival;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder temp = new StringBuilder("B");
+
+        for (int n = 0; n <= 8; n++)
+            if (born(n))
+                temp.append(n);
+
+        temp.append("/S");
+
+        for (int n = 0; n <= 8; n++)
+            if (survives(n))
+                temp.append(n);
+
+        return temp.toString();
+    }
+
+    /**
+     * Helper method to read the neighbour counts of one half of a rule.
+     *
+     * @param part {@code String} the digits, optionally after the letter
+     * @param letter {@code char} 'B' or 'S'
+     * @param rule {@code String} the whole rule, for the error message
+     *
+     * @return {@code int} bit {@code 1 << n} set for every digit n
+     *
+     * @throws IllegalArgumentException if a digit is not from 0 to 8
+     */
+    private static int counts(String part, char letter, String rule) {
+        int mask = 0;
+        int start = !part.isEmpty() && part.charAt(0) == letter ? 1 : 0;
+
+        for (int i = start; i < part.length(); i++) {
+            int n = part.charAt(i) - '0';
+
+            if (n < 0 || n > 8)
+                throw new IllegalArgumentException("Invalid rule " + rule);
+
+            mask |= 1 << n;
+        }
+
+        return mask;
+    }
+
+}
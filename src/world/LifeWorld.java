@@ -0,0 +1,388 @@
+package world;
+
+import java.util.Arrays;
+
+import cell.CellFactory;
+import organism.Species;
+
+/**
+ * Class to represent a World of square Cells that follows an outer-totalistic
+ * {@link LifeRule}, such as Conway's Game of Life, instead of the LifeForms.
+ * Each Cell is one bit, so a board of a billion Cells fits in 128 MB.
+ * <p>
+ * Each row is packed into {@code long} words, column {@code c} being bit
+ * {@code c & 63} of word {@code c >> 6}, and the bits past the last column are
+ * always 0. A generation is computed 64 Cells at a time: the eight
+ * neighbours of every bit of a word are the word itself and the words above
+ * and below, each shifted one column west and east, and they are summed with
+ * bitwise full adders into four bit planes of the count, from which the rule
+ * picks the Cells alive in the next generation. Generations alternate
+ * between two buffers, so a step does not allocate.
+ *
+ * @author Scott Lai
+ */
+public class LifeWorld implements LifeEngine {
+
+    /** Number of columns in a word. */
+    private static final int WORD = 64;
+
+    /** Largest step, a million generations computed one at a time. */
+    private static final int MAX_STEP = 20;
+
+    /** Number of rows. */
+    private final int rows;
+
+    /** Number of columns. */
+    private final int columns;
+
+    /** Number of words in each row. */
+    private final int words;
+
+    /** Bits of the columns in the last word of a row. */
+    private final long lastMask;
+
+    /** Whether the edges wrap around. */
+    private final boolean torus;
+
+    /** Rule followed by the Cells. */
+    private final LifeRule rule;
+
+    /** Whether the rule is B3/S23, which has a shorter formula. */
+    private final boolean conway;
+
+    /** Whether each count of live neighbours, from 0 to 8, gives birth. */
+    private final boolean[] birth = new boolean[9];
+
+    /** Whether each count of live neighbours lets a Cell survive. */
+    private final boolean[] survival = new boolean[9];
+
+    /** Cells of the current generation, row by row. */
+    private long[] cells;
+
+    /** Cells of the next generation, filled by {@link #generate()}. */
+    private long[] next;
+
+    /** Number of generations computed. */
+    private long generation;
+
+    /** Base 2 logarithm of the number of generations of each step. */
+    private int stepLog;
+
+    /**
+     * Constructs an empty LifeWorld with the size and topology of the
+     * specified factory.
+     *
+     * @param factory {@code CellFactory} size and topology of the World
+     * @param rule {@code LifeRule} rule followed by the Cells
+     */
+    public LifeWorld(CellFactory factory, LifeRule rule) {
+        this(factory.row(), factory.column(), factory.torus(), rule);
+    }
+
+    /**
+     * Constructs an empty LifeWorld of the specified size.
+     *
+     * @param rows {@code int} number of rows
+     * @param columns {@code int} number of columns
+     * @param torus {@code boolean} {@code true} if the edges wrap around,
+     * which needs at least 3 rows and columns
+     * @param rule {@code LifeRule} rule followed by the Cells
+     */
+    public LifeWorld(int rows, int columns, boolean torus, LifeRule rule) {
+        if (rows <= 0 || columns <= 0)
+            throw new IllegalArgumentException("Invalid size");
+
+        // Fewer would make a neighbour on both sides count twice
+        if (torus && (rows < Torus.MIN_SIZE || columns < Torus.MIN_SIZE))
+            throw new IllegalArgumentException("World is too small to wrap");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.torus = torus;
+        this.rule = rule;
+
+        words = (columns + WORD - 1) / WORD;
+        lastMask = -1L >>> (words * WORD - columns);
+
+        cells = new long[Math.multiplyExact(rows, words)];
+        next = new long[cells.length];
+
+        conway = rule.equals(LifeRule.CONWAY);
+
+        for (int n = 0; n <= 8; n++) {
+            birth[n] = rule.born(n);
+            survival[n] = rule.survives(n);
+        }
+    }
+
+    /**
+     * Computes the next {@code 2^log2} generations, one at a time.
+     */
+    @Override
+    public void step() {
+        for (long i = 1L << stepLog; i > 0; i--)
+            generate();
+    }
+
+    @Override
+    public void setStep(int log2) {
+        if (log2 < 0 || log2 > MAX_STEP)
+            throw new IllegalArgumentException("Invalid step " + log2);
+
+        stepLog = log2;
+    }
+
+    @Override
+    public int maxStepLog() {
+        return MAX_STEP;
+    }
+
+    @Override
+    public int stepLog() {
+        return stepLog;
+    }
+
+    /**
+     * Helper method to compute the next generation.
+     */
+    private void generate() {
+        for (int row = 0; row < rows; row++) {
+            int up = row > 0 ? row - 1 : torus ? rows - 1 : -1;
+            int down = row < rows - 1 ? row + 1 : torus ? 0 : -1;
+
+            for (int w = 0; w < words; w++)
+                next[row * words + w] = stepWord(up, row, down, w);
+        }
+
+        long[] temp = cells;
+
+        cells = next;
+        next = temp;
+        generation++;
+    }
+
+    /**
+     * Helper method to compute the next generation of one word.
+     *
+     * @param up {@code int} row above; -1 if there is none
+     * @param row {@code int} row of the word
+     * @param down {@code int} row below; -1 if there is none
+     * @param w {@code int} index of the word in its row
+     *
+     * @return {@code long} the word in the next generation
+     */
+    private long stepWord(int up, int row, int down, int w) {
+        long alive = word(row, w);
+
+        // Row above, a full adder of 3 bits
+        long n = word(up, w), nw = west(up, w), ne = east(up, w);
+        long s1 = n ^ nw ^ ne;
+        long c1 = n & nw | ne & (n ^ nw);
+
+        // Row below
+        long s = word(down, w), sw = west(down, w), se = east(down, w);
+        long s2 = s ^ sw ^ se;
+        long c2 = s & sw | se & (s ^ sw);
+
+        // Same row, a half adder of 2 bits
+        long left = west(row, w), right = east(row, w);
+        long s3 = left ^ right;
+        long c3 = left & right;
+
+        // Add the ones, then the twos, into the bits of the count
+        long bit0 = s1 ^ s2 ^ s3;
+        long c4 = s1 & s2 | s3 & (s1 ^ s2);
+        long t = c1 ^ c2 ^ c3;
+        long u = c1 & c2 | c3 & (c1 ^ c2);
+        long bit1 = t ^ c4;
+        long v = t & c4;
+        long bit2 = u ^ v;
+        long bit3 = u & v;
+
+        long result;
+
+        if (conway) {
+            // 3 neighbours, or 2 neighbours and alive
+            result = bit1 & ~bit2 & ~bit3 & (bit0 | alive);
+        } else {
+            result = 0;
+
+            for (int count = 0; count <= 8; count++) {
+                if (!birth[count] && !survival[count])
+                    continue;
+
+                long equal = ((count & 1) != 0 ? bit0 : ~bit0)
+                    & ((count & 2) != 0 ? bit1 : ~bit1)
+                    & ((count & 4) != 0 ? bit2 : ~bit2)
+                    & ((count & 8) != 0 ? bit3 : ~bit3);
+
+                if (!birth[count])
+                    equal &= alive;
+                else if (!survival[count])
+                    equal &= ~alive;
+
+                result |= equal;
+            }
+        }
+
+        return w == words - 1 ? result & lastMask : result;
+    }
+
+    /**
+     * Helper method to return a word of the current generation.
+     *
+     * @param row {@code int} the row; -1 for the row past an edge
+     * @param w {@code int} index of the word in the row
+     *
+     * @return {@code long} the word; 0 past an edge
+     */
+    private long word(int row, int w) {
+        return row < 0 ? 0 : cells[row * words + w];
+    }
+
+    /**
+     * Helper method to return the west neighbour of every Cell of a word,
+     * i.e. the word shifted one column east.
+     *
+     * @param row {@code int} the row; -1 for the row past an edge
+     * @param w {@code int} index of the word in the row
+     *
+     * @return {@code long} bit {@code i} set if column {@code i - 1} is alive
+     */
+    private long west(int row, int w) {
+        if (row < 0)
+            return 0;
+
+        int base = row * words;
+        long carry;
+
+        if (w > 0)
+            carry = cells[base + w - 1] >>> (WORD - 1);
+        else if (torus)
+            carry = cells[base + words - 1] >>> ((columns - 1) & (WORD - 1)) & 1;
+        else
+            carry = 0;
+
+        return cells[base + w] << 1 | carry;
+    }
+
+    /**
+     * Helper method to return the east neighbour of every Cell of a word,
+     * i.e. the word shifted one column west.
+     *
+     * @param row {@code int} the row; -1 for the row past an edge
+     * @param w {@code int} index of the word in the row
+     *
+     * @return {@code long} bit {@code i} set if column {@code i + 1} is alive
+     */
+    private long east(int row, int w) {
+        if (row < 0)
+            return 0;
+
+        int base = row * words;
+        long carry;
+
+        if (w < words - 1)
+            carry = cells[base + w + 1] << (WORD - 1);
+        else if (torus)
+            carry = (cells[base] & 1) << ((columns - 1) & (WORD - 1));
+        else
+            carry = 0;
+
+        return cells[base + w] >>> 1 | carry;
+    }
+
+    @Override
+    public boolean isAlive(int row, int column) {
+        return (cells[row * words + (column >> 6)] >>> column & 1) != 0;
+    }
+
+    @Override
+    public void set(int row, int column, boolean alive) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            throw new IndexOutOfBoundsException("Invalid cell " + row + ", "
+                + column);
+
+        int i = row * words + (column >> 6);
+
+        if (alive)
+            cells[i] |= 1L << column;
+        else
+            cells[i] &= ~(1L << column);
+    }
+
+    /**
+     * Kills every Cell.
+     */
+    public void clear() {
+        Arrays.fill(cells, 0);
+    }
+
+    @Override
+    public long population() {
+        long count = 0;
+
+        for (long word : cells)
+            count += Long.bitCount(word);
+
+        return count;
+    }
+
+    @Override
+    public Snapshot snapshot(Snapshot reuse) {
+        Snapshot temp = reuse;
+        int size = rows * columns;
+
+        if (temp == null || temp.size() != size)
+            temp = new Snapshot(size);
+
+        Arrays.fill(temp.species, Species.EMPTY);
+
+        for (int row = 0; row < rows; row++) {
+            for (int w = 0; w < words; w++) {
+                long word = cells[row * words + w];
+                int offset = row * columns + w * WORD;
+
+                while (word != 0) {
+                    temp.species[offset + Long.numberOfTrailingZeros(word)] =
+                        Species.PLANT;
+                    word &= word - 1;
+                }
+            }
+        }
+
+        temp.day = (int) Math.min(generation, Integer.MAX_VALUE);
+
+        return temp;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns whether the edges of this World wrap around.
+     *
+     * @return {@code true} if the World is a torus; {@code false} otherwise
+     */
+    public boolean wraps() {
+        return torus;
+    }
+
+    @Override
+    public LifeRule rule() {
+        return rule;
+    }
+
+    @Override
+    public long generation() {
+        return generation;
+    }
+
+}
@@ -0,0 +1,289 @@
+package world;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import organism.Species;
+
+/**
+ * Class to count, for every Cell of a World at once, how many of its
+ * adjacent Cells hold each species, including {@link Species#EMPTY}. Cells
+ * outside of a bounded World are not counted as anything.
+ * <p>
+ * The counts are computed 8 Cells at a time with {@code long} arithmetic on
+ * bytes. Each species is first turned into a plane of one byte per Cell, 1
+ * where the Cell holds the species, surrounded by a halo of one Cell that is
+ * 0 for a bounded World and a copy of the opposite edge for a torus. The
+ * plane is made 64 rows at a time, so it only needs a few kilobytes. The
+ * count of every Cell of a row is then the sum of the planes shifted by each
+ * offset of the stencil of the row, 8 for a Square and 6 for a Hex, whose
+ * offsets depend on the parity of the row. A byte never exceeds 8, so the
+ * lanes of a sum never carry into each other, and no step branches on a
+ * Cell. {@link #countScalar(World)} does the same one Cell at a time through
+ * the adjacency of the World, and is used instead when the system property
+ * {@code gameoflife.scalar=true} is set.
+ * <p>
+ * A World keeps its own NeighbourCounts up to date as its Cells change, see
+ * {@link World#adjacentCount(int, byte)}, and only counts from scratch after
+ * its Cells are replaced at once.
+ *
+ * @author Scott Lai
+ */
+public final class NeighbourCounts {
+
+    /** Whether {@link #count(World)} counts one Cell at a time. */
+    public static final boolean SCALAR = Boolean.getBoolean("gameoflife.scalar");
+
+    /** Number of rows of a plane made at a time. */
+    private static final int BAND = 64;
+
+    /** Number of bytes in a {@code long}. */
+    private static final int LANES = Long.BYTES;
+
+    /** 1 in every byte. */
+    static final long ONES = 0x0101010101010101L;
+
+    /** 0x7F in every byte. */
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    /** View of a {@code byte[]} as {@code long}s at any byte offset. */
+    static final VarHandle LONGS =
+        MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    /** Number of rows. */
+    private final int rows;
+
+    /** Number of columns. */
+    private final int columns;
+
+    /** Bytes of a row of a padded plane. */
+    private final int stride;
+
+    /** Whether the edges wrap around. */
+    private final boolean torus;
+
+    /**
+     * Offset in a padded plane of each adjacent Cell, indexed by
+     * {@code row * degree + direction}.
+     */
+    private final int[] stencil;
+
+    /** Number of Cells adjacent to a Cell. */
+    private final int degree;
+
+    /** Count of each species around each Cell, indexed like the World. */
+    private final byte[][] counts = new byte[Species.COUNT][];
+
+    /**
+     * Padded plane of one band of one species at a time, reused by every
+     * count. Its slack is never written, so it stays 0.
+     */
+    private final byte[] plane;
+
+    /**
+     * Constructs the stencils of the specified World.
+     *
+     * @param world {@code World} the World whose Cells are counted
+     */
+    public NeighbourCounts(World world) {
+        rows = world.rows();
+        columns = world.columns();
+        torus = world.wraps();
+
+        // One Cell of halo on each side, and a long of slack for the reads
+        stride = columns + 2 + LANES;
+        degree = world.cell().adjacent(0).length;
+        stencil = new int[rows * degree];
+
+        for (int r = 0; r < rows; r++) {
+            int[][] adjacent = world.cell().adjacent(r);
+            int[][] seam = world.cell().adjacent(r - rows);
+
+            for (int d = 0; d < degree; d++) {
+                int dr = adjacent[d][0];
+
+                // A torus wraps its bottom edge like World does
+                int dc = torus && r + dr >= rows ? seam[d][1] : adjacent[d][1];
+
+                stencil[r * degree + d] = dr * stride + dc;
+            }
+        }
+
+        for (int s = 0; s < Species.COUNT; s++)
+            counts[s] = new byte[rows * columns + LANES];
+
+        plane = new byte[(Math.min(BAND, rows) + 2) * stride];
+    }
+
+    /**
+     * Counts the species around every Cell of the specified World, which
+     * must have the size and shape given at construction.
+     *
+     * @param world {@code World} the World
+     */
+    public void count(World world) {
+        if (SCALAR)
+            countScalar(world);
+        else
+            countPacked(world);
+    }
+
+    /**
+     * Counts the species around every Cell of the specified World 8 Cells at
+     * a time.
+     *
+     * @param world {@code World} the World
+     */
+    public void countPacked(World world) {
+        byte[] species = world.species;
+
+        for (int s = 0; s < Species.COUNT; s++) {
+            for (int from = 0; from < rows; from += BAND) {
+                int to = Math.min(from + BAND, rows);
+
+                for (int r = from - 1; r <= to; r++)
+                    fill(species, (byte) s, r, plane, (r - from + 1) * stride);
+
+                sum(plane, from, to, counts[s]);
+            }
+        }
+    }
+
+    /**
+     * Helper method to fill one row of a padded plane, 1 where a Cell holds
+     * the specified species, with its left and right halo.
+     *
+     * @param species {@code byte[]} species of the Cells of the World
+     * @param id {@code byte} the species
+     * @param row {@code int} the row; -1 or {@code rows} for a halo row
+     * @param plane {@code byte[]} the plane
+     * @param offset {@code int} index of the row in the plane
+     */
+    private void fill(byte[] species, byte id, int row, byte[] plane,
+        int offset) {
+
+        if (row < 0 || row >= rows) {
+            if (!torus) {
+                Arrays.fill(plane, offset, offset + stride, (byte) 0);
+                return;
+            }
+
+            // The halo of a torus is a copy of the opposite edge
+            row = (row + rows) % rows;
+        }
+
+        long pattern = ONES * id;
+        int from = row * columns;
+        int to = offset + 1;
+        int c = 0;
+
+        for (; c + LANES <= columns; c += LANES)
+            LONGS.set(plane, to + c, equal((long) LONGS.get(species,
+                from + c), pattern));
+
+        for (; c < columns; c++)
+            plane[to + c] = (byte) (species[from + c] == id ? 1 : 0);
+
+        plane[to - 1] = torus ? plane[to + columns - 1] : 0;
+        plane[to + columns] = torus ? plane[to] : 0;
+    }
+
+    /**
+     * Helper method to sum the shifted copies of a band of a padded plane
+     * into the counts of a species.
+     *
+     * @param plane {@code byte[]} padded plane of the band, starting with the
+     * row above it
+     * @param from {@code int} first row of the band, inclusive
+     * @param to {@code int} last row of the band, exclusive
+     * @param count {@code byte[]} counts of the species
+     */
+    private void sum(byte[] plane, int from, int to, byte[] count) {
+        for (int r = from; r < to; r++) {
+            int centre = (r - from + 1) * stride + 1;
+            int base = r * degree;
+            int out = r * columns;
+
+            // Lanes past the last column hold garbage that the next row or
+            // the slack overwrites
+            for (int c = 0; c < columns; c += LANES) {
+                long total = 0;
+
+                for (int d = 0; d < degree; d++)
+                    total += (long) LONGS.get(plane,
+                        centre + c + stencil[base + d]);
+
+                LONGS.set(count, out + c, total);
+            }
+        }
+    }
+
+    /**
+     * Helper method to return 1 in every byte of a word that equals the
+     * matching byte of a pattern, and 0 in the others.
+     *
+     * @param word {@code long} 8 bytes
+     * @param pattern {@code long} 8 bytes to compare with
+     *
+     * @return {@code long} 1 or 0 in every byte
+     */
+    static long equal(long word, long pattern) {
+        long diff = word ^ pattern;
+
+        // High bit of each byte set only if the byte is 0, without borrows
+        long zero = ~((diff & LOW7) + LOW7 | diff | LOW7);
+
+        return zero >>> 7;
+    }
+
+    /**
+     * Counts the species around every Cell of the specified World one Cell
+     * at a time, through its adjacency.
+     *
+     * @param world {@code World} the World
+     */
+    public void countScalar(World world) {
+        for (int s = 0; s < Species.COUNT; s++)
+            Arrays.fill(counts[s], (byte) 0);
+
+        for (int cell = 0; cell < rows * columns; cell++) {
+            for (int d = 0, n = world.degree(cell); d < n; d++) {
+                int other = world.neighbour(cell, d);
+
+                if (other >= 0)
+                    counts[world.species(other)][cell]++;
+            }
+        }
+    }
+
+    /**
+     * Records that a Cell adjacent to the specified Cell changed from one
+     * species to another.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param from {@code byte} species id before the change
+     * @param to {@code byte} species id after the change
+     */
+    void change(int cell, byte from, byte to) {
+        counts[from][cell]--;
+        counts[to][cell]++;
+    }
+
+    /**
+     * Returns the number of Cells adjacent to the specified Cell that hold
+     * the specified species, as of the last count.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param species {@code byte} species id; {@link Species#EMPTY} for
+     * empty Cells
+     *
+     * @return {@code int} number of adjacent Cells
+     */
+    public int count(int cell, byte species) {
+        return counts[species][cell];
+    }
+
+}
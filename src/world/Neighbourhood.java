@@ -0,0 +1,210 @@
+package world;
+
+import utility.RandomSource;
+
+/**
+ * Class to hold the adjacent Cells of one LifeForm, classified as empty,
+ * food or breedable in a single pass by {@link Habitat#classify}. The buffers
+ * are reused from turn to turn, so taking a turn does not allocate; use
+ * {@link #local()} to get the instance of the current thread.
+ *
+ * @author Scott Lai
+ */
+public final class Neighbourhood {
+
+    /** Maximum number of Cells adjacent to a Cell. */
+    public static final int CAPACITY = 8;
+
+    /** Neighbourhood of each thread. */
+    private static final ThreadLocal<Neighbourhood> LOCAL =
+        ThreadLocal.withInitial(Neighbourhood::new);
+
+    /** Indices of the adjacent empty Cells. */
+    final int[] empty = new int[CAPACITY];
+
+    /** Indices of the adjacent Cells with a LifeForm that can be eaten. */
+    final int[] food = new int[CAPACITY];
+
+    /** Indices of the adjacent Cells with a LifeForm that can breed. */
+    final int[] breedable = new int[CAPACITY];
+
+    /** Indices of the adjacent Cells that are empty or hold food, in order. */
+    final int[] foodOrEmpty = new int[CAPACITY];
+
+    /** Random source of the region being simulated. */
+    private RandomSource random;
+
+    /** Number of adjacent empty Cells. */
+    int emptyCount;
+
+    /** Number of adjacent Cells with food. */
+    int foodCount;
+
+    /** Number of adjacent Cells with a breedable LifeForm. */
+    int breedableCount;
+
+    /** Number of adjacent Cells that are empty or hold food. */
+    int foodOrEmptyCount;
+
+    /** Whether the buffers hold the Cells counted, or only their number. */
+    private boolean listed;
+
+    /**
+     * Ensures that a Neighbourhood is only obtained through {@link #local()}.
+     */
+    private Neighbourhood() {}
+
+    /**
+     * Returns the Neighbourhood of the current thread.
+     *
+     * @return {@code Neighbourhood} the Neighbourhood of the current thread
+     */
+    public static Neighbourhood local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Sets the random source used to pick destinations, so that a region
+     * simulated on any thread makes the same choices.
+     *
+     * @param random {@code RandomSource} random source of the region
+     */
+    void useRandom(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Empties this Neighbourhood.
+     */
+    void clear() {
+        emptyCount = foodCount = breedableCount = foodOrEmptyCount = 0;
+        listed = true;
+    }
+
+    /**
+     * Stores the specified counts without listing the Cells.
+     *
+     * @param empty {@code int} number of adjacent empty Cells
+     * @param food {@code int} number of adjacent Cells with food
+     * @param breedable {@code int} number of adjacent Cells with a breedable
+     * LifeForm
+     */
+    void counted(int empty, int food, int breedable) {
+        emptyCount = empty;
+        foodCount = food;
+        breedableCount = breedable;
+        foodOrEmptyCount = empty + food;
+        listed = false;
+    }
+
+    /**
+     * Returns if the adjacent Cells are listed, so that a random one can be
+     * picked, or only counted by {@link Habitat#count(int, Neighbourhood)}.
+     *
+     * @return {@code true} if the Cells are listed; {@code false} otherwise
+     */
+    public boolean listed() {
+        return listed;
+    }
+
+    /**
+     * Returns the number of adjacent empty Cells.
+     *
+     * @return {@code int} number of adjacent empty Cells
+     */
+    public int emptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Returns the number of adjacent Cells with a LifeForm that can be eaten.
+     *
+     * @return {@code int} number of adjacent Cells with food
+     */
+    public int foodCount() {
+        return foodCount;
+    }
+
+    /**
+     * Returns the number of adjacent Cells with a LifeForm that can breed.
+     *
+     * @return {@code int} number of adjacent Cells with a breedable LifeForm
+     */
+    public int breedableCount() {
+        return breedableCount;
+    }
+
+    /**
+     * Returns the number of adjacent Cells that are empty or hold food.
+     *
+     * @return {@code int} number of adjacent Cells that are empty or hold food
+     */
+    public int foodOrEmptyCount() {
+        return foodOrEmptyCount;
+    }
+
+    /**
+     * Returns a random adjacent empty Cell.
+     *
+     * @return {@code int} index of a random adjacent empty Cell
+     */
+    public int randomEmpty() {
+        return pick(empty, emptyCount);
+    }
+
+    /**
+     * Returns a random adjacent Cell that is empty or holds food.
+     *
+     * @return {@code int} index of a random adjacent Cell that is empty or
+     * holds food
+     */
+    public int randomFoodOrEmpty() {
+        return pick(foodOrEmpty, foodOrEmptyCount);
+    }
+
+    /**
+     * Helper method to pick a random element among the first size elements
+     * of the specified buffer.
+     *
+     * @param buffer {@code int[]} the buffer
+     * @param size {@code int} number of elements in the buffer
+     *
+     * @return {@code int} a random element of the buffer
+     */
+    private int pick(int[] buffer, int size) {
+        return buffer[random.next(size)];
+    }
+
+    /**
+     * Records that the specified adjacent empty Cell has been occupied, e.g.
+     * by a new born, so it is no longer offered as an empty destination.
+     *
+     * @param cell {@code int} index of the occupied Cell
+     */
+    public void occupy(int cell) {
+        emptyCount = remove(empty, emptyCount, cell);
+        foodOrEmptyCount = remove(foodOrEmpty, foodOrEmptyCount, cell);
+    }
+
+    /**
+     * Helper method to remove the specified value from the first size
+     * elements of the specified buffer, keeping the order of the others.
+     *
+     * @param buffer {@code int[]} the buffer
+     * @param size {@code int} number of elements in the buffer
+     * @param value {@code int} value to remove
+     *
+     * @return {@code int} new number of elements in the buffer
+     */
+    private static int remove(int[] buffer, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (buffer[i] == value) {
+                System.arraycopy(buffer, i + 1, buffer, i, size - i - 1);
+                return size - 1;
+            }
+        }
+
+        return size;
+    }
+
+}
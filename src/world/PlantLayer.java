@@ -0,0 +1,335 @@
+package world;
+
+import organism.Species;
+import organism.plant.Plant;
+
+/**
+ * Class to decide at once which Plants of a World breed, for a simulation
+ * where every LifeForm decides from the same generation. The Plants, the
+ * empty Cells and the Cells a Plant can eat are packed into bit planes, one
+ * {@code long} word per 64 columns like a {@link LifeWorld}, and the Plant
+ * breed rule, at least {@link Plant#MIN_MATES} adjacent Plants, at least
+ * {@link Plant#MIN_EMPTY} adjacent empty Cells and no adjacent food, is
+ * evaluated for 64 Cells at a time with bitwise adders. Only a Plant that
+ * breeds then needs its adjacent Cells listed, to pick where it spawns.
+ * <p>
+ * Each word of a row is summed with the words of the adjacent rows shifted
+ * by one column in each direction of the adjacency of the row, so the same
+ * code counts Squares and Hexes, and wraps the edges of a torus the way
+ * {@link NeighbourCounts} does.
+ *
+ * @author Scott Lai
+ */
+public final class PlantLayer {
+
+    /** Number of columns in a word. */
+    private static final int WORD = 64;
+
+    /** Gathers the low bit of each byte of a {@code long} into the top. */
+    private static final long GATHER = 0x0102040810204080L;
+
+    /** Number of rows. */
+    private final int rows;
+
+    /** Number of columns. */
+    private final int columns;
+
+    /** Number of words in each row. */
+    private final int words;
+
+    /** Bits of the columns in the last word of a row. */
+    private final long lastMask;
+
+    /** Whether the edges wrap around. */
+    private final boolean torus;
+
+    /** Number of Cells adjacent to a Cell. */
+    private final int degree;
+
+    /**
+     * Row of each adjacent Cell, -1 past an edge, indexed by
+     * {@code row * degree + direction}.
+     */
+    private final int[] adjacentRow;
+
+    /** Column offset of each adjacent Cell, indexed like the rows. */
+    private final int[] adjacentColumn;
+
+    /** Species a Plant breeds with. */
+    private final int mates;
+
+    /** Species a Plant eats. */
+    private final int diet;
+
+    /** Plants, row by row. */
+    private final long[] plantPlane;
+
+    /**
+     * Cells holding a species a Plant breeds with, row by row; the Plants
+     * themselves unless another species breeds with them.
+     */
+    private final long[] matesPlane;
+
+    /** Empty Cells, row by row. */
+    private final long[] emptyPlane;
+
+    /** Cells holding food of a Plant, row by row. */
+    private final long[] foodPlane;
+
+    /** Plants that breed, row by row. */
+    private final long[] breeding;
+
+    /**
+     * Constructs the planes of the specified World.
+     *
+     * @param world {@code World} the World whose Plants are evaluated
+     */
+    public PlantLayer(World world) {
+        rows = world.rows();
+        columns = world.columns();
+        torus = world.wraps();
+
+        words = (columns + WORD - 1) / WORD;
+        lastMask = -1L >>> (words * WORD - columns);
+
+        degree = world.cell().adjacent(0).length;
+        adjacentRow = new int[rows * degree];
+        adjacentColumn = new int[rows * degree];
+
+        for (int r = 0; r < rows; r++) {
+            int[][] adjacent = world.cell().adjacent(r);
+            int[][] seam = world.cell().adjacent(r - rows);
+
+            for (int d = 0; d < degree; d++) {
+                int other = r + adjacent[d][0];
+                boolean outside = other < 0 || other >= rows;
+
+                // A torus wraps its bottom edge like World does
+                adjacentColumn[r * degree + d] = torus && other >= rows
+                    ? seam[d][1] : adjacent[d][1];
+                adjacentRow[r * degree + d] = !outside ? other
+                    : torus ? (other + rows) % rows : -1;
+            }
+        }
+
+        mates = Species.mates(Species.PLANT);
+        diet = Species.diet(Species.PLANT);
+
+        plantPlane = new long[rows * words];
+        matesPlane = mates == Species.bit(Species.PLANT) ? plantPlane
+            : new long[rows * words];
+        emptyPlane = new long[rows * words];
+        foodPlane = new long[rows * words];
+        breeding = new long[rows * words];
+    }
+
+    /**
+     * Packs the specified rows of the World into the planes. Rows are
+     * independent, so bands of rows can be packed concurrently.
+     *
+     * @param world {@code World} the World
+     * @param fromRow {@code int} first row, inclusive
+     * @param toRow {@code int} last row, exclusive
+     */
+    public void pack(World world, int fromRow, int toRow) {
+        byte[] species = world.species;
+
+        for (int r = fromRow; r < toRow; r++) {
+            for (int w = 0; w < words; w++) {
+                int from = r * columns + w * WORD;
+                int length = Math.min(WORD, columns - w * WORD);
+
+                plantPlane[r * words + w] = bits(species, from, length,
+                    Species.bit(Species.PLANT));
+
+                if (matesPlane != plantPlane)
+                    matesPlane[r * words + w] = bits(species, from, length,
+                        mates);
+
+                emptyPlane[r * words + w] = bits(species, from, length,
+                    Species.bit(Species.EMPTY));
+                foodPlane[r * words + w] = diet == 0 ? 0
+                    : bits(species, from, length, diet);
+            }
+        }
+    }
+
+    /**
+     * Helper method to return the bits of up to 64 Cells that hold any of
+     * the specified species.
+     *
+     * @param species {@code byte[]} species of the Cells
+     * @param from {@code int} index of the first Cell
+     * @param length {@code int} number of Cells, at most 64
+     * @param mask {@code int} {@link Species#bit(byte)} of each species
+     *
+     * @return {@code long} bit {@code i} set if Cell {@code from + i} holds
+     * one of the species
+     */
+    private static long bits(byte[] species, int from, int length, int mask) {
+        long result = 0;
+        int i = 0;
+
+        // 8 Cells at a time: a 1 byte per match, gathered into 8 bits
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            long word = (long) NeighbourCounts.LONGS.get(species, from + i);
+            long match = 0;
+
+            for (byte s = 0; s < Species.COUNT; s++)
+                if ((mask & Species.bit(s)) != 0)
+                    match |= NeighbourCounts.equal(word,
+                        NeighbourCounts.ONES * s);
+
+            result |= (match * GATHER >>> 56) << i;
+        }
+
+        for (; i < length; i++)
+            if ((mask & Species.bit(species[from + i])) != 0)
+                result |= 1L << i;
+
+        return result;
+    }
+
+    /**
+     * Evaluates the breed rule for every Cell of the specified rows, which
+     * must have been packed along with the rows adjacent to them.
+     *
+     * @param fromRow {@code int} first row, inclusive
+     * @param toRow {@code int} last row, exclusive
+     */
+    public void evaluate(int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            for (int w = 0; w < words; w++) {
+                // Bits 0 to 3 of the counts of mates and of empty Cells
+                long m0 = 0, m1 = 0, m2 = 0, m3 = 0;
+                long e0 = 0, e1 = 0, e2 = 0, e3 = 0;
+                long food = 0;
+
+                for (int d = 0; d < degree; d++) {
+                    int row = adjacentRow[r * degree + d];
+
+                    if (row < 0)
+                        continue;
+
+                    int dc = adjacentColumn[r * degree + d];
+
+                    // Ripple carry adders of one bit
+                    long c = shifted(matesPlane, row, w, dc);
+                    long t = m0 & c;
+                    m0 ^= c;
+                    c = t & m1;
+                    m1 ^= t;
+                    t = c & m2;
+                    m2 ^= c;
+                    m3 |= t;
+
+                    c = shifted(emptyPlane, row, w, dc);
+                    t = e0 & c;
+                    e0 ^= c;
+                    c = t & e1;
+                    e1 ^= t;
+                    t = c & e2;
+                    e2 ^= c;
+                    e3 |= t;
+
+                    if (diet != 0)
+                        food |= shifted(foodPlane, row, w, dc);
+                }
+
+                long result = plantPlane[r * words + w]
+                    & atLeast(Plant.MIN_MATES, m0, m1, m2, m3)
+                    & atLeast(Plant.MIN_EMPTY, e0, e1, e2, e3) & ~food;
+
+                breeding[r * words + w] = w == words - 1 ? result & lastMask
+                    : result;
+            }
+        }
+    }
+
+    /**
+     * Helper method to return the Cells whose count is at least the
+     * specified number.
+     *
+     * @param n {@code int} the number, from 0 to 8
+     * @param bit0 {@code long} bit 0 of the counts
+     * @param bit1 {@code long} bit 1 of the counts
+     * @param bit2 {@code long} bit 2 of the counts
+     * @param bit3 {@code long} bit 3 of the counts
+     *
+     * @return {@code long} bit {@code i} set if count {@code i} is at least
+     * {@code n}
+     */
+    private static long atLeast(int n, long bit0, long bit1, long bit2,
+        long bit3) {
+
+        long result = 0;
+
+        for (int count = n; count <= 8; count++)
+            result |= ((count & 1) != 0 ? bit0 : ~bit0)
+                & ((count & 2) != 0 ? bit1 : ~bit1)
+                & ((count & 4) != 0 ? bit2 : ~bit2)
+                & ((count & 8) != 0 ? bit3 : ~bit3);
+
+        return result;
+    }
+
+    /**
+     * Helper method to return a word of a plane shifted so that bit
+     * {@code i} holds column {@code i + dc} of the row.
+     *
+     * @param plane {@code long[]} the plane
+     * @param row {@code int} the row
+     * @param w {@code int} index of the word in the row
+     * @param dc {@code int} column offset, from -1 to 1
+     *
+     * @return {@code long} the shifted word; columns past a bounded edge
+     * are 0
+     */
+    private long shifted(long[] plane, int row, int w, int dc) {
+        int base = row * words;
+        long word = plane[base + w];
+
+        if (dc == 0)
+            return word;
+
+        long carry;
+
+        if (dc < 0) {
+            if (w > 0)
+                carry = plane[base + w - 1] >>> (WORD - 1);
+            else if (torus)
+                carry = plane[base + words - 1] >>> ((columns - 1)
+                    & (WORD - 1)) & 1;
+            else
+                carry = 0;
+
+            return word << 1 | carry;
+        }
+
+        if (w < words - 1)
+            carry = plane[base + w + 1] << (WORD - 1);
+        else if (torus)
+            carry = (plane[base] & 1) << ((columns - 1) & (WORD - 1));
+        else
+            carry = 0;
+
+        return word >>> 1 | carry;
+    }
+
+    /**
+     * Returns if the Plant on the specified Cell breeds, as of the last
+     * evaluation.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code true} if the Cell holds a Plant that breeds;
+     * {@code false} otherwise
+     */
+    public boolean breeds(int cell) {
+        int row = cell / columns;
+        int column = cell - row * columns;
+
+        return (breeding[row * words + (column >> 6)] >>> column & 1) != 0;
+    }
+
+}
@@ -0,0 +1,394 @@
+package world;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import cell.CellFactory;
+import organism.Species;
+
+/**
+ * Class to replay a run recorded by a {@link Recorder}. Seeking to a day
+ * loads the last keyframe before it and applies the deltas up to it, so it
+ * costs at most one keyframe interval of deltas no matter how long the run.
+ *
+ * @author Scott Lai
+ */
+public final class Player implements Closeable {
+
+    /** The recording. */
+    private final FileChannel channel;
+
+    /** Factory that describes the Cells of the World recorded. */
+    private final CellFactory factory;
+
+    /** Day of each keyframe, in order. */
+    private int[] keyDays;
+
+    /** Offset of each keyframe. */
+    private long[] keyOffsets;
+
+    /** Last day recorded. */
+    private int lastDay;
+
+    /** Species of every Cell on the current day. */
+    private final Snapshot current;
+
+    /** Input positioned after the frame of the current day. */
+    private DataInputStream in;
+
+    /** Species packed two per byte, reused by the keyframes. */
+    private final byte[] packed;
+
+    /**
+     * Opens the specified recording at its first day.
+     *
+     * @param path {@code Path} the recording
+     *
+     * @throws IOException if the file cannot be read or is not a recording
+     * of a supported version
+     */
+    public Player(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(Recorder.HEADER);
+
+            readFully(header, 0);
+
+            if (header.getInt() != Recorder.MAGIC)
+                throw new IOException("Not a recording");
+
+            short version = header.getShort();
+
+            if (version != Recorder.VERSION)
+                throw new IOException("Unsupported recording version "
+                    + version);
+
+            String mode = header.get() == 1 ? "HEX" : "SQUARE";
+            boolean torus = header.get() == 1;
+            int rows = header.getInt();
+            int columns = header.getInt();
+
+            factory = new CellFactory(mode, rows, columns, torus);
+            current = new Snapshot(rows * columns);
+            packed = new byte[(rows * columns + 1) / 2];
+
+            if (!readIndex())
+                scanIndex();
+
+            seek(keyDays[0]);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the species of every Cell on the specified day.
+     *
+     * @param day {@code int} the day, from {@link #firstDay()} to
+     * {@link #lastDay()}
+     *
+     * @return {@code Snapshot} the species of the day, valid until the next
+     * call to this Player
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    public Snapshot seek(int day) throws IOException {
+        if (day < firstDay() || day > lastDay)
+            throw new IllegalArgumentException("Day " + day + " not recorded");
+
+        // Keep going forward if the day is reached before the next keyframe
+        int key = Arrays.binarySearch(keyDays, day);
+
+        if (key < 0)
+            key = -key - 2;
+
+        if (in == null || day < current.day || keyDays[key] > current.day) {
+            open(keyOffsets[key]);
+            readFrame();
+        }
+
+        while (current.day < day)
+            readFrame();
+
+        return current;
+    }
+
+    /**
+     * Returns the species of every Cell on the day after the current one.
+     *
+     * @return {@code Snapshot} the species of the next day, valid until the
+     * next call to this Player; {@code null} after the last day
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    public Snapshot next() throws IOException {
+        if (current.day >= lastDay)
+            return null;
+
+        return seek(current.day + 1);
+    }
+
+    /**
+     * Returns the first day recorded.
+     *
+     * @return {@code int} the first day
+     */
+    public int firstDay() {
+        return keyDays[0];
+    }
+
+    /**
+     * Returns the last day recorded.
+     *
+     * @return {@code int} the last day
+     */
+    public int lastDay() {
+        return lastDay;
+    }
+
+    /**
+     * Returns a factory that describes the Cells of the World recorded.
+     *
+     * @return {@code CellFactory} shape, size and topology of the World
+     */
+    public CellFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Helper method to read the frame at the position of the input and
+     * apply it to the current day.
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    private void readFrame() throws IOException {
+        byte type = in.readByte();
+        int day = in.readInt();
+        byte[] species = current.species;
+
+        if (type == Recorder.KEY) {
+            in.readFully(packed);
+
+            for (int i = 0; i < species.length; i += 2) {
+                species[i] = (byte) (packed[i >> 1] & 0xf);
+
+                if (i + 1 < species.length)
+                    species[i + 1] = (byte) (packed[i >> 1] >>> 4 & 0xf);
+            }
+        } else if (type == Recorder.DELTA) {
+            for (int r = in.readInt(); r > 0; r--) {
+                int head = in.readUnsignedByte();
+                int kind = head >>> 4;
+                int cell = readVarint();
+
+                if (kind == ChangeLog.BIRTH) {
+                    species[cell] = (byte) (head & 0xf);
+                } else if (kind == ChangeLog.MOVE) {
+                    int from = readVarint();
+
+                    species[cell] = species[from];
+                    species[from] = Species.EMPTY;
+                } else {
+                    if (kind == ChangeLog.EAT)
+                        readVarint();
+
+                    species[cell] = Species.EMPTY;
+                }
+            }
+        } else {
+            throw new IOException("Corrupt recording");
+        }
+
+        current.day = day;
+    }
+
+    /**
+     * Helper method to read the index at the end of the recording.
+     *
+     * @return {@code true} if the index was read; {@code false} if the
+     * recording has none
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    private boolean readIndex() throws IOException {
+        long size = channel.size();
+
+        if (size < Recorder.HEADER + 20)
+            return false;
+
+        ByteBuffer footer = ByteBuffer.allocate(20);
+
+        readFully(footer, size - 20);
+
+        int keys = footer.getInt();
+        lastDay = footer.getInt();
+        long index = footer.getLong();
+
+        if (footer.getInt() != Recorder.INDEX || keys < 1
+            || keys > (size - Recorder.HEADER) / 12)
+            return false;
+
+        ByteBuffer entries = ByteBuffer.allocate(keys * 12);
+
+        readFully(entries, index);
+
+        keyDays = new int[keys];
+        keyOffsets = new long[keys];
+
+        for (int k = 0; k < keys; k++) {
+            keyDays[k] = entries.getInt();
+            keyOffsets[k] = entries.getLong();
+        }
+
+        return true;
+    }
+
+    /**
+     * Helper method to rebuild the index of a recording that was not closed
+     * by reading every frame. A truncated last frame is ignored.
+     *
+     * @throws IOException if the recording has no keyframe
+     */
+    private void scanIndex() throws IOException {
+        keyDays = new int[16];
+        keyOffsets = new long[16];
+
+        int keys = 0;
+        long offset = Recorder.HEADER;
+
+        open(offset);
+
+        try {
+            while (true) {
+                long start = offset;
+                byte type = in.readByte();
+                int day = in.readInt();
+
+                offset += 5;
+
+                if (type == Recorder.KEY) {
+                    in.readFully(packed);
+                    offset += packed.length;
+                } else {
+                    int count = in.readInt();
+
+                    offset += 4;
+
+                    for (int r = 0; r < count; r++) {
+                        int kind = in.readUnsignedByte() >>> 4;
+
+                        offset += 1 + skipVarint();
+
+                        if (kind == ChangeLog.MOVE || kind == ChangeLog.EAT)
+                            offset += skipVarint();
+                    }
+                }
+
+                if (type == Recorder.KEY) {
+                    if (keys == keyDays.length) {
+                        keyDays = Arrays.copyOf(keyDays, keys * 2);
+                        keyOffsets = Arrays.copyOf(keyOffsets, keys * 2);
+                    }
+
+                    keyDays[keys] = day;
+                    keyOffsets[keys] = start;
+                    keys++;
+                }
+
+                lastDay = day;
+            }
+        } catch (EOFException e) {
+            // The recording ends here
+        }
+
+        if (keys == 0)
+            throw new IOException("Recording has no keyframe");
+
+        keyDays = Arrays.copyOf(keyDays, keys);
+        keyOffsets = Arrays.copyOf(keyOffsets, keys);
+        in = null;
+    }
+
+    /**
+     * Helper method to position the input at the specified offset.
+     *
+     * @param offset {@code long} offset in the recording
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    private void open(long offset) throws IOException {
+        channel.position(offset);
+
+        in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(channel), 1 << 16));
+    }
+
+    /**
+     * Helper method to fill a buffer from the specified offset.
+     *
+     * @param buffer {@code ByteBuffer} the buffer, flipped once full
+     * @param offset {@code long} offset in the recording
+     *
+     * @throws IOException if the recording ends first
+     */
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+                throw new EOFException("Truncated recording");
+
+        buffer.flip();
+    }
+
+    /**
+     * Helper method to read a value written in 7 bits per byte.
+     *
+     * @return {@code int} the value
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    private int readVarint() throws IOException {
+        int value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+
+            value |= (b & 0x7f) << shift;
+
+            if (b >= 0)
+                return value;
+        }
+    }
+
+    /**
+     * Helper method to skip a value written in 7 bits per byte.
+     *
+     * @return {@code int} number of bytes skipped
+     *
+     * @throws IOException if the recording cannot be read
+     */
+    private int skipVarint() throws IOException {
+        int bytes = 1;
+
+        while (in.readByte() < 0)
+            bytes++;
+
+        return bytes;
+    }
+
+}
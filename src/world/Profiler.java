@@ -0,0 +1,298 @@
+package world;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import utility.LatencyHistogram;
+
+/**
+ * Class to time the phases of a day and of the turns of its LifeForms, so
+ * that a slow day can be told apart into scanning for LifeForms,
+ * classifying their neighbourhoods, breeding, moving and rendering without
+ * attaching a sampling profiler. Every latency is recorded in a
+ * {@link LatencyHistogram} of the thread that measured it, merged when read,
+ * and every day is also emitted as a Flight Recorder {@code gameoflife.Day}
+ * event with the time spent in each phase.
+ * <p>
+ * Timing is switched on by the system property
+ * {@code gameoflife.profile=true}. Without it, {@link #ENABLED} is a
+ * {@code false} constant and the JIT removes every timer, so a World costs
+ * the same as if this class did not exist.
+ *
+ * @author Scott Lai
+ */
+public final class Profiler implements ProfilerMXBean {
+
+    /** Whether phases are timed, fixed at start up. */
+    public static final boolean ENABLED =
+        Boolean.getBoolean("gameoflife.profile");
+
+    /** Phase of a whole day. */
+    public static final int DAY = 0;
+
+    /** Phase of looking for LifeForms to take their turns, excluding turns. */
+    public static final int SCAN = 1;
+
+    /** Phase of a whole turn of a LifeForm. */
+    public static final int TURN = 2;
+
+    /** Phase of starving and classifying the neighbourhood in a turn. */
+    public static final int CLASSIFY = 3;
+
+    /** Phase of breeding in a turn. */
+    public static final int BREED = 4;
+
+    /** Phase of moving and eating in a turn. */
+    public static final int MOVE = 5;
+
+    /** Phase of showing a day on a View. */
+    public static final int RENDER = 6;
+
+    /** Number of phases. */
+    public static final int PHASES = 7;
+
+    /** Index of the number of turns in the totals. */
+    private static final int TURNS = PHASES;
+
+    /** Name of each phase. */
+    private static final String[] NAMES = {
+        "day", "scan", "turn", "classify", "breed", "move", "render"
+    };
+
+    /** Histograms of every thread that recorded a latency. */
+    private static final List<LatencyHistogram[]> THREADS =
+        new CopyOnWriteArrayList<>();
+
+    /** Histograms of each thread, one per phase. */
+    private static final ThreadLocal<LatencyHistogram[]> LOCAL =
+        ThreadLocal.withInitial(() -> {
+            LatencyHistogram[] temp = new LatencyHistogram[PHASES];
+
+            for (int i = 0; i < PHASES; i++)
+                temp[i] = new LatencyHistogram();
+
+            THREADS.add(temp);
+
+            return temp;
+        });
+
+    /**
+     * Ensures that a Profiler Object cannot be created outside this class.
+     */
+    private Profiler() {}
+
+    /**
+     * Registers the Profiler with the platform MBean server.
+     *
+     * @param name {@code String} object name, e.g.
+     * {@code "gameoflife:type=Profiler"}
+     *
+     * @throws JMException if the name is invalid or already registered
+     */
+    public static void register(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(
+            new Profiler(), new ObjectName(name));
+    }
+
+    /**
+     * Records the time from the specified start to now in the specified
+     * phase, and returns now to start the next phase.
+     *
+     * @param phase {@code int} the phase, e.g. {@link #BREED}
+     * @param start {@code long} {@link System#nanoTime()} when it started
+     *
+     * @return {@code long} {@link System#nanoTime()} now
+     */
+    public static long lap(int phase, long start) {
+        long now = System.nanoTime();
+
+        LOCAL.get()[phase].record(now - start);
+
+        return now;
+    }
+
+    /**
+     * Returns the latencies of the specified phase recorded by every thread.
+     *
+     * @param phase {@code int} the phase, e.g. {@link #DAY}
+     *
+     * @return {@code LatencyHistogram} a copy of the latencies
+     */
+    public static LatencyHistogram histogram(int phase) {
+        LatencyHistogram merged = new LatencyHistogram();
+
+        for (LatencyHistogram[] thread : THREADS)
+            merged.add(thread[phase]);
+
+        return merged;
+    }
+
+    /**
+     * Returns the name of the specified phase.
+     *
+     * @param phase {@code int} the phase
+     *
+     * @return {@code String} its name
+     */
+    public static String name(int phase) {
+        return NAMES[phase];
+    }
+
+    /**
+     * Starts timing a day.
+     *
+     * @return {@code DayEvent} the event of the day
+     */
+    static DayEvent beginDay() {
+        DayEvent event = new DayEvent();
+
+        event.mark = totals();
+        event.start = System.nanoTime();
+        event.begin();
+
+        return event;
+    }
+
+    /**
+     * Stops timing the specified day and emits its event.
+     *
+     * @param event {@code DayEvent} the event returned by {@link #beginDay()}
+     * @param day {@code int} the day
+     */
+    static void endDay(DayEvent event, int day) {
+        event.end();
+
+        long[] totals = totals();
+        long[] mark = event.mark;
+
+        LOCAL.get()[DAY].record(System.nanoTime() - event.start);
+
+        if (event.shouldCommit()) {
+            event.day = day;
+            event.turns = totals[TURNS] - mark[TURNS];
+            event.scan = totals[SCAN] - mark[SCAN];
+            event.classify = totals[CLASSIFY] - mark[CLASSIFY];
+            event.breed = totals[BREED] - mark[BREED];
+            event.move = totals[MOVE] - mark[MOVE];
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a scan for LifeForms.
+     *
+     * @return {@code long} time of the turns of the current thread so far
+     */
+    static long beginScan() {
+        return LOCAL.get()[TURN].total();
+    }
+
+    /**
+     * Stops timing a scan for LifeForms, leaving out the turns taken.
+     *
+     * @param start {@code long} {@link System#nanoTime()} when it started
+     * @param turns {@code long} value returned by {@link #beginScan()}
+     */
+    static void endScan(long start, long turns) {
+        LatencyHistogram[] local = LOCAL.get();
+
+        local[SCAN].record(System.nanoTime() - start
+            - (local[TURN].total() - turns));
+    }
+
+    /**
+     * Helper method to sum the time of each phase and the number of turns
+     * over every thread.
+     *
+     * @return {@code long[]} time of each phase, then the number of turns
+     */
+    private static long[] totals() {
+        long[] totals = new long[PHASES + 1];
+
+        for (LatencyHistogram[] thread : THREADS) {
+            for (int i = 0; i < PHASES; i++)
+                totals[i] += thread[i].total();
+
+            totals[TURNS] += thread[TURN].count();
+        }
+
+        return totals;
+    }
+
+    @Override
+    public String[] getPhases() {
+        return NAMES.clone();
+    }
+
+    @Override
+    public long[] getCounts() {
+        long[] temp = new long[PHASES];
+
+        for (int i = 0; i < PHASES; i++)
+            temp[i] = histogram(i).count();
+
+        return temp;
+    }
+
+    @Override
+    public long[] getMedians() {
+        return percentiles(50);
+    }
+
+    @Override
+    public long[] getP99s() {
+        return percentiles(99);
+    }
+
+    @Override
+    public long[] getMaxima() {
+        long[] temp = new long[PHASES];
+
+        for (int i = 0; i < PHASES; i++)
+            temp[i] = histogram(i).max();
+
+        return temp;
+    }
+
+    @Override
+    public long percentile(String phase, double percentile) {
+        for (int i = 0; i < PHASES; i++)
+            if (NAMES[i].equals(phase))
+                return histogram(i).valueAt(percentile);
+
+        throw new IllegalArgumentException("Unknown phase " + phase);
+    }
+
+    /**
+     * Forgets every latency recorded so far. Latencies recorded while
+     * resetting may be partly kept.
+     */
+    @Override
+    public void reset() {
+        for (LatencyHistogram[] thread : THREADS)
+            for (LatencyHistogram histogram : thread)
+                histogram.reset();
+    }
+
+    /**
+     * Helper method to return the latency of every phase at the specified
+     * percentile.
+     *
+     * @param percentile {@code double} the percentile, from 0 to 100
+     *
+     * @return {@code long[]} latency of each phase
+     */
+    private static long[] percentiles(double percentile) {
+        long[] temp = new long[PHASES];
+
+        for (int i = 0; i < PHASES; i++)
+            temp[i] = histogram(i).valueAt(percentile);
+
+        return temp;
+    }
+
+}
@@ -0,0 +1,62 @@
+package world;
+
+/**
+ * Management interface of the {@link Profiler}, for JMX clients such as
+ * JConsole. Every array is indexed like {@link #getPhases()} and holds
+ * nanoseconds, except the counts.
+ *
+ * @author Scott Lai
+ */
+public interface ProfilerMXBean {
+
+    /**
+     * Returns the names of the phases timed.
+     *
+     * @return {@code String[]} name of each phase
+     */
+    String[] getPhases();
+
+    /**
+     * Returns the number of times each phase was timed.
+     *
+     * @return {@code long[]} count of each phase
+     */
+    long[] getCounts();
+
+    /**
+     * Returns the median latency of each phase.
+     *
+     * @return {@code long[]} median of each phase
+     */
+    long[] getMedians();
+
+    /**
+     * Returns the 99th percentile latency of each phase.
+     *
+     * @return {@code long[]} 99th percentile of each phase
+     */
+    long[] getP99s();
+
+    /**
+     * Returns the largest latency of each phase.
+     *
+     * @return {@code long[]} largest latency of each phase
+     */
+    long[] getMaxima();
+
+    /**
+     * Returns the latency of the specified phase at the specified percentile.
+     *
+     * @param phase {@code String} name of the phase
+     * @param percentile {@code double} the percentile, from 0 to 100
+     *
+     * @return {@code long} the latency
+     */
+    long percentile(String phase, double percentile);
+
+    /**
+     * Forgets every latency recorded so far.
+     */
+    void reset();
+
+}
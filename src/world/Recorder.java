@@ -0,0 +1,226 @@
+package world;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import cell.Hex;
+
+/**
+ * Class to record a run of a World so that any of its days can be replayed
+ * by a {@link Player} without simulating again. A recording is a header,
+ * then one frame per day, then an index:
+ * <ul>
+ * <li>a keyframe holds the species of every Cell, packed two per byte, and
+ * is written at the start and every {@code interval} days;</li>
+ * <li>a delta holds the records of the {@link ChangeLog} of one day, each as
+ * a byte of kind and species followed by the varint Cell and, for a move or
+ * an eat, the varint Cell the LifeForm came from;</li>
+ * <li>the index lists the day and the offset of every keyframe, so that a
+ * Player seeks to a day by loading the keyframe before it and applying the
+ * deltas up to it.</li>
+ * </ul>
+ * A recording whose Recorder was never closed has no index; the Player
+ * rebuilds it by scanning the frames.
+ *
+ * @author Scott Lai
+ */
+public final class Recorder implements Closeable {
+
+    /** Magic number that starts a recording, "GOLR". */
+    static final int MAGIC = 0x474F4C52;
+
+    /** Magic number that ends the index of a recording, "GOLI". */
+    static final int INDEX = 0x474F4C49;
+
+    /** Version of the format written. */
+    static final short VERSION = 1;
+
+    /** Type of a keyframe. */
+    static final byte KEY = 0;
+
+    /** Type of a delta. */
+    static final byte DELTA = 1;
+
+    /** Number of bytes of the header. */
+    static final int HEADER = 24;
+
+    /** World recorded. */
+    private final World world;
+
+    /** Log of the changes of each day of the World. */
+    private final ChangeLog log;
+
+    /** Number of days between two keyframes. */
+    private final int interval;
+
+    /** Output of the recording. */
+    private final DataOutputStream out;
+
+    /** Number of bytes written so far. */
+    private long offset;
+
+    /** Day of each keyframe. */
+    private int[] keyDays = new int[16];
+
+    /** Offset of each keyframe. */
+    private long[] keyOffsets = new long[16];
+
+    /** Number of keyframes. */
+    private int keys;
+
+    /** Day of the last frame written. */
+    private int lastDay;
+
+    /** Species packed two per byte, reused by the keyframes. */
+    private final byte[] packed;
+
+    /**
+     * Starts recording the specified World from its current day. A
+     * {@link ChangeLog} is attached to the World unless it has one already.
+     *
+     * @param world {@code World} the World to record
+     * @param path {@code Path} the file, replaced if it exists
+     * @param interval {@code int} number of days between two keyframes
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public Recorder(World world, Path path, int interval) throws IOException {
+        if (interval < 1)
+            throw new IllegalArgumentException("Invalid keyframe interval");
+
+        this.world = world;
+        this.interval = interval;
+
+        if (world.changeLog() == null)
+            world.setChangeLog(new ChangeLog());
+
+        log = world.changeLog();
+        packed = new byte[(world.rows() * world.columns() + 1) / 2];
+
+        out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(path), 1 << 16));
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(world.cell() instanceof Hex ? 1 : 0);
+        out.writeByte(world.wraps() ? 1 : 0);
+        out.writeInt(world.rows());
+        out.writeInt(world.columns());
+        out.writeInt(interval);
+        out.writeInt(world.day());
+        offset = HEADER;
+
+        writeKey();
+    }
+
+    /**
+     * Records the day just simulated. Call once after every day.
+     *
+     * @throws IOException if the file cannot be written
+     * @throws IllegalStateException if a day was simulated without being
+     * recorded
+     */
+    public void record() throws IOException {
+        int day = world.day();
+
+        if (day != lastDay + 1 || log.day() != day)
+            throw new IllegalStateException("Day " + (lastDay + 1)
+                + " was not recorded");
+
+        out.writeByte(DELTA);
+        out.writeInt(day);
+        out.writeInt(log.size());
+        offset += 9;
+
+        for (int r = 0; r < log.size(); r++) {
+            int kind = log.kind(r);
+
+            out.writeByte(kind << 4 | log.species(r));
+            offset++;
+
+            writeVarint(log.cell(r));
+
+            if (kind == ChangeLog.MOVE || kind == ChangeLog.EAT)
+                writeVarint(log.from(r));
+        }
+
+        lastDay = day;
+
+        if (day % interval == 0)
+            writeKey();
+    }
+
+    /**
+     * Writes the index and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        long index = offset;
+
+        for (int k = 0; k < keys; k++) {
+            out.writeInt(keyDays[k]);
+            out.writeLong(keyOffsets[k]);
+        }
+
+        out.writeInt(keys);
+        out.writeInt(lastDay);
+        out.writeLong(index);
+        out.writeInt(INDEX);
+        out.close();
+    }
+
+    /**
+     * Helper method to write a keyframe of the current day.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeKey() throws IOException {
+        if (keys == keyDays.length) {
+            keyDays = Arrays.copyOf(keyDays, keys * 2);
+            keyOffsets = Arrays.copyOf(keyOffsets, keys * 2);
+        }
+
+        keyDays[keys] = world.day();
+        keyOffsets[keys] = offset;
+        keys++;
+
+        byte[] species = world.species;
+
+        for (int i = 0; i < species.length; i += 2)
+            packed[i >> 1] = (byte) (species[i]
+                | (i + 1 < species.length ? species[i + 1] << 4 : 0));
+
+        out.writeByte(KEY);
+        out.writeInt(world.day());
+        out.write(packed);
+        offset += 5 + packed.length;
+
+        lastDay = world.day();
+    }
+
+    /**
+     * Helper method to write a non-negative value in 7 bits per byte.
+     *
+     * @param value {@code int} the value
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeVarint(int value) throws IOException {
+        while (value >= 0x80) {
+            out.writeByte(value & 0x7f | 0x80);
+            value >>>= 7;
+            offset++;
+        }
+
+        out.writeByte(value);
+        offset++;
+    }
+
+}
@@ -0,0 +1,58 @@
+package world;
+
+/**
+ * Class to hold a copy of the species of every Cell of a World on one day,
+ * so that it can be displayed while the World goes on with the next days.
+ * A Snapshot is filled by {@link World#snapshot} and not changed while it is
+ * handed to a reader.
+ *
+ * @author Scott Lai
+ */
+public final class Snapshot {
+
+    /** Species id of the LifeForm on each Cell. */
+    final byte[] species;
+
+    /** Day of the World when this Snapshot was taken. */
+    int day;
+
+    /**
+     * Constructs an empty Snapshot of a World with the specified number of
+     * Cells.
+     *
+     * @param size {@code int} number of Cells
+     */
+    Snapshot(int size) {
+        species = new byte[size];
+    }
+
+    /**
+     * Returns the species id of the LifeForm on the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell, as in the World
+     *
+     * @return {@code byte} species id
+     */
+    public byte species(int cell) {
+        return species[cell];
+    }
+
+    /**
+     * Returns the number of Cells in this Snapshot.
+     *
+     * @return {@code int} number of Cells
+     */
+    public int size() {
+        return species.length;
+    }
+
+    /**
+     * Returns the day of the World when this Snapshot was taken.
+     *
+     * @return {@code int} day of the World
+     */
+    public int day() {
+        return day;
+    }
+
+}
@@ -0,0 +1,506 @@
+package world;
+
+import java.util.Arrays;
+
+import cell.Cell;
+import cell.CellFactory;
+import organism.LifeForm;
+import organism.Species;
+import utility.Config;
+import utility.LongIntHashMap;
+import utility.RandomSource;
+
+/**
+ * Class to represent an unbounded World of the Game of Life. The plane is cut
+ * into square chunks of 64 by 64 Cells that are stored in a hash map keyed by
+ * the chunk coordinate. A chunk is allocated when a LifeForm is placed on it
+ * or looks at it, and freed at the end of a day on which it holds no
+ * LifeForm, so memory follows the occupied area instead of its bounding box.
+ * <p>
+ * The Cells of all chunks live in shared primitive arrays, so a chunk is a
+ * slot of 4096 Cells that is reused once freed. A Cell is identified by its
+ * handle, {@code slot << 12 | localRow << 6 | localColumn}, which stays valid
+ * as long as its chunk holds a LifeForm. Rows and columns span the range of
+ * {@code int}.
+ *
+ * @author Scott Lai
+ */
+public final class SparseWorld implements Habitat {
+
+    /** Base 2 logarithm of the edge of a chunk, in Cells. */
+    public static final int CHUNK_SHIFT = 6;
+
+    /** Edge of a chunk, in Cells. */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /** Mask of the local row or column of a Cell in its chunk. */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** Base 2 logarithm of the number of Cells in a chunk. */
+    private static final int LOCAL_BITS = 2 * CHUNK_SHIFT;
+
+    /** Number of Cells in a chunk. */
+    private static final int CHUNK_CELLS = 1 << LOCAL_BITS;
+
+    /** Population of a slot that holds no chunk. */
+    private static final int FREE = -1;
+
+    /** Shape of the Cells of this world. */
+    private final Cell cell;
+
+    /** Random source of the LifeForms of this world. */
+    private final RandomSource random;
+
+    /** Configuration of the species of this world. */
+    private final Config config;
+
+    /** Slot of each allocated chunk, keyed by its chunk coordinate. */
+    private final LongIntHashMap chunks = new LongIntHashMap();
+
+    /** Species id of the LifeForm on each Cell. */
+    private byte[] species;
+
+    /** Number of turns left before the LifeForm on each Cell dies. */
+    private int[] hp;
+
+    /** Day on which the LifeForm on each Cell last acted, truncated. */
+    private byte[] acted;
+
+    /** Key of the chunk in each slot. */
+    private long[] keys;
+
+    /** Number of LifeForms in each slot; {@link #FREE} if the slot is free. */
+    private int[] population;
+
+    /** Stack of the freed slots. */
+    private int[] free;
+
+    /** Number of freed slots on the stack. */
+    private int freeCount;
+
+    /** Number of slots ever used. */
+    private int slots;
+
+    /** Keys of the occupied chunks, sorted at the start of a day. */
+    private long[] order = new long[16];
+
+    /** Number of LifeForms in this world. */
+    private int size;
+
+    /** Number of days simulated so far. */
+    private int day;
+
+    /**
+     * Constructs an empty SparseWorld. Only the shape of the Cells is taken
+     * from the factory; its number of rows and columns does not bound the
+     * world.
+     *
+     * @param factory {@code CellFactory} factory that defines the shape of
+     * the Cells of this world
+     * @param random {@code RandomSource} random source of this world
+     */
+    public SparseWorld(CellFactory factory, RandomSource random) {
+        this(factory, random, Config.DEFAULT);
+    }
+
+    /**
+     * Constructs an empty SparseWorld with the percentage and maximum hp of
+     * each species of the specified configuration.
+     *
+     * @param factory {@code CellFactory} factory that defines the shape of
+     * the Cells of this world
+     * @param random {@code RandomSource} random source of this world
+     * @param config {@code Config} configuration of the species
+     */
+    public SparseWorld(CellFactory factory, RandomSource random,
+        Config config) {
+
+        this.random = random;
+        this.config = config;
+
+        cell = factory.makeCell();
+
+        resize(16);
+    }
+
+    /**
+     * Spawns a random LifeForm on every empty Cell of the specified rectangle,
+     * with the percentage of each species of the configuration. The LifeForms
+     * are drawn from a split of the random source of this world.
+     *
+     * @param fromRow {@code int} first row, inclusive
+     * @param toRow {@code int} last row, exclusive
+     * @param fromColumn {@code int} first column, inclusive
+     * @param toColumn {@code int} last column, exclusive
+     */
+    public void populate(int fromRow, int toRow, int fromColumn, int toColumn) {
+        RandomSource spawner = random.split();
+
+        for (int r = fromRow; r < toRow; r++) {
+            for (int c = fromColumn; c < toColumn; c++) {
+                LifeForm life = World.spawn(spawner, config);
+
+                if (life != null && species(r, c) == Species.EMPTY)
+                    spawn(r, c, life);
+            }
+        }
+    }
+
+    /**
+     * Spawns the specified LifeForm with full hp at the specified coordinate.
+     * It takes its first turn on the next day.
+     *
+     * @param row {@code int} row number, i.e. y-coordinate
+     * @param column {@code int} column number, i.e. x-coordinate
+     * @param life {@code LifeForm} LifeForm to occupy the Cell
+     */
+    public void spawn(int row, int column, LifeForm life) {
+        int handle = handle(row, column, true);
+
+        setOccupant(handle, life);
+    }
+
+    /**
+     * Simulates a day in this World. The occupied chunks are visited in
+     * row-major order of their coordinates and their Cells in row-major
+     * order, so a run is reproducible for a given seed. Every LifeForm alive
+     * at the start of the day takes exactly one turn; chunks left without
+     * LifeForms are freed at the end of the day.
+     */
+    public void simulate() {
+        day++;
+
+        Neighbourhood adjacent = Neighbourhood.local();
+
+        adjacent.useRandom(random);
+
+        int count = 0;
+
+        if (order.length < slots)
+            order = new long[keys.length];
+
+        for (int s = 0; s < slots; s++)
+            if (population[s] > 0)
+                order[count++] = keys[s];
+
+        Arrays.sort(order, 0, count);
+
+        for (int k = 0; k < count; k++) {
+            int base = chunks.get(order[k]) << LOCAL_BITS;
+
+            for (int i = base; i < base + CHUNK_CELLS; i++) {
+                if (species[i] != Species.EMPTY && acted[i] != (byte) day) {
+                    acted[i] = (byte) day;
+                    Species.of(species[i]).takeTurn(this, i, adjacent);
+                }
+            }
+        }
+
+        release();
+    }
+
+    /**
+     * Helper method to free every chunk that holds no LifeForm.
+     */
+    private void release() {
+        for (int s = 0; s < slots; s++) {
+            if (population[s] == 0) {
+                chunks.remove(keys[s]);
+                population[s] = FREE;
+                free[freeCount++] = s;
+            }
+        }
+    }
+
+    /**
+     * Returns the species id of the LifeForm at the specified coordinate.
+     *
+     * @param row {@code int} row number, i.e. y-coordinate
+     * @param column {@code int} column number, i.e. x-coordinate
+     *
+     * @return {@code byte} species id; {@link Species#EMPTY} if the Cell is
+     * empty
+     */
+    public byte species(int row, int column) {
+        int handle = handle(row, column, false);
+
+        return handle < 0 ? Species.EMPTY : species[handle];
+    }
+
+    /**
+     * Returns the row of the Cell with the specified handle.
+     *
+     * @param cell {@code int} handle of the Cell
+     *
+     * @return {@code int} row number, i.e. y-coordinate
+     */
+    public int row(int cell) {
+        return (int) (keys[cell >>> LOCAL_BITS] >> 32) << CHUNK_SHIFT
+            | (cell >> CHUNK_SHIFT & CHUNK_MASK);
+    }
+
+    /**
+     * Returns the column of the Cell with the specified handle.
+     *
+     * @param cell {@code int} handle of the Cell
+     *
+     * @return {@code int} column number, i.e. x-coordinate
+     */
+    public int column(int cell) {
+        return ((int) keys[cell >>> LOCAL_BITS] ^ Integer.MIN_VALUE)
+            << CHUNK_SHIFT | (cell & CHUNK_MASK);
+    }
+
+    /**
+     * Returns the number of LifeForms in this World.
+     *
+     * @return {@code int} number of LifeForms
+     */
+    public int population() {
+        return size;
+    }
+
+    /**
+     * Returns the number of chunks allocated in this World.
+     *
+     * @return {@code int} number of chunks
+     */
+    public int chunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Returns the shape of the Cells of this World.
+     *
+     * @return {@code Cell} shape of the Cells
+     */
+    public Cell cell() {
+        return cell;
+    }
+
+    /**
+     * Returns the number of days simulated in this World.
+     *
+     * @return {@code int} number of days simulated
+     */
+    public int day() {
+        return day;
+    }
+
+    /**
+     * Returns the random source of this World.
+     *
+     * @return {@code RandomSource} random source of this World
+     */
+    public RandomSource random() {
+        return random;
+    }
+
+    @Override
+    public LifeForm occupant(int cell) {
+        return Species.of(species[cell]);
+    }
+
+    @Override
+    public int maxHP(byte species) {
+        return config.maxHP(species);
+    }
+
+    @Override
+    public int hp(int cell) {
+        return hp[cell];
+    }
+
+    @Override
+    public void setHP(int cell, int value) {
+        hp[cell] = value;
+    }
+
+    @Override
+    public void setOccupant(int cell, LifeForm newLife) {
+
+        if (species[cell] != Species.EMPTY)
+            throw new IllegalArgumentException("Cell is not empty!");
+
+        species[cell] = newLife.id();
+        hp[cell] = config.maxHP(species[cell]);
+        acted[cell] = (byte) day;
+
+        population[cell >>> LOCAL_BITS]++;
+        size++;
+    }
+
+    @Override
+    public void kill(int cell) {
+        if (species[cell] == Species.EMPTY)
+            return;
+
+        species[cell] = Species.EMPTY;
+        hp[cell] = 0;
+
+        population[cell >>> LOCAL_BITS]--;
+        size--;
+    }
+
+    @Override
+    public void eat(int eater, int food) {
+        kill(food);
+    }
+
+    @Override
+    public boolean move(int from, int to) {
+        if (species[to] != Species.EMPTY)
+            return false;
+
+        species[to] = species[from];
+        hp[to] = hp[from];
+        acted[to] = (byte) day;
+
+        population[to >>> LOCAL_BITS]++;
+        size++;
+
+        kill(from);
+
+        return true;
+    }
+
+    @Override
+    public void classify(int cell, Neighbourhood adjacent) {
+        int diet = Species.diet(species[cell]);
+        int mates = Species.mates(species[cell]);
+
+        int localRow = cell >> CHUNK_SHIFT & CHUNK_MASK;
+        int localColumn = cell & CHUNK_MASK;
+        int row = row(cell);
+
+        int[][] adjacentMatrix = this.cell.adjacent(row);
+
+        adjacent.clear();
+
+        for (int[] point : adjacentMatrix) {
+            int r = localRow + point[0];
+            int c = localColumn + point[1];
+
+            // Only a neighbour in another chunk needs the hash map
+            int temp = ((r | c) & ~CHUNK_MASK) == 0
+                ? cell + point[0] * CHUNK_SIZE + point[1]
+                : handle(row + point[0], column(cell) + point[1], true);
+
+            byte other = species[temp];
+
+            if (other == Species.EMPTY) {
+                adjacent.empty[adjacent.emptyCount++] = temp;
+                adjacent.foodOrEmpty[adjacent.foodOrEmptyCount++] = temp;
+                continue;
+            }
+
+            int bit = Species.bit(other);
+
+            if ((diet & bit) != 0) {
+                adjacent.food[adjacent.foodCount++] = temp;
+                adjacent.foodOrEmpty[adjacent.foodOrEmptyCount++] = temp;
+            }
+
+            if ((mates & bit) != 0)
+                adjacent.breedable[adjacent.breedableCount++] = temp;
+        }
+    }
+
+    /**
+     * Classifies the adjacent Cells, which costs no more than counting them
+     * in a World of chunks.
+     */
+    @Override
+    public void count(int cell, Neighbourhood adjacent) {
+        classify(cell, adjacent);
+    }
+
+    /**
+     * Helper method to return the handle of the Cell at the specified
+     * coordinate.
+     *
+     * @param row {@code int} row number, i.e. y-coordinate
+     * @param column {@code int} column number, i.e. x-coordinate
+     * @param allocate {@code boolean} {@code true} to allocate the chunk of
+     * the Cell if it is missing
+     *
+     * @return {@code int} handle of the Cell; {@code -1} if its chunk is
+     * missing and not allocated
+     */
+    private int handle(int row, int column, boolean allocate) {
+        long key = key(row >> CHUNK_SHIFT, column >> CHUNK_SHIFT);
+        int slot = chunks.get(key);
+
+        if (slot == LongIntHashMap.MISSING) {
+            if (!allocate)
+                return -1;
+
+            slot = allocate(key);
+        }
+
+        return slot << LOCAL_BITS | (row & CHUNK_MASK) << CHUNK_SHIFT
+            | (column & CHUNK_MASK);
+    }
+
+    /**
+     * Helper method to allocate an empty chunk, reusing a freed slot if
+     * there is one.
+     *
+     * @param key {@code long} key of the chunk
+     *
+     * @return {@code int} slot of the chunk
+     */
+    private int allocate(long key) {
+        int slot = freeCount > 0 ? free[--freeCount] : slots++;
+
+        if (slot == keys.length)
+            resize(keys.length * 2);
+
+        keys[slot] = key;
+        population[slot] = 0;
+
+        chunks.put(key, slot);
+
+        return slot;
+    }
+
+    /**
+     * Helper method to grow the arrays to the specified number of slots. A
+     * freed slot is left empty by the LifeForms, so it needs no clearing.
+     *
+     * @param capacity {@code int} number of slots
+     */
+    private void resize(int capacity) {
+        if (keys == null) {
+            species = new byte[capacity << LOCAL_BITS];
+            hp = new int[capacity << LOCAL_BITS];
+            acted = new byte[capacity << LOCAL_BITS];
+            keys = new long[capacity];
+            population = new int[capacity];
+            free = new int[capacity];
+            return;
+        }
+
+        species = Arrays.copyOf(species, capacity << LOCAL_BITS);
+        hp = Arrays.copyOf(hp, capacity << LOCAL_BITS);
+        acted = Arrays.copyOf(acted, capacity << LOCAL_BITS);
+        keys = Arrays.copyOf(keys, capacity);
+        population = Arrays.copyOf(population, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+
+    /**
+     * Helper method to return the key of the chunk at the specified chunk
+     * coordinate. Keys sort in row-major order of the chunks.
+     *
+     * @param chunkRow {@code int} row of the chunk
+     * @param chunkColumn {@code int} column of the chunk
+     *
+     * @return {@code long} key of the chunk
+     */
+    private static long key(int chunkRow, int chunkColumn) {
+        return (long) chunkRow << 32
+            | (chunkColumn ^ Integer.MIN_VALUE) & 0xffffffffL;
+    }
+
+}
@@ -0,0 +1,258 @@
+package world;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import organism.Species;
+
+/**
+ * Class to count the LifeForms of a World by species as they are born,
+ * starve, get eaten and move, without ever scanning the Cells after it is
+ * attached. The counters are {@link LongAdder}s, so the tiles of a parallel
+ * day update them without contention, and can be read over JMX once
+ * {@link #register registered}.
+ * <p>
+ * Counting is switched on by the system property
+ * {@code gameoflife.statistics=true}. Without it, {@link #ENABLED} is a
+ * {@code false} constant and the JIT removes every hook from the
+ * simulation, so a World costs the same as if this class did not exist.
+ *
+ * @author Scott Lai
+ */
+public final class Statistics implements StatisticsMXBean {
+
+    /** Whether Statistics can be attached to a World, fixed at start up. */
+    public static final boolean ENABLED =
+        Boolean.getBoolean("gameoflife.statistics");
+
+    /** Number of living LifeForms of each species. */
+    private final LongAdder[] population = adders();
+
+    /** Number of LifeForms of each species born. */
+    private final LongAdder[] births = adders();
+
+    /** Number of LifeForms of each species that starved. */
+    private final LongAdder[] starved = adders();
+
+    /** Number of LifeForms of each species eaten. */
+    private final LongAdder[] eaten = adders();
+
+    /** Number of moves. */
+    private final LongAdder moves = new LongAdder();
+
+    /** Name these Statistics are registered under; {@code null} if none. */
+    private ObjectName name;
+
+    /**
+     * Constructs Statistics with every counter at 0. Attach them with
+     * {@link World#setStatistics}.
+     */
+    public Statistics() {
+        if (!ENABLED)
+            throw new IllegalStateException(
+                "Statistics are disabled; set -Dgameoflife.statistics=true");
+    }
+
+    /**
+     * Registers these Statistics with the platform MBean server.
+     *
+     * @param name {@code String} object name, e.g.
+     * {@code "gameoflife:type=Statistics"}
+     *
+     * @throws JMException if the name is invalid or already registered
+     */
+    public void register(String name) throws JMException {
+        ObjectName temp = new ObjectName(name);
+
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, temp);
+
+        this.name = temp;
+    }
+
+    /**
+     * Unregisters these Statistics from the platform MBean server, if they
+     * were registered.
+     *
+     * @throws JMException if they cannot be unregistered
+     */
+    public void unregister() throws JMException {
+        if (name == null)
+            return;
+
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+
+        name = null;
+    }
+
+    /**
+     * Returns the number of living LifeForms of the specified species.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code long} number of LifeForms
+     */
+    public long population(byte species) {
+        return population[species].sum();
+    }
+
+    /**
+     * Returns the number of LifeForms of the specified species born.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code long} number of births
+     */
+    public long births(byte species) {
+        return births[species].sum();
+    }
+
+    /**
+     * Returns the number of LifeForms of the specified species that starved.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code long} number of deaths by starvation
+     */
+    public long starvations(byte species) {
+        return starved[species].sum();
+    }
+
+    /**
+     * Returns the number of LifeForms of the specified species eaten.
+     *
+     * @param species {@code byte} species id
+     *
+     * @return {@code long} number of deaths by predation
+     */
+    public long predations(byte species) {
+        return eaten[species].sum();
+    }
+
+    @Override
+    public long getPlants() {
+        return population(Species.PLANT);
+    }
+
+    @Override
+    public long getHerbivores() {
+        return population(Species.HERBIVORE);
+    }
+
+    @Override
+    public long getCarnivores() {
+        return population(Species.CARNIVORE);
+    }
+
+    @Override
+    public long getOmnivores() {
+        return population(Species.OMNIVORE);
+    }
+
+    @Override
+    public long getBirths() {
+        return total(births);
+    }
+
+    @Override
+    public long getStarvations() {
+        return total(starved);
+    }
+
+    @Override
+    public long getPredations() {
+        return total(eaten);
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * Sets the population of every species from the specified Cells.
+     *
+     * @param species {@code byte[]} species id of each Cell
+     */
+    void count(byte[] species) {
+        long[] count = new long[Species.COUNT];
+
+        for (byte id : species)
+            count[id]++;
+
+        for (int id = 0; id < Species.COUNT; id++) {
+            population[id].reset();
+            population[id].add(count[id]);
+        }
+    }
+
+    /**
+     * Counts a LifeForm born.
+     *
+     * @param species {@code byte} its species id
+     */
+    void born(byte species) {
+        births[species].increment();
+        population[species].increment();
+    }
+
+    /**
+     * Counts a LifeForm that starved.
+     *
+     * @param species {@code byte} its species id
+     */
+    void starved(byte species) {
+        starved[species].increment();
+        population[species].decrement();
+    }
+
+    /**
+     * Counts a LifeForm eaten.
+     *
+     * @param species {@code byte} its species id
+     */
+    void eaten(byte species) {
+        eaten[species].increment();
+        population[species].decrement();
+    }
+
+    /**
+     * Counts a move.
+     */
+    void moved() {
+        moves.increment();
+    }
+
+    /**
+     * Helper method to sum a counter over every species.
+     *
+     * @param counter {@code LongAdder[]} counter of each species
+     *
+     * @return {@code long} the sum
+     */
+    private static long total(LongAdder[] counter) {
+        long sum = 0;
+
+        for (LongAdder adder : counter)
+            sum += adder.sum();
+
+        return sum;
+    }
+
+    /**
+     * Helper method to create a counter for each species.
+     *
+     * @return {@code LongAdder[]} counters at 0
+     */
+    private static LongAdder[] adders() {
+        LongAdder[] temp = new LongAdder[Species.COUNT];
+
+        for (int i = 0; i < temp.length; i++)
+            temp[i] = new LongAdder();
+
+        return temp;
+    }
+
+}
@@ -0,0 +1,70 @@
+package world;
+
+/**
+ * Management interface of the {@link Statistics} of a World, for JMX
+ * clients such as JConsole.
+ *
+ * @author Scott Lai
+ */
+public interface StatisticsMXBean {
+
+    /**
+     * Returns the number of living Plants.
+     *
+     * @return {@code long} number of Plants
+     */
+    long getPlants();
+
+    /**
+     * Returns the number of living Herbivores.
+     *
+     * @return {@code long} number of Herbivores
+     */
+    long getHerbivores();
+
+    /**
+     * Returns the number of living Carnivores.
+     *
+     * @return {@code long} number of Carnivores
+     */
+    long getCarnivores();
+
+    /**
+     * Returns the number of living Omnivores.
+     *
+     * @return {@code long} number of Omnivores
+     */
+    long getOmnivores();
+
+    /**
+     * Returns the number of LifeForms born since the Statistics were
+     * attached.
+     *
+     * @return {@code long} number of births
+     */
+    long getBirths();
+
+    /**
+     * Returns the number of LifeForms that starved since the Statistics were
+     * attached.
+     *
+     * @return {@code long} number of deaths by starvation
+     */
+    long getStarvations();
+
+    /**
+     * Returns the number of LifeForms eaten since the Statistics were
+     * attached.
+     *
+     * @return {@code long} number of deaths by predation
+     */
+    long getPredations();
+
+    /**
+     * Returns the number of moves since the Statistics were attached.
+     *
+     * @return {@code long} number of moves
+     */
+    long getMoves();
+
+}
@@ -0,0 +1,199 @@
+package world;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class to simulate the days of a World on a background thread, at a target
+ * number of days per second or as fast as possible. After every day the
+ * thread publishes a {@link Snapshot} of the World; a reader such as a render
+ * loop takes the latest one, and the Snapshots it never took are dropped.
+ * <p>
+ * The Snapshots are recycled between three buffers, so a running Stepper
+ * does not allocate: the one the thread fills, the one published and the one
+ * the reader holds. While a Stepper is running, only its thread may touch the
+ * World.
+ *
+ * @author Scott Lai
+ */
+public final class Stepper {
+
+    /** Operation that fills a Snapshot of the World. */
+    private final UnaryOperator<Snapshot> snapshot;
+
+    /** Operation that simulates a day in the World. */
+    private final Runnable day;
+
+    /** Latest Snapshot not taken by the reader yet. */
+    private final AtomicReference<Snapshot> published =
+        new AtomicReference<>();
+
+    /** Snapshot given back by the reader, for the thread to refill. */
+    private final AtomicReference<Snapshot> spare = new AtomicReference<>();
+
+    /** Snapshot held by the reader since its last take. */
+    private Snapshot front;
+
+    /** Nanoseconds between two days; 0 to run as fast as possible. */
+    private volatile long period;
+
+    /** Whether the thread should keep running. */
+    private volatile boolean running;
+
+    /** Thread that simulates the days; {@code null} if stopped. */
+    private Thread thread;
+
+    /**
+     * Constructs a stopped Stepper.
+     *
+     * @param world {@code World} World to simulate
+     * @param day {@code Runnable} operation that simulates a day in the
+     * World, e.g. {@code world::simulate}
+     */
+    public Stepper(World world, Runnable day) {
+        this(day, world::snapshot);
+    }
+
+    /**
+     * Constructs a stopped Stepper of any kind of World, such as a
+     * {@link LifeWorld}.
+     *
+     * @param day {@code Runnable} operation that simulates a day in the
+     * World, e.g. {@code life::step}
+     * @param snapshot {@code UnaryOperator<Snapshot>} operation that fills
+     * the specified Snapshot, or a new one if it is {@code null}, e.g.
+     * {@code life::snapshot}
+     */
+    public Stepper(Runnable day, UnaryOperator<Snapshot> snapshot) {
+        this.day = day;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Sets the target number of days simulated per second.
+     *
+     * @param daysPerSecond {@code double} target rate; 0 to simulate as fast
+     * as possible
+     */
+    public void setRate(double daysPerSecond) {
+        if (daysPerSecond < 0)
+            throw new IllegalArgumentException("Negative rate");
+
+        period = daysPerSecond == 0 ? 0
+            : (long) (TimeUnit.SECONDS.toNanos(1) / daysPerSecond);
+    }
+
+    /**
+     * Starts simulating on the background thread. Does nothing if this
+     * Stepper is already running.
+     */
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        running = true;
+
+        thread = new Thread(this::run, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops simulating and waits for the day being simulated to end, so that
+     * the World can be used by the caller afterwards.
+     */
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        running = false;
+        LockSupport.unpark(thread);
+
+        boolean interrupted = false;
+
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        thread = null;
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Returns if this Stepper is running.
+     *
+     * @return {@code true} if the background thread is simulating;
+     * {@code false} otherwise
+     */
+    public synchronized boolean running() {
+        return thread != null;
+    }
+
+    /**
+     * Takes the latest Snapshot published since the last take. The Snapshot
+     * stays unchanged until the next call, which hands it back to the
+     * thread. Must be called from a single reader thread.
+     *
+     * @return {@code Snapshot} the latest Snapshot; {@code null} if no day
+     * was simulated since the last take
+     */
+    public Snapshot take() {
+        Snapshot next = published.getAndSet(null);
+
+        if (next == null)
+            return null;
+
+        if (front != null)
+            spare.set(front);
+
+        front = next;
+
+        return next;
+    }
+
+    /**
+     * Helper method to simulate days until stopped, publishing a Snapshot
+     * after each of them and waiting out the rest of each period.
+     */
+    private void run() {
+        Snapshot back = null;
+        long deadline = System.nanoTime();
+
+        while (running) {
+            day.run();
+
+            back = snapshot.apply(back);
+
+            // Take back the unread Snapshot, if any, which drops that day
+            back = published.getAndSet(back);
+
+            if (back == null)
+                back = spare.getAndSet(null);
+
+            long wait = period;
+
+            if (wait == 0)
+                continue;
+
+            deadline += wait;
+
+            long now = System.nanoTime();
+
+            // Do not try to catch up after falling behind
+            if (deadline < now)
+                deadline = now;
+
+            while (running && (now = System.nanoTime()) < deadline)
+                LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+}
@@ -0,0 +1,444 @@
+package world;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import organism.LifeForm;
+import organism.Species;
+import utility.SplitMixRandom;
+
+/**
+ * Class to simulate the days of a World synchronously. Every LifeForm
+ * decides its turn from the same immutable current generation, and the
+ * result is written into a separate next generation that replaces the
+ * current one at the end of the day, so the outcome does not depend on the
+ * order in which Cells are visited.
+ * <p>
+ * A day runs in three passes over the Cells, each of which only writes the
+ * Cells it visits and therefore runs in parallel:
+ * <ol>
+ * <li>Pack: the Plants, empty Cells and food of a Plant are packed into the
+ * bit planes of a {@link PlantLayer}.</li>
+ * <li>Decide: the Plants that breed are found 64 Cells at a time, then every
+ * living LifeForm but a Plant that does not breed classifies its
+ * neighbourhood and records the direction it breeds to and the direction it
+ * moves to.</li>
+ * <li>Resolve: every Cell gathers the claims of its neighbours. A new born
+ * and every mover claiming the same Cell compete by a priority hashed from
+ * the seed, the day and the claimant, and the highest wins. A mover that
+ * wins a Cell eats its occupant unless the occupant won a move elsewhere
+ * and escaped. A mover that loses stays where it was.</li>
+ * </ol>
+ * Random choices and priorities are hashed from the seed, the day and the
+ * Cell, so a run is reproducible for a given seed with any number of threads.
+ *
+ * @author Scott Lai
+ */
+public final class SynchronousSimulation {
+
+    /** Direction of a Cell that does not breed or move. */
+    private static final byte NONE = -1;
+
+    /** Kind of a claim by a mover. */
+    private static final int MOVE = 0;
+
+    /** Kind of a claim by a new born. */
+    private static final int BIRTH = 1;
+
+    /** Salt of the hash that seeds the random choices of a LifeForm. */
+    private static final int CHOICE = 2;
+
+    /** Pass that packs the Plants into bit planes. */
+    private static final int PACK = 0;
+
+    /** Pass that records the decision of every LifeForm. */
+    private static final int DECIDE = 1;
+
+    /** Pass that computes the next generation. */
+    private static final int RESOLVE = 2;
+
+    /** Number of rows handled by a task without splitting. */
+    private static final int BAND = 64;
+
+    /** Random source of each thread, reseeded for every LifeForm. */
+    private static final ThreadLocal<SplitMixRandom> RANDOM =
+        ThreadLocal.withInitial(() -> new SplitMixRandom(0));
+
+    /** Pool that runs the passes. */
+    private final ForkJoinPool pool;
+
+    /** Seed of the random choices and priorities. */
+    private final long seed;
+
+    /** Day being simulated, for the hashes. */
+    private int day;
+
+    /** Direction each LifeForm moves to; {@link #NONE} if it stays. */
+    private byte[] moveTo;
+
+    /** Direction each LifeForm breeds to; {@link #NONE} if it does not. */
+    private byte[] breedTo;
+
+    /** Species id of each Cell in the next generation. */
+    private byte[] nextSpecies;
+
+    /** Hp of each Cell in the next generation. */
+    private int[] nextHP;
+
+    /** Plants of the World being simulated, as bit planes. */
+    private PlantLayer plants;
+
+    /** World {@link #plants} was made for. */
+    private World planted;
+
+    /**
+     * Constructs a SynchronousSimulation.
+     *
+     * @param pool {@code ForkJoinPool} pool that runs the passes
+     * @param seed {@code long} seed of the random choices and priorities
+     */
+    public SynchronousSimulation(ForkJoinPool pool, long seed) {
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * Simulates a day in the specified World.
+     *
+     * @param world {@code World} the World to simulate
+     */
+    public void simulate(World world) {
+        int size = world.rows() * world.columns();
+
+        if (nextSpecies == null || nextSpecies.length != size) {
+            moveTo = new byte[size];
+            breedTo = new byte[size];
+            nextSpecies = new byte[size];
+            nextHP = new int[size];
+        }
+
+        if (planted != world) {
+            plants = new PlantLayer(world);
+            planted = world;
+        }
+
+        DayEvent event = Profiler.ENABLED ? Profiler.beginDay() : null;
+
+        world.beginDay();
+
+        day = world.day();
+
+        pool.invoke(new Pass(world, PACK, 0, world.rows()));
+        pool.invoke(new Pass(world, DECIDE, 0, world.rows()));
+        pool.invoke(new Pass(world, RESOLVE, 0, world.rows()));
+
+        byte[] oldSpecies = world.species;
+        int[] oldHP = world.hp;
+
+        world.nextGeneration(nextSpecies, nextHP);
+
+        nextSpecies = oldSpecies;
+        nextHP = oldHP;
+
+        if (Profiler.ENABLED)
+            Profiler.endDay(event, day);
+    }
+
+    /**
+     * Helper method to record the decision of the LifeForm on the specified
+     * Cell.
+     *
+     * @param world {@code World} the World
+     * @param cell {@code int} index of the Cell
+     * @param adjacent {@code Neighbourhood} buffers of the current thread
+     * @param random {@code SplitMixRandom} random source of the thread
+     */
+    private void decide(World world, int cell, Neighbourhood adjacent,
+        SplitMixRandom random) {
+
+        moveTo[cell] = NONE;
+        breedTo[cell] = NONE;
+
+        LifeForm life = world.occupant(cell);
+
+        if (life == null || world.hp(cell) == 0)
+            return;
+
+        // A Plant only lists its neighbourhood to pick where it spawns
+        if (life.id() == Species.PLANT && !plants.breeds(cell))
+            return;
+
+        random.setState(hash(cell, CHOICE));
+        adjacent.useRandom(random);
+
+        world.classify(cell, adjacent);
+
+        if (life.canBreed(adjacent)) {
+            int dest = adjacent.randomEmpty();
+
+            adjacent.occupy(dest);
+            breedTo[cell] = direction(world, cell, dest);
+        }
+
+        if (life.canMove() && adjacent.foodOrEmptyCount() > 0)
+            moveTo[cell] = direction(world, cell, adjacent.randomFoodOrEmpty());
+    }
+
+    /**
+     * Helper method to compute the next generation of the specified Cell.
+     *
+     * @param world {@code World} the World
+     * @param cell {@code int} index of the Cell
+     */
+    private void resolve(World world, int cell) {
+        int winner = -1;
+        int kind = MOVE;
+        long best = 0;
+
+        for (int d = world.degree(cell) - 1; d >= 0; d--) {
+            int claimant = world.neighbour(cell, d);
+
+            if (claimant < 0 || world.isEmpty(claimant))
+                continue;
+
+            for (int k = MOVE; k <= BIRTH; k++) {
+                if (target(world, claimant, k) != cell)
+                    continue;
+
+                long priority = hash(claimant, k);
+
+                if (winner < 0 || beats(priority, claimant, k, best, winner,
+                    kind)) {
+                    winner = claimant;
+                    kind = k;
+                    best = priority;
+                }
+            }
+        }
+
+        byte occupant = world.species(cell);
+        Statistics stats = Statistics.ENABLED ? world.statistics() : null;
+
+        if (winner >= 0) {
+            LifeForm life = world.occupant(winner);
+
+            if (stats != null)
+                count(world, stats, cell, occupant, life, kind);
+
+            nextSpecies[cell] = life.id();
+
+            if (kind == BIRTH)
+                nextHP[cell] = world.maxHP(life.id());
+            else if (occupant != Species.EMPTY && !escaped(world, cell))
+                nextHP[cell] = world.maxHP(life.id());
+            else
+                nextHP[cell] = world.hp(winner) - 1;
+        } else if (occupant != Species.EMPTY && world.hp(cell) > 0
+            && !escaped(world, cell)) {
+            nextSpecies[cell] = occupant;
+            nextHP[cell] = world.hp(cell) - 1;
+        } else {
+            if (stats != null && occupant != Species.EMPTY
+                && !escaped(world, cell))
+                stats.starved(occupant);
+
+            nextSpecies[cell] = Species.EMPTY;
+            nextHP[cell] = 0;
+        }
+    }
+
+    /**
+     * Helper method to count the claim that won the specified Cell.
+     *
+     * @param world {@code World} the World
+     * @param stats {@code Statistics} Statistics of the World
+     * @param cell {@code int} index of the Cell
+     * @param occupant {@code byte} species id of the Cell in the current
+     * generation
+     * @param life {@code LifeForm} the claimant that won
+     * @param kind {@code int} {@link #MOVE} or {@link #BIRTH}
+     */
+    private void count(World world, Statistics stats, int cell, byte occupant,
+        LifeForm life, int kind) {
+
+        if (kind == BIRTH)
+            stats.born(life.id());
+        else
+            stats.moved();
+
+        if (occupant != Species.EMPTY && !escaped(world, cell))
+            stats.eaten(occupant);
+    }
+
+    /**
+     * Helper method to return if the LifeForm on the specified Cell moved
+     * away, i.e. its move won the Cell it claimed.
+     *
+     * @param world {@code World} the World
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code true} if the LifeForm moved away; {@code false} otherwise
+     */
+    private boolean escaped(World world, int cell) {
+        int dest = target(world, cell, MOVE);
+
+        if (dest < 0)
+            return false;
+
+        long priority = hash(cell, MOVE);
+
+        for (int d = world.degree(dest) - 1; d >= 0; d--) {
+            int rival = world.neighbour(dest, d);
+
+            if (rival < 0 || rival == cell || world.isEmpty(rival))
+                continue;
+
+            for (int k = MOVE; k <= BIRTH; k++)
+                if (target(world, rival, k) == dest
+                    && beats(hash(rival, k), rival, k, priority, cell, MOVE))
+                    return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Helper method to return the Cell claimed by the specified Cell.
+     *
+     * @param world {@code World} the World
+     * @param cell {@code int} index of the claimant
+     * @param kind {@code int} {@link #MOVE} or {@link #BIRTH}
+     *
+     * @return {@code int} index of the claimed Cell; {@code -1} if none
+     */
+    private int target(World world, int cell, int kind) {
+        byte direction = kind == MOVE ? moveTo[cell] : breedTo[cell];
+
+        return direction == NONE ? -1 : world.neighbour(cell, direction);
+    }
+
+    /**
+     * Helper method to return the direction of the specified adjacent Cell.
+     *
+     * @param world {@code World} the World
+     * @param cell {@code int} index of the Cell
+     * @param dest {@code int} index of the adjacent Cell
+     *
+     * @return {@code byte} index into the adjacency matrix of the Cell
+     */
+    private static byte direction(World world, int cell, int dest) {
+        for (int d = world.degree(cell) - 1; d >= 0; d--)
+            if (world.neighbour(cell, d) == dest)
+                return (byte) d;
+
+        throw new IllegalArgumentException("Cell is not adjacent");
+    }
+
+    /**
+     * Helper method to return if a claim has priority over another one.
+     * Equal hashes are broken by the claimant and the kind.
+     *
+     * @param priority {@code long} hash of the first claim
+     * @param cell {@code int} claimant of the first claim
+     * @param kind {@code int} kind of the first claim
+     * @param otherPriority {@code long} hash of the second claim
+     * @param otherCell {@code int} claimant of the second claim
+     * @param otherKind {@code int} kind of the second claim
+     *
+     * @return {@code true} if the first claim wins; {@code false} otherwise
+     */
+    private static boolean beats(long priority, int cell, int kind,
+        long otherPriority, int otherCell, int otherKind) {
+
+        if (priority != otherPriority)
+            return priority > otherPriority;
+
+        return ((long) cell << 1 | kind) > ((long) otherCell << 1 | otherKind);
+    }
+
+    /**
+     * Helper method to hash the seed, the day of the World and the specified
+     * Cell and salt.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param salt {@code int} value that tells hashes of one Cell apart
+     *
+     * @return {@code long} the hash
+     */
+    private long hash(int cell, int salt) {
+        return SplitMixRandom.mix64(seed
+            ^ SplitMixRandom.mix64(((long) day << 34) ^ ((long) cell << 2)
+                ^ salt));
+    }
+
+    /**
+     * Task that runs one pass over a band of rows, splitting it in halves
+     * until it is small enough.
+     */
+    private final class Pass extends RecursiveAction {
+
+        /** Version of the serialized form, which is never used. */
+        private static final long serialVersionUID = 1L;
+
+        /** World to simulate. */
+        private final World world;
+
+        /** {@link #PACK}, {@link #DECIDE} or {@link #RESOLVE}. */
+        private final int pass;
+
+        /** First row, inclusive. */
+        private final int from;
+
+        /** Last row, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs a pass over the specified rows.
+         *
+         * @param world {@code World} World to simulate
+         * @param pass {@code int} {@link #PACK}, {@link #DECIDE} or
+         * {@link #RESOLVE}
+         * @param from {@code int} first row, inclusive
+         * @param to {@code int} last row, exclusive
+         */
+        Pass(World world, int pass, int from, int to) {
+            this.world = world;
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BAND) {
+                int middle = (from + to) >>> 1;
+
+                invokeAll(new Pass(world, pass, from, middle),
+                    new Pass(world, pass, middle, to));
+                return;
+            }
+
+            if (pass == PACK) {
+                plants.pack(world, from, to);
+                return;
+            }
+
+            if (pass == DECIDE)
+                plants.evaluate(from, to);
+
+            Neighbourhood adjacent = Neighbourhood.local();
+            SplitMixRandom random = RANDOM.get();
+
+            int end = to * world.columns();
+
+            for (int i = from * world.columns(); i < end; i++) {
+                if (pass == RESOLVE)
+                    resolve(world, i);
+                else
+                    decide(world, i, adjacent, random);
+            }
+        }
+
+    }
+
+}
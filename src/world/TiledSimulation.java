@@ -0,0 +1,258 @@
+package world;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import utility.RandomSource;
+
+/**
+ * Class to simulate the days of a World in parallel. The World is cut into
+ * tiles, and the tiles along each edge alternate between two colours, so
+ * that a tile gets one of four colours and two tiles of the same colour are
+ * always at least one tile apart. A LifeForm only reads and writes the Cells
+ * adjacent to it, therefore the tiles of one colour never touch the same
+ * Cells and run concurrently on a {@link ForkJoinPool}; the colours run one
+ * after another.
+ * <p>
+ * Every tile draws from its own random source, split from the random source
+ * of the World in tile order before the tiles run, so a run is reproducible
+ * for a given seed and tile size no matter how many threads the pool has.
+ * <p>
+ * In a World that wraps around, the first and the last tile of a row or
+ * column touch. If there is an odd number of them, the last one gets a third
+ * colour of its own along that edge, for up to nine colours in all, and a
+ * remainder too thin to separate two tiles is merged into the last tile.
+ *
+ * @author Scott Lai
+ */
+public final class TiledSimulation {
+
+    /** Number of colours of the tiles along one edge of a World. */
+    private static final int EDGE_COLOURS = 3;
+
+    /**
+     * Smallest tile edge that keeps same coloured tiles independent. A turn
+     * changes the Cells adjacent to a LifeForm, and the adjacent counts of
+     * the World two Cells away.
+     */
+    private static final int MIN_TILE = 4;
+
+    /** Pool that runs the tiles. */
+    private final ForkJoinPool pool;
+
+    /** Number of rows in each tile. */
+    private final int tileRows;
+
+    /** Number of columns in each tile. */
+    private final int tileColumns;
+
+    /**
+     * Constructs a TiledSimulation.
+     *
+     * @param pool {@code ForkJoinPool} pool that runs the tiles
+     * @param tileRows {@code int} number of rows in each tile, at least 4
+     * @param tileColumns {@code int} number of columns in each tile, at
+     * least 4
+     */
+    public TiledSimulation(ForkJoinPool pool, int tileRows, int tileColumns) {
+        if (tileRows < MIN_TILE || tileColumns < MIN_TILE)
+            throw new IllegalArgumentException("Tile is too small");
+
+        this.pool = pool;
+        this.tileRows = tileRows;
+        this.tileColumns = tileColumns;
+    }
+
+    /**
+     * Simulates a day in the specified World.
+     *
+     * @param world {@code World} the World to simulate
+     */
+    public void simulate(World world) {
+        int down = count(world.rows(), tileRows, world.wraps());
+        int across = count(world.columns(), tileColumns, world.wraps());
+
+        DayEvent event = Profiler.ENABLED ? Profiler.beginDay() : null;
+
+        world.beginDay();
+
+        RandomSource[] randoms = new RandomSource[down * across];
+
+        for (int i = 0; i < randoms.length; i++)
+            randoms[i] = world.random().split();
+
+        boolean wraps = world.wraps();
+
+        for (int rowColour = 0; rowColour < EDGE_COLOURS; rowColour++) {
+            for (int columnColour = 0; columnColour < EDGE_COLOURS; columnColour++) {
+                int[] tiles = tilesOf(rowColour, columnColour, down, across,
+                    wraps);
+
+                if (tiles.length > 0)
+                    pool.invoke(new Tiles(world, randoms, tiles, 0,
+                        tiles.length, down, across));
+
+                // A later colour may change the Cells of this one
+                world.sealLog();
+            }
+        }
+
+        if (Profiler.ENABLED)
+            Profiler.endDay(event, world.day());
+    }
+
+    /**
+     * Helper method to return the number of tiles along an edge of a World.
+     *
+     * @param cells {@code int} number of Cells along the edge
+     * @param tile {@code int} number of Cells along the edge of a tile
+     * @param wraps {@code boolean} {@code true} if the World wraps around
+     *
+     * @return {@code int} number of tiles; the last one may be shorter, or
+     * longer if the World wraps around
+     */
+    private static int count(int cells, int tile, boolean wraps) {
+        int count = (cells + tile - 1) / tile;
+        int remainder = cells % tile;
+
+        if (wraps && count > 1 && remainder > 0 && remainder < MIN_TILE)
+            count--;
+
+        return count;
+    }
+
+    /**
+     * Helper method to return the colour of a tile along one edge: the
+     * parity of its position, or 2 for the last of an odd number of tiles
+     * in a World that wraps around.
+     *
+     * @param tile {@code int} position of the tile along the edge
+     * @param count {@code int} number of tiles along the edge
+     * @param wraps {@code boolean} {@code true} if the World wraps around
+     *
+     * @return {@code int} colour of the tile, from 0 to 2
+     */
+    private static int colour(int tile, int count, boolean wraps) {
+        if (wraps && count > 1 && (count & 1) == 1 && tile == count - 1)
+            return 2;
+
+        return tile & 1;
+    }
+
+    /**
+     * Helper method to list the tiles of the specified colour.
+     *
+     * @param rowColour {@code int} colour of the rows of the tiles
+     * @param columnColour {@code int} colour of the columns of the tiles
+     * @param down {@code int} number of tiles down the World
+     * @param across {@code int} number of tiles across the World
+     * @param wraps {@code boolean} {@code true} if the World wraps around
+     *
+     * @return {@code int[]} indices of the tiles, i.e.
+     * {@code tileRow * across + tileColumn}
+     */
+    private static int[] tilesOf(int rowColour, int columnColour, int down,
+        int across, boolean wraps) {
+
+        int[] temp = new int[down * across];
+        int size = 0;
+
+        for (int r = 0; r < down; r++) {
+            if (colour(r, down, wraps) != rowColour)
+                continue;
+
+            for (int c = 0; c < across; c++)
+                if (colour(c, across, wraps) == columnColour)
+                    temp[size++] = r * across + c;
+        }
+
+        return Arrays.copyOf(temp, size);
+    }
+
+    /**
+     * Task that simulates a range of tiles of the same colour, splitting it
+     * in halves until a single tile is left.
+     */
+    private final class Tiles extends RecursiveAction {
+
+        /** Version of the serialized form, which is never used. */
+        private static final long serialVersionUID = 1L;
+
+        /** World to simulate. */
+        private final World world;
+
+        /** Random source of each tile. */
+        private final RandomSource[] randoms;
+
+        /** Indices of the tiles. */
+        private final int[] tiles;
+
+        /** First tile of the range, inclusive. */
+        private final int from;
+
+        /** Last tile of the range, exclusive. */
+        private final int to;
+
+        /** Number of tiles down the World. */
+        private final int down;
+
+        /** Number of tiles across the World. */
+        private final int across;
+
+        /**
+         * Constructs a task over the specified range of tiles.
+         *
+         * @param world {@code World} World to simulate
+         * @param randoms {@code RandomSource[]} random source of each tile
+         * @param tiles {@code int[]} indices of the tiles
+         * @param from {@code int} first tile of the range, inclusive
+         * @param to {@code int} last tile of the range, exclusive
+         * @param down {@code int} number of tiles down the World
+         * @param across {@code int} number of tiles across the World
+         */
+        Tiles(World world, RandomSource[] randoms, int[] tiles, int from,
+            int to, int down, int across) {
+
+            this.world = world;
+            this.randoms = randoms;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.down = down;
+            this.across = across;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+
+                invokeAll(
+                    new Tiles(world, randoms, tiles, from, middle, down, across),
+                    new Tiles(world, randoms, tiles, middle, to, down, across));
+                return;
+            }
+
+            int tile = tiles[from];
+            int tileRow = tile / across;
+            int tileColumn = tile % across;
+
+            int row = tileRow * tileRows;
+            int column = tileColumn * tileColumns;
+
+            Neighbourhood adjacent = Neighbourhood.local();
+
+            adjacent.useRandom(randoms[tile]);
+
+            // The last tile takes whatever is left of the World
+            world.simulate(row,
+                tileRow == down - 1 ? world.rows() : row + tileRows, column,
+                tileColumn == across - 1 ? world.columns()
+                    : column + tileColumns,
+                adjacent);
+        }
+
+    }
+
+}
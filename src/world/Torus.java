@@ -0,0 +1,95 @@
+package world;
+
+import cell.Cell;
+
+/**
+ * Class to find the adjacent Cells of a World whose edges wrap around, i.e.
+ * whose top row touches its bottom row and whose left column touches its
+ * right column. The wrapped row and column of every direction are looked up
+ * in tables computed once, so finding a neighbour needs no bounds check.
+ * <p>
+ * A hex world with an odd number of rows cannot wrap straight, because its
+ * last row and its first row are both even. Its bottom edge is wrapped with
+ * a shift of half a Cell, i.e. a Cell of the last row looks down with the
+ * offsets of the row above the first row, which keeps adjacency symmetric.
+ *
+ * @author Scott Lai
+ */
+final class Torus {
+
+    /** Smallest number of rows or columns for distinct neighbours. */
+    static final int MIN_SIZE = 3;
+
+    /** Number of Cells adjacent to a Cell. */
+    private final int degree;
+
+    /**
+     * Index of the first Cell of the wrapped row in each direction, indexed
+     * by {@code row * degree + direction}.
+     */
+    private final int[] rowBase;
+
+    /** Column offset in each direction, indexed like {@link #rowBase}. */
+    private final int[] columnOffset;
+
+    /** Wrapped column of each column from -1 to columns, shifted by 1. */
+    private final int[] wrapColumn;
+
+    /**
+     * Constructs the tables of a wrapping World.
+     *
+     * @param cell {@code Cell} shape of the Cells
+     * @param rows {@code int} number of rows, at least 3
+     * @param columns {@code int} number of columns, at least 3
+     */
+    Torus(Cell cell, int rows, int columns) {
+        if (rows < MIN_SIZE || columns < MIN_SIZE)
+            throw new IllegalArgumentException("World is too small to wrap");
+
+        degree = cell.adjacent(0).length;
+        rowBase = new int[rows * degree];
+        columnOffset = new int[rows * degree];
+        wrapColumn = new int[columns + 2];
+
+        for (int r = 0; r < rows; r++) {
+            int[][] adjacentMatrix = cell.adjacent(r);
+            int[][] seam = cell.adjacent(r - rows);
+
+            for (int d = 0; d < degree; d++) {
+                int[] point = adjacentMatrix[d];
+                int i = r * degree + d;
+
+                rowBase[i] = Math.floorMod(r + point[0], rows) * columns;
+                columnOffset[i] = r + point[0] < rows ? point[1] : seam[d][1];
+            }
+        }
+
+        for (int c = -1; c <= columns; c++)
+            wrapColumn[c + 1] = Math.floorMod(c, columns);
+    }
+
+    /**
+     * Returns the Cell in the specified direction of the specified Cell.
+     *
+     * @param row {@code int} row of the Cell
+     * @param column {@code int} column of the Cell
+     * @param direction {@code int} index into the adjacency matrix of the Cell
+     *
+     * @return {@code int} index of the adjacent Cell
+     */
+    int neighbour(int row, int column, int direction) {
+        int i = row * degree + direction;
+
+        return rowBase[i] + wrapColumn[column + columnOffset[i] + 1];
+    }
+
+    /**
+     * Returns the number of Cells adjacent to a Cell.
+     *
+     * @return {@code int} number of adjacent Cells
+     */
+    int degree() {
+        return degree;
+    }
+
+}
@@ -1,209 +1,912 @@
 package world;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Predicate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import cell.Cell;
 import cell.CellFactory;
-import javafx.scene.layout.AnchorPane;
 import organism.LifeForm;
-import utility.RandomGenerator;
+import organism.Species;
+import utility.Config;
+import utility.RandomSource;
+import utility.Setting;
+import utility.TableRandom;
 
 /**
- * Class to represent a World of the Game of Life.
+ * Class to represent a World of the Game of Life. A World is headless: it
+ * holds no JavaFX nodes, so it can be simulated without a JavaFX toolkit and
+ * displayed by attaching an optional view.
+ * <p>
+ * The Cells are stored as flat primitive arrays indexed by
+ * {@code row * columns + column}: one {@code byte} species id and one
+ * {@code int} hp per Cell. The Cells are also grouped into square tiles that
+ * count their LifeForms, so that a day only visits the tiles that hold
+ * LifeForms and costs time in proportion to the population, not the area.
+ * <p>
+ * A World is bounded by default. If its CellFactory asks for a torus, its
+ * edges wrap around and every Cell has the same number of neighbours.
+ *
  * @author Scott Lai
  */
-public class World {
-    
-    /** The world that holds the Cells. */
-    protected Cell[][] world;
+public class World implements Habitat {
 
-    /** GridPane to display the world to the screen. */
-    protected AnchorPane root;
+    /** Base 2 logarithm of the edge of a tile, in Cells. */
+    public static final int TILE_SHIFT = 5;
 
     /**
-     * Helper function to initialize the world.
-     * 
-     * @param rowNumber {@code int} number of Cells in this world
+     * Species spawned from the top of the spawn values down, so that the
+     * default percentages keep the spawn values of {@link Setting}.
+     */
+    private static final byte[] SPAWN_ORDER = {
+        Species.HERBIVORE, Species.PLANT, Species.CARNIVORE, Species.OMNIVORE
+    };
+
+    /** Number of rows in this world. */
+    protected final int rows;
+
+    /** Number of columns in each row of this world. */
+    protected final int columns;
+
+    /** Shape of the Cells of this world. */
+    protected final Cell cell;
+
+    /** Wrapped neighbours of this world; {@code null} if it is bounded. */
+    final Torus torus;
+
+    /** Species id of the LifeForm on each Cell. */
+    protected byte[] species;
+
+    /** Number of turns left before the LifeForm on each Cell dies. */
+    protected int[] hp;
+
+    /**
+     * Day on which the LifeForm on each Cell last acted, truncated to a byte.
+     * A LifeForm alive at the start of a day always acted the day before, so
+     * the truncated stamp never matches today by accident.
      */
-    private static Cell[][] initworld(CellFactory factory) {
+    protected final byte[] acted;
+
+    /** Number of days simulated so far. */
+    protected int day;
+
+    /** Random source of the LifeForms of this world. */
+    protected final RandomSource random;
 
-        Cell[][] temp = new Cell[factory.row()][factory.column()];
+    /** Configuration of the species of this world. */
+    protected final Config config;
 
-        RandomGenerator.reset();
+    /** Number of tiles across this world. */
+    protected final int tilesAcross;
 
-        for (int r = 0; r < temp.length; r++) {
-            for (int c = 0; c < temp[r].length; c++) {
-                temp[r][c] = factory.makeCell(r, c);
+    /**
+     * Number of LifeForms of each species in each tile, indexed by
+     * {@code (tileRow * tilesAcross + tileColumn) * Species.COUNT + id}.
+     * Atomic because tiles of a parallel day may move LifeForms across the
+     * same tile.
+     */
+    protected AtomicIntegerArray population;
+
+    /** Log of the changes of each day; {@code null} to record nothing. */
+    protected ChangeLog log;
+
+    /**
+     * Counters of the LifeForms of this world; {@code null} to count nothing.
+     * Only ever set if {@link Statistics#ENABLED}.
+     */
+    protected Statistics stats;
+
+    /**
+     * Count of each species, and of empty Cells, adjacent to every Cell,
+     * updated as Cells change.
+     */
+    protected final NeighbourCounts adjacentCounts;
+
+    /**
+     * Helper function to spawn a random LifeForm on every Cell of the world.
+     * 
+     * @param spawner {@code RandomSource} random source used to spawn
+     */
+    private void initworld(RandomSource spawner) {
+
+        for (int i = 0; i < species.length; i++) {
+            LifeForm life = spawn(spawner, config);
+
+            if (life != null) {
+                species[i] = life.id();
+                hp[i] = config.maxHP(life.id());
             }
         }
 
-        // Reset RandomGenerator
-        RandomGenerator.reset();
+        countPopulation();
+    }
 
-        return temp;
+    /**
+     * Resumes this World on the specified day after its Cells were filled
+     * directly, e.g. from a checkpoint.
+     *
+     * @param day {@code int} number of days simulated so far
+     */
+    final void restore(int day) {
+        this.day = day;
+
+        // No LifeForm has acted on the next day yet
+        Arrays.fill(acted, (byte) day);
+
+        countPopulation();
     }
 
     /**
-     * Returns a random Cell in the specified List of Cells.
-     * 
-     * @param cells {@code List<Cell>} list of Cells
-     * 
-     * @return a random Cell in the List
+     * Helper function to recount the LifeForms in every tile and the species
+     * adjacent to every Cell.
      */
-    public static Cell randomCell(List<Cell> cells) {
-        return cells.get(RandomGenerator.next(cells.size()));
+    private void countPopulation() {
+        int[] count = new int[population.length()];
+
+        for (int i = 0; i < species.length; i++)
+            if (species[i] != Species.EMPTY)
+                count[slot(i, species[i])]++;
+
+        population = new AtomicIntegerArray(count);
+
+        adjacentCounts.count(this);
     }
 
     /**
-     * Constructs a world object.
-     * 
-     * @param size {@code int} number of rows in this world
-     * @param size {@code int} number of columns in this world
+     * Helper method to spawn a random LifeForm with the percentage of each
+     * species of the specified configuration, by default 20% for the
+     * Herbivore, 20% for the Plant, 10% for the Carnivore, 5% for the Omnivore
+     * and 45% of nothing getting spawned.
+     *
+     * @param spawner {@code RandomSource} random source used to spawn
+     * @param config {@code Config} percentage of each species
+     *
+     * @return {@code LifeForm} a random LifeForm; {@code null} if nothing is
+     * spawned
+     */
+    static LifeForm spawn(RandomSource spawner, Config config) {
+        int value = spawner.next(Setting.SPAWN_VALUE);
+        int bound = Setting.SPAWN_VALUE;
+
+        for (byte id : SPAWN_ORDER) {
+            bound -= config.percent(id);
+
+            if (value >= bound)
+                return Species.of(id);
+        }
+
+        return null;
+    }
+
+    /**
+     * Constructs a world object that replays the predefined sequence of the
+     * RandomGenerator.
+     *
+     * @param factory {@code CellFactory} factory that defines the shape and
+     * the number of rows and columns of this world
      */
     public World(CellFactory factory) {
-        root = new AnchorPane();
+        this(factory, new TableRandom());
+    }
+
+    /**
+     * Constructs a world object with the specified random source. The world
+     * is populated from a split of the random source.
+     *
+     * @param factory {@code CellFactory} factory that defines the shape and
+     * the number of rows and columns of this world
+     * @param random {@code RandomSource} random source of this world
+     */
+    public World(CellFactory factory, RandomSource random) {
+        this(factory, random, Config.DEFAULT);
+    }
 
-        world = initworld(factory);
+    /**
+     * Constructs a world object with the specified random source, populated
+     * from a split of the random source with the percentage and maximum hp
+     * of each species of the specified configuration.
+     *
+     * @param factory {@code CellFactory} factory that defines the shape and
+     * the number of rows and columns of this world
+     * @param random {@code RandomSource} random source of this world
+     * @param config {@code Config} configuration of the species
+     */
+    public World(CellFactory factory, RandomSource random, Config config) {
+        this(factory, random, config, true);
+    }
 
-        for (Cell[] row : world)
-            for (Cell cell : row)
-                root.getChildren().add(cell.shape());
+    /**
+     * Constructs a world object with the specified random source and
+     * configuration, empty or populated from a split of the random source.
+     *
+     * @param factory {@code CellFactory} factory that defines the shape and
+     * the number of rows and columns of this world
+     * @param random {@code RandomSource} random source of this world
+     * @param config {@code Config} configuration of the species
+     * @param populate {@code boolean} {@code true} to spawn LifeForms;
+     * {@code false} to leave every Cell empty
+     */
+    World(CellFactory factory, RandomSource random, Config config,
+        boolean populate) {
+
+        this.random = random;
+        this.config = config;
+
+        rows = factory.row();
+        columns = factory.column();
+        cell = factory.makeCell();
+        torus = factory.torus() ? new Torus(cell, rows, columns) : null;
+
+        species = new byte[rows * columns];
+        hp = new int[rows * columns];
+        acted = new byte[rows * columns];
+
+        tilesAcross = (columns + (1 << TILE_SHIFT) - 1) >> TILE_SHIFT;
+        population = new AtomicIntegerArray(
+            ((rows + (1 << TILE_SHIFT) - 1) >> TILE_SHIFT) * tilesAcross
+                * Species.COUNT);
+        adjacentCounts = new NeighbourCounts(this);
+
+        if (populate)
+            initworld(random.split());
+        else
+            adjacentCounts.count(this);
     }
 
     /**
-     * Simulates a day in this World.
+     * Simulates a day in this World. Every LifeForm alive at the start of the
+     * day takes exactly one turn; LifeForms born or moved during the day wait
+     * for the next one.
      */
     public final void simulate() {
-        List<LifeForm> lifes = new ArrayList<LifeForm>();
+        DayEvent event = Profiler.ENABLED ? Profiler.beginDay() : null;
+
+        beginDay();
+
+        Neighbourhood adjacent = Neighbourhood.local();
+
+        adjacent.useRandom(random);
+
+        simulate(0, rows, 0, columns, adjacent);
 
-        for (Cell[] row : world)
-            for (Cell cell : row)
-                if (!cell.isEmpty())
-                    lifes.add(cell.occupant());
+        sealLog();
 
-        for (LifeForm organism : lifes)
-            organism.takeTurn(World.this);
+        if (Profiler.ENABLED)
+            Profiler.endDay(event, day);
     }
 
     /**
-     * Returns this World's representation as a 2-D array of Cell.
-     * 
-     * @return {@code Cell[][]} this World's representation as a 2-D of Cell
+     * Starts a new day so that every LifeForm can act again.
      */
-    public final Cell[][] world() {
-        return world;
+    final void beginDay() {
+        day++;
+
+        if (log != null)
+            log.begin(day);
     }
 
     /**
-     * Returns if the specified coordinate is within the boundary of this world.
-     * 
-     * @param row {@code int} 0-based row number, i.e. x-coordinate
-     * @param column {@code int} 0-based column number, i.e. y-coordinate
-     * 
-     * @return {@code true} if the specified coordinate is within the boundary
-     * of this world; {@code false} otherwise 
+     * Merges the changes recorded by every thread into the log, if any.
      */
-    private boolean inBoundary(int row, int column) {
-        return row >= 0 && row < world.length 
-            && column >= 0 && column < world[row].length;
+    final void sealLog() {
+        if (log != null)
+            log.seal();
     }
 
     /**
-     * Returns the GridPane of this World.
-     * 
-     * @return {@code GridPane} root of this World 
+     * Attaches the specified log to record the changes of every following
+     * day.
+     *
+     * @param log {@code ChangeLog} the log; {@code null} to record nothing
      */
-    public final AnchorPane root() {
-        return root;
+    public final void setChangeLog(ChangeLog log) {
+        this.log = log;
     }
 
     /**
-     * Returns a List of surrounding cells of the specified Cell that are 
-     * occupied by a LifeForm that can be eaten by the specified Cell's LifeForm
-     * or are empty.
-     * 
-     * @param cell {@code Cell} to find surrouding Cells
-     * 
-     * @return {@code List<Cell>} list of surrounding cells that are occupied by
-     * a LifeForm that can be eaten by the specified eater or are empty
+     * Returns the log of the changes of this World.
+     *
+     * @return {@code ChangeLog} the log; {@code null} if none is attached
+     */
+    public final ChangeLog changeLog() {
+        return log;
+    }
+
+    /**
+     * Attaches the specified Statistics to count the LifeForms of this World
+     * from now on. Their population is recounted from the Cells.
+     *
+     * @param stats {@code Statistics} the Statistics; {@code null} to count
+     * nothing
+     */
+    public final void setStatistics(Statistics stats) {
+        if (stats != null)
+            stats.count(species);
+
+        this.stats = stats;
+    }
+
+    /**
+     * Returns the Statistics of this World.
+     *
+     * @return {@code Statistics} the Statistics; {@code null} if none are
+     * attached
      */
-    public final List<Cell> getAdjacentEdibleOrEmpty(Cell cell) {
-        return getAdjacentCells(cell, t -> t.isEmpty() || cell.canEat(t));
+    public final Statistics statistics() {
+        return stats;
     }
 
     /**
-     * Returns a List of surrounding cells of the specified Cell that are 
-     * occupied by a LifeForm that can be eaten by the specified Cell's 
+     * Replaces the Cells of this World with the specified next generation.
+     *
+     * @param nextSpecies {@code byte[]} species id of each Cell
+     * @param nextHP {@code int[]} hp of each Cell
+     */
+    final void nextGeneration(byte[] nextSpecies, int[] nextHP) {
+        if (log != null) {
+            for (int i = 0; i < species.length; i++) {
+                if (species[i] == nextSpecies[i])
+                    continue;
+
+                if (species[i] != Species.EMPTY)
+                    log.record(ChangeLog.DEATH, species[i], i, -1);
+
+                if (nextSpecies[i] != Species.EMPTY)
+                    log.record(ChangeLog.BIRTH, nextSpecies[i], i, -1);
+            }
+
+            log.seal();
+        }
+
+        species = nextSpecies;
+        hp = nextHP;
+
+        // Every LifeForm took its turn today
+        Arrays.fill(acted, (byte) day);
+
+        countPopulation();
+    }
+
+    /**
+     * Lets every LifeForm in the specified rectangle of Cells that has not
+     * acted today take its turn, in row-major order. Tiles without LifeForms
+     * are skipped, and so are bands of rows whose tiles are all empty.
+     *
+     * @param fromRow {@code int} first row, inclusive
+     * @param toRow {@code int} last row, exclusive
+     * @param fromColumn {@code int} first column, inclusive
+     * @param toColumn {@code int} last column, exclusive
+     * @param adjacent {@code Neighbourhood} buffers of the current thread
+     */
+    final void simulate(int fromRow, int toRow, int fromColumn, int toColumn,
+        Neighbourhood adjacent) {
+
+        long scanStart = 0;
+        long turns = 0;
+
+        if (Profiler.ENABLED) {
+            scanStart = System.nanoTime();
+            turns = Profiler.beginScan();
+        }
+
+        int firstTile = fromColumn >> TILE_SHIFT;
+        int lastTile = (toColumn - 1) >> TILE_SHIFT;
+
+        for (int r = fromRow; r < toRow; r++) {
+            int band = (r >> TILE_SHIFT) * tilesAcross;
+
+            if (!occupied(band + firstTile, band + lastTile)) {
+                // Jump to the first row of the next band
+                r = ((r >> TILE_SHIFT) + 1 << TILE_SHIFT) - 1;
+                continue;
+            }
+
+            for (int t = firstTile; t <= lastTile; t++) {
+                if (population(band + t) == 0)
+                    continue;
+
+                int start = r * columns + Math.max(t << TILE_SHIFT, fromColumn);
+                int end = r * columns + Math.min(t + 1 << TILE_SHIFT, toColumn);
+
+                for (int i = start; i < end; i++) {
+                    if (species[i] != Species.EMPTY && !hasActed(i)) {
+                        markActed(i);
+                        Species.of(species[i]).takeTurn(this, i, adjacent);
+                    }
+                }
+            }
+        }
+
+        if (Profiler.ENABLED)
+            Profiler.endScan(scanStart, turns);
+    }
+
+    /**
+     * Helper method to return if any of the specified range of tiles holds a
      * LifeForm.
-     * 
-     * @param cell {@code Cell} to find surrounding Cells
-     * 
-     * @return {@code List<Cell>} list of surrounding cells that are occupied by
-     * a LifeForm that can be eaten by the specified eater or are empty
+     *
+     * @param from {@code int} first tile, inclusive
+     * @param to {@code int} last tile, inclusive
+     *
+     * @return {@code true} if a tile holds a LifeForm; {@code false} otherwise
      */
-    public final List<Cell> getAdjacentEdible(Cell cell) {
-        return getAdjacentCells(cell, t -> cell.canEat(t));
+    private boolean occupied(int from, int to) {
+        for (int t = from; t <= to; t++)
+            if (population(t) != 0)
+                return true;
+
+        return false;
     }
 
     /**
-     * Returns a List of surrounding cells that are empty.
-     * 
-     * @param cell {@code Cell} to find surrouding Cells
-     * 
-     * @return {@code List<Cell>} list of surrounding cells that are empty
+     * Copies the species of every Cell of this World into a Snapshot.
+     *
+     * @param reuse {@code Snapshot} Snapshot to fill; {@code null} or one of
+     * another size to create a new one
+     *
+     * @return {@code Snapshot} the filled Snapshot
      */
-    public final List<Cell> getAdjacentEmpty(Cell cell) {
+    public final Snapshot snapshot(Snapshot reuse) {
+        Snapshot temp = reuse;
+
+        if (temp == null || temp.size() != species.length)
+            temp = new Snapshot(species.length);
 
-        return getAdjacentCells(cell, t -> t.isEmpty());
+        System.arraycopy(species, 0, temp.species, 0, species.length);
+        temp.day = day;
+
+        return temp;
     }
 
     /**
-     * Returns a List of surrounding cells that are occupied by a LifeForm that
-     * can breed with the LifeForm that are occupying the specified Cell.
-     * 
-     * @param cell {@code Cell} to find surrouding Cells
-     * 
-     * @return {@code List<Cell>} list of surrounding cells that are occupied by
-     * a LifeForm that can breed with the LifeForm that are occupying the 
-     * specified Cell.
+     * Returns the tile of the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code int} index of the tile
      */
-    public final List<Cell> getAdjacentBreedable(Cell cell) {
+    final int tile(int cell) {
+        int row = cell / columns;
 
-        return getAdjacentCells(cell, t -> cell.canBreed(t));
+        return (row >> TILE_SHIFT) * tilesAcross
+            + ((cell - row * columns) >> TILE_SHIFT);
     }
-    
+
     /**
-     * Returns a List of adjacent Cells to the specified Cell with the specified
-     * condition.
-     * 
-     * @param cell {@code Cell} the Cell to find adjacent Cells
-     * @param condition {@code Predicate<Cell>} the condition
-     * 
-     * @return {@code List<Cell>} list of adjacent Cells with the specified
-     * condition
+     * Helper method to return the index in {@link #population} of the
+     * specified species in the tile of the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param id {@code byte} species id
+     *
+     * @return {@code int} index of the count
+     */
+    private int slot(int cell, byte id) {
+        return tile(cell) * Species.COUNT + id;
+    }
+
+    /**
+     * Returns the number of LifeForms in the specified tile.
+     *
+     * @param tile {@code int} index of the tile, i.e.
+     * {@code tileRow * tilesAcross + tileColumn}
+     *
+     * @return {@code int} number of LifeForms in the tile
+     */
+    public final int population(int tile) {
+        int base = tile * Species.COUNT;
+        int sum = 0;
+
+        for (byte id = Species.PLANT; id < Species.COUNT; id++)
+            sum += population.get(base + id);
+
+        return sum;
+    }
+
+    /**
+     * Returns the number of LifeForms of the specified species in this
+     * World, kept up to date as its Cells change.
+     *
+     * @param id {@code byte} species id, not {@link Species#EMPTY}
+     *
+     * @return {@code int} number of LifeForms of the species
+     */
+    public final int speciesPopulation(byte id) {
+        int sum = 0;
+
+        for (int s = id; s < population.length(); s += Species.COUNT)
+            sum += population.get(s);
+
+        return sum;
+    }
+
+    /**
+     * Returns the number of rows in this World.
+     *
+     * @return {@code int} number of rows
+     */
+    public final int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns in each row of this World.
+     *
+     * @return {@code int} number of columns
+     */
+    public final int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the shape of the Cells of this World.
+     *
+     * @return {@code Cell} shape of the Cells
+     */
+    public final Cell cell() {
+        return cell;
+    }
+
+    /**
+     * Returns if the edges of this World wrap around.
+     *
+     * @return {@code true} if this World is a torus; {@code false} if it is
+     * bounded
+     */
+    public final boolean wraps() {
+        return torus != null;
+    }
+
+    /**
+     * Returns the number of days simulated in this World.
+     *
+     * @return {@code int} number of days simulated
+     */
+    public final int day() {
+        return day;
+    }
+
+    /**
+     * Returns the random source of this World.
+     *
+     * @return {@code RandomSource} random source of this World
+     */
+    public final RandomSource random() {
+        return random;
+    }
+
+    /**
+     * Returns the index of the Cell at the specified coordinate.
+     *
+     * @param row {@code int} 0-based row number, i.e. y-coordinate
+     * @param column {@code int} 0-based column number, i.e. x-coordinate
+     *
+     * @return {@code int} index of the Cell
+     */
+    public final int index(int row, int column) {
+        return row * columns + column;
+    }
+
+    /**
+     * Returns the species id of the LifeForm on the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code byte} species id; {@link Species#EMPTY} if the Cell is
+     * empty
+     */
+    public final byte species(int cell) {
+        return species[cell];
+    }
+
+    @Override
+    public final LifeForm occupant(int cell) {
+        return Species.of(species[cell]);
+    }
+
+    /**
+     * Returns if the specified Cell is empty.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code true} if the Cell is empty; {@code false} otherwise
+     */
+    public final boolean isEmpty(int cell) {
+        return species[cell] == Species.EMPTY;
+    }
+
+    @Override
+    public final int maxHP(byte species) {
+        return config.maxHP(species);
+    }
+
+    @Override
+    public final int hp(int cell) {
+        return hp[cell];
+    }
+
+    @Override
+    public final void setHP(int cell, int value) {
+        hp[cell] = value;
+    }
+
+    @Override
+    public final void setOccupant(int cell, LifeForm newLife) {
+
+        if (!isEmpty(cell))
+            throw new IllegalArgumentException("Cell is not empty!");
+
+        species[cell] = newLife.id();
+        hp[cell] = config.maxHP(species[cell]);
+
+        population.getAndIncrement(slot(cell, species[cell]));
+        adjust(cell, Species.EMPTY, species[cell]);
+
+        markActed(cell);
+
+        if (log != null)
+            log.record(ChangeLog.BIRTH, species[cell], cell, -1);
+
+        if (Statistics.ENABLED && stats != null)
+            stats.born(species[cell]);
+    }
+
+    @Override
+    public final void kill(int cell) {
+        if (species[cell] == Species.EMPTY)
+            return;
+
+        if (log != null)
+            log.record(ChangeLog.DEATH, species[cell], cell, -1);
+
+        if (Statistics.ENABLED && stats != null)
+            stats.starved(species[cell]);
+
+        clear(cell);
+    }
+
+    @Override
+    public final void eat(int eater, int food) {
+        if (log != null)
+            log.record(ChangeLog.EAT, species[food], food, eater);
+
+        if (Statistics.ENABLED && stats != null)
+            stats.eaten(species[food]);
+
+        clear(food);
+    }
+
+    @Override
+    public final boolean move(int from, int to) {
+        if (!isEmpty(to))
+            return false;
+
+        species[to] = species[from];
+        hp[to] = hp[from];
+
+        population.getAndIncrement(slot(to, species[to]));
+        adjust(to, Species.EMPTY, species[to]);
+
+        markActed(to);
+
+        if (log != null)
+            log.record(ChangeLog.MOVE, species[to], to, from);
+
+        if (Statistics.ENABLED && stats != null)
+            stats.moved();
+
+        clear(from);
+
+        return true;
+    }
+
+    /**
+     * Helper method to empty the specified occupied Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     */
+    private void clear(int cell) {
+        adjust(cell, species[cell], Species.EMPTY);
+
+        population.getAndDecrement(slot(cell, species[cell]));
+
+        species[cell] = Species.EMPTY;
+        hp[cell] = 0;
+    }
+
+    /**
+     * Helper method to update the counts of the Cells adjacent to the
+     * specified Cell after it changed from one species to another.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param from {@code byte} species id before the change
+     * @param to {@code byte} species id after the change
      */
-    protected List<Cell> getAdjacentCells(Cell cell, Predicate<Cell> condition) {
-        
-        List<Cell> surround = new ArrayList<Cell>();
-            
-        int row = cell.row();
-        int column = cell.column();
+    private void adjust(int cell, byte from, byte to) {
+        int row = cell / columns;
+        int column = cell - row * columns;
+
+        if (torus != null) {
+            for (int d = 0, degree = torus.degree(); d < degree; d++)
+                adjacentCounts.change(torus.neighbour(row, column, d), from,
+                    to);
+            return;
+        }
 
-        int[][] adjacentMatrix = cell.adjacent();
+        // Adjacency is symmetric, so the Cells to update are those the Cell
+        // itself is adjacent to
+        for (int[] point : this.cell.adjacent(row)) {
+            if (inBoundary(row + point[0], column + point[1]))
+                adjacentCounts.change(cell + point[0] * columns + point[1],
+                    from, to);
+        }
+    }
+
+    /**
+     * Returns if the LifeForm on the specified Cell has already acted today.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code true} if the LifeForm has acted; {@code false} otherwise
+     */
+    private boolean hasActed(int cell) {
+        return acted[cell] == (byte) day;
+    }
+
+    /**
+     * Marks the LifeForm on the specified Cell as having acted today.
+     *
+     * @param cell {@code int} index of the Cell
+     */
+    private void markActed(int cell) {
+        acted[cell] = (byte) day;
+    }
+
+    /**
+     * Returns the Cell in the specified direction of the specified Cell.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param direction {@code int} index into the adjacency matrix of the Cell
+     *
+     * @return {@code int} index of the adjacent Cell; {@code -1} if it is
+     * outside of a bounded world
+     */
+    final int neighbour(int cell, int direction) {
+        int row = cell / columns;
+        int column = cell - row * columns;
+
+        if (torus != null)
+            return torus.neighbour(row, column, direction);
+
+        int[] point = this.cell.adjacent(row)[direction];
+
+        if (!inBoundary(row + point[0], column + point[1]))
+            return -1;
+
+        return cell + point[0] * columns + point[1];
+    }
+
+    /**
+     * Returns the number of Cells adjacent to the specified Cell, including
+     * those outside of a bounded world.
+     *
+     * @param cell {@code int} index of the Cell
+     *
+     * @return {@code int} size of the adjacency matrix of the Cell
+     */
+    final int degree(int cell) {
+        return this.cell.adjacent(cell / columns).length;
+    }
+
+    /**
+     * Returns if the specified coordinate is within the boundary of this world.
+     *
+     * @param row {@code int} 0-based row number, i.e. x-coordinate
+     * @param column {@code int} 0-based column number, i.e. y-coordinate
+     *
+     * @return {@code true} if the specified coordinate is within the boundary
+     * of this world; {@code false} otherwise
+     */
+    private boolean inBoundary(int row, int column) {
+        return row >= 0 && row < rows
+            && column >= 0 && column < columns;
+    }
+
+    /**
+     * Returns the number of Cells adjacent to the specified Cell that hold
+     * the specified species, kept up to date as the Cells change.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param species {@code byte} species id; {@link Species#EMPTY} for
+     * empty Cells
+     *
+     * @return {@code int} number of adjacent Cells
+     */
+    public final int adjacentCount(int cell, byte species) {
+        return adjacentCounts.count(cell, species);
+    }
+
+    @Override
+    public final void count(int cell, Neighbourhood adjacent) {
+        adjacent.counted(adjacentCounts.count(cell, Species.EMPTY),
+            adjacentCount(cell, Species.diet(species[cell])),
+            adjacentCount(cell, Species.mates(species[cell])));
+    }
+
+    /**
+     * Helper method to return the number of Cells adjacent to the specified
+     * Cell that hold any of the specified species.
+     *
+     * @param cell {@code int} index of the Cell
+     * @param mask {@code int} {@link Species#bit(byte)} of each species
+     *
+     * @return {@code int} number of adjacent Cells
+     */
+    private int adjacentCount(int cell, int mask) {
+        int count = 0;
+
+        for (byte s = Species.PLANT; s < Species.COUNT; s++)
+            if ((mask & Species.bit(s)) != 0)
+                count += adjacentCounts.count(cell, s);
+
+        return count;
+    }
+
+    @Override
+    public final void classify(int cell, Neighbourhood adjacent) {
+        int diet = Species.diet(species[cell]);
+        int mates = Species.mates(species[cell]);
+
+        int row = cell / columns;
+        int column = cell - row * columns;
+
+        adjacent.clear();
+
+        if (torus != null) {
+            for (int d = 0, degree = torus.degree(); d < degree; d++)
+                addAdjacent(diet, mates, torus.neighbour(row, column, d),
+                    adjacent);
+            return;
+        }
+
+        int[][] adjacentMatrix = this.cell.adjacent(row);
 
         for (int[] point : adjacentMatrix) {
-            if (inBoundary(row + point[0], column + point[1])) {
+            if (!inBoundary(row + point[0], column + point[1]))
+                continue;
 
-                Cell temp = world[row + point[0]][column + point[1]];
+            addAdjacent(diet, mates, cell + point[0] * columns + point[1],
+                adjacent);
+        }
+    }
 
-                if (condition.test(temp))
-                    surround.add(temp);
-            }
+    /**
+     * Helper method to classify one Cell adjacent to the specified LifeForm.
+     *
+     * @param diet {@code int} {@link Species#diet(byte)} of the LifeForm
+     * @param mates {@code int} {@link Species#mates(byte)} of the LifeForm
+     * @param temp {@code int} index of the adjacent Cell
+     * @param adjacent {@code Neighbourhood} buffers to fill
+     */
+    private void addAdjacent(int diet, int mates, int temp,
+        Neighbourhood adjacent) {
+
+        byte other = species[temp];
+
+        if (other == Species.EMPTY) {
+            adjacent.empty[adjacent.emptyCount++] = temp;
+            adjacent.foodOrEmpty[adjacent.foodOrEmptyCount++] = temp;
+            return;
+        }
+
+        int bit = Species.bit(other);
+
+        if ((diet & bit) != 0) {
+            adjacent.food[adjacent.foodCount++] = temp;
+            adjacent.foodOrEmpty[adjacent.foodOrEmptyCount++] = temp;
         }
 
-        return surround;
+        if ((mates & bit) != 0)
+            adjacent.breedable[adjacent.breedableCount++] = temp;
     }
 
 }